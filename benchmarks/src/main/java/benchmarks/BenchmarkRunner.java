@@ -0,0 +1,136 @@
+package benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BenchmarkRunner {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : "benchmarks\\..*";
+        Path result = Path.of(System.getProperty("jmh.result", "jmh-result.csv"));
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "baseline.csv"));
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(result.toString())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        if (Files.exists(baseline)) {
+            compare(results, readScores(baseline));
+        } else {
+            System.out.printf("No baseline at %s, copy %s there to store one%n", baseline, result);
+        }
+    }
+
+    private static void compare(Collection<RunResult> results, Map<String, Double> baseline) {
+        System.out.printf("%nComparison against baseline (positive = larger than baseline):%n");
+        for (RunResult runResult : results) {
+            String key = key(runResult.getParams());
+            report(key, runResult.getPrimaryResult(), baseline.get(key));
+
+            Result<?> allocation = runResult.getSecondaryResults().get(ALLOCATION_METRIC);
+            if (allocation != null) {
+                report(key + ":" + ALLOCATION_METRIC, allocation, baseline.get(key + ":" + ALLOCATION_METRIC));
+            }
+        }
+    }
+
+    private static void report(String key, Result<?> current, Double baseline) {
+        if (baseline == null) {
+            System.out.printf("%-90s %14.3f %-12s (new)%n", key, current.getScore(), current.getScoreUnit());
+        } else if (baseline == 0) {
+            System.out.printf("%-90s %14.3f %-12s (baseline 0)%n", key, current.getScore(), current.getScoreUnit());
+        } else {
+            double change = (current.getScore() - baseline) / baseline * 100;
+            System.out.printf("%-90s %14.3f %-12s %+8.1f%%%n", key, current.getScore(), current.getScoreUnit(), change);
+        }
+    }
+
+    private static String key(BenchmarkParams params) {
+        Map<String, String> values = new TreeMap<>();
+        for (String name : params.getParamsKeys()) {
+            values.put(name, params.getParam(name));
+        }
+        return params.getBenchmark() + values;
+    }
+
+    private static Map<String, Double> readScores(Path csv) throws IOException {
+        List<String> lines = Files.readAllLines(csv);
+        List<String> header = parseCsvLine(lines.get(0));
+        int benchmarkColumn = header.indexOf("Benchmark");
+        int scoreColumn = header.indexOf("Score");
+
+        Map<String, Double> scores = new HashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            String benchmark = fields.get(benchmarkColumn);
+            String metric = "";
+            int separator = benchmark.indexOf(':');
+            if (separator >= 0) {
+                metric = benchmark.substring(separator);
+                benchmark = benchmark.substring(0, separator);
+            }
+
+            Map<String, String> values = new TreeMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < fields.size() && !fields.get(i).isEmpty()) {
+                    values.put(header.get(i).substring("Param: ".length()), fields.get(i));
+                }
+            }
+            scores.put(benchmark + values + metric, Double.parseDouble(fields.get(scoreColumn)));
+        }
+        return scores;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
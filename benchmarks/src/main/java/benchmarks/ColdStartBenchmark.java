@@ -0,0 +1,69 @@
+package benchmarks;
+
+import lexer.Lexer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import parser.Parser;
+import store.ExpressionStore;
+import store.ExpressionStoreWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ColdStartBenchmark {
+    private static final int FIRST_TRAFFIC = 100;
+
+    @Param({"20000", "200000"})
+    private int count;
+
+    private List<String> expressions;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        expressions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expressions.add(Expressions.SHORT + " + x * " + i);
+        }
+        file = Files.createTempFile("cold-start", ".store");
+        ExpressionStoreWriter.write(file, expressions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void parseAll(Blackhole blackhole) {
+        for (String expression : expressions) {
+            blackhole.consume(Parser.parse(Lexer.tokenize(expression)));
+        }
+    }
+
+    @Benchmark
+    public void openStore(Blackhole blackhole) throws IOException {
+        ExpressionStore store = ExpressionStore.open(file);
+        for (int i = 0; i < FIRST_TRAFFIC; i++) {
+            blackhole.consume(store.get(expressions.get(i * (count / FIRST_TRAFFIC))));
+        }
+    }
+
+    @Benchmark
+    public void openStoreAndLoadAll(Blackhole blackhole) throws IOException {
+        ExpressionStore store = ExpressionStore.open(file);
+        for (int i = 0; i < store.size(); i++) {
+            blackhole.consume(store.get(i));
+        }
+    }
+}
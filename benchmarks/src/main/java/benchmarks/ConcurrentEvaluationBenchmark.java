@@ -0,0 +1,53 @@
+package benchmarks;
+
+import function.MathFunction;
+import lexer.Lexer;
+import org.openjdk.jmh.annotations.*;
+import parser.Parser;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentEvaluationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedFunction {
+        MathFunction function;
+
+        @Setup
+        public void setUp() {
+            function = Parser.parse(Lexer.tokenize(Expressions.SHORT));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Point {
+        BigDecimal[] exactValues;
+        double[] doubleValues;
+
+        @Setup
+        public void setUp() {
+            double x = ThreadLocalRandom.current().nextDouble(1, 10);
+            double y = ThreadLocalRandom.current().nextDouble(1, 10);
+            exactValues = new BigDecimal[]{BigDecimal.valueOf(x), BigDecimal.valueOf(y)};
+            doubleValues = new double[]{x, y};
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculate(SharedFunction shared, Point point) {
+        return shared.function.calculate(point.exactValues);
+    }
+
+    @Benchmark
+    public double calculateDouble(SharedFunction shared, Point point) {
+        return shared.function.calculateDouble(point.doubleValues);
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import compiler.ExpressionProgram;
+import compiler.ProgramCompiler;
+import function.MathFunction;
+import lexer.Lexer;
+import org.openjdk.jmh.annotations.*;
+import parser.Parser;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    @Param({
+            "1.5", "x",
+            "x+y", "x-y", "x*y", "x/y", "x%y", "x^y",
+            "-x", "sin(x)", "cos(x)", "tan(x)", "catan(x)", "sqrt(x)", "ln(x)", "lg(x)", "abs(x)"
+    })
+    private String expression;
+
+    private MathFunction function;
+    private ExpressionProgram program;
+    private BigDecimal[] exactValues;
+    private double[] doubleValues;
+
+    @Setup
+    public void setUp() {
+        function = Parser.parse(Lexer.tokenize(expression));
+        program = ProgramCompiler.compile(Parser.parseTree(Lexer.tokenize(expression)));
+        exactValues = new BigDecimal[]{new BigDecimal("2.75"), new BigDecimal("1.25")};
+        doubleValues = new double[]{2.75, 1.25};
+    }
+
+    @Benchmark
+    public BigDecimal calculate() {
+        return function.calculate(exactValues);
+    }
+
+    @Benchmark
+    public double calculateDouble() {
+        return function.calculateDouble(doubleValues);
+    }
+
+    @Benchmark
+    public BigDecimal programCalculate() {
+        return program.calculate(exactValues);
+    }
+
+    @Benchmark
+    public double programCalculateDouble() {
+        return program.calculateDouble(doubleValues);
+    }
+}
@@ -0,0 +1,34 @@
+package benchmarks;
+
+final class Expressions {
+    static final String SHORT = "sqrt(x^2 + y^2) * 2,5 - sin(x) / (1 + abs(y))";
+
+    private Expressions() {
+    }
+
+    static String ofLength(int length) {
+        StringBuilder expression = new StringBuilder(length + SHORT.length());
+        expression.append(SHORT);
+        while (expression.length() < length) {
+            expression.append(" + ").append(SHORT);
+        }
+        return expression.toString();
+    }
+
+    static String deep(int depth) {
+        StringBuilder expression = new StringBuilder();
+        expression.append("(".repeat(depth)).append('x');
+        for (int i = 0; i < depth; i++) {
+            expression.append(i % 2 == 0 ? " + 1.5)" : " * y)");
+        }
+        return expression.toString();
+    }
+
+    static String wide(int terms) {
+        StringBuilder expression = new StringBuilder("x");
+        for (int i = 1; i < terms; i++) {
+            expression.append(i % 3 == 0 ? " - " : " + ").append(i % 2 == 0 ? "y*" : "x/").append(i);
+        }
+        return expression.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package benchmarks;
+
+import lexer.Lexer;
+import lexer.Token;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+    @Param({"short", "10k"})
+    private String size;
+
+    private String expression;
+
+    @Setup
+    public void setUp() {
+        expression = size.equals("short") ? Expressions.SHORT : Expressions.ofLength(10_000);
+    }
+
+    @Benchmark
+    public List<Token> tokenize() {
+        return Lexer.tokenize(expression);
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import function.MathFunction;
+import lexer.Lexer;
+import lexer.Token;
+import org.openjdk.jmh.annotations.*;
+import parser.Parser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"deep", "wide"})
+    private String shape;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private String expression;
+    private List<Token> tokens;
+
+    @Setup
+    public void setUp() {
+        expression = shape.equals("deep") ? Expressions.deep(size) : Expressions.wide(size);
+        tokens = Lexer.tokenize(expression);
+    }
+
+    @Benchmark
+    public MathFunction parse() {
+        return Parser.parse(tokens);
+    }
+
+    @Benchmark
+    public MathFunction parseFromSource() {
+        return Parser.parse(expression);
+    }
+}
@@ -0,0 +1,179 @@
+package cache;
+
+import function.MathFunction;
+import lexer.Lexer;
+import parser.Parser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class ExpressionCache {
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final int maximumSize;
+    private final long expireAfterAccessNanos;
+    private final Function<String, MathFunction> compiler;
+    private final LongSupplier ticker;
+
+    public ExpressionCache(int maximumSize, Duration expireAfterAccess) {
+        this(maximumSize, expireAfterAccess, expression -> Parser.parse(Lexer.tokenize(expression)));
+    }
+
+    public ExpressionCache(int maximumSize, Duration expireAfterAccess, Function<String, MathFunction> compiler) {
+        this(maximumSize, expireAfterAccess, compiler, System::nanoTime);
+    }
+
+    ExpressionCache(int maximumSize, Duration expireAfterAccess, Function<String, MathFunction> compiler,
+                    LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if (expireAfterAccess != null && (expireAfterAccess.isNegative() || expireAfterAccess.isZero())) {
+            throw new IllegalArgumentException("Expiration must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.expireAfterAccessNanos = expireAfterAccess == null ? 0 : expireAfterAccess.toNanos();
+        this.compiler = compiler;
+        this.ticker = ticker;
+    }
+
+    public MathFunction get(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Expression cannot be null or empty");
+        }
+
+        String key = Lexer.normalize(expression);
+        long now = ticker.getAsLong();
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!isExpired(entry, now)) {
+                entry.lastAccess = now;
+                hits.increment();
+                return entry.function;
+            }
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+
+        boolean[] loaded = new boolean[1];
+        entry = entries.computeIfAbsent(key, k -> {
+            loaded[0] = true;
+            return new Entry(compiler.apply(k), now);
+        });
+
+        if (loaded[0]) {
+            misses.increment();
+            if (entries.size() > maximumSize) {
+                evict(now);
+            }
+        } else {
+            entry.lastAccess = now;
+            hits.increment();
+        }
+        return entry.function;
+    }
+
+    public void invalidate(String expression) {
+        entries.remove(Lexer.normalize(expression));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            removeExpired(ticker.getAsLong());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            removeExpired(now);
+            if (entries.size() <= maximumSize) {
+                return;
+            }
+
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                candidates.add(new Candidate(entry.getKey(), entry.getValue(), entry.getValue().lastAccess));
+            }
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+
+            int excess = candidates.size() - (int) (maximumSize * EVICTION_TARGET_RATIO);
+            for (int i = 0; i < excess; i++) {
+                Candidate candidate = candidates.get(i);
+                if (entries.remove(candidate.key(), candidate.entry())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void removeExpired(long now) {
+        if (expireAfterAccessNanos == 0) {
+            return;
+        }
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            if (isExpired(candidate.getValue(), now) && entries.remove(candidate.getKey(), candidate.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expireAfterAccessNanos != 0 && now - entry.lastAccess >= expireAfterAccessNanos;
+    }
+
+    private record Candidate(String key, Entry entry, long lastAccess) {
+    }
+
+    private static final class Entry {
+        private final MathFunction function;
+        private volatile long lastAccess;
+
+        private Entry(MathFunction function, long lastAccess) {
+            this.function = function;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package cache;
+
+import function.EvaluationStatus;
+import function.GradientBuffers;
+import function.Interval;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+public final class MemoizedFunction extends MathFunction {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private final MathFunction delegate;
+    private final int maximumSize;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MemoizedFunction(MathFunction delegate, int maximumSize) {
+        super(delegate.getVarNumber());
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+
+        int segmentCount = Math.min(MAX_SEGMENTS,
+                Integer.highestOneBit(Math.max(1, maximumSize / MIN_SEGMENT_CAPACITY)));
+        int segmentCapacity = (maximumSize + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity, Math.max(1, delegate.getVarNumber()));
+        }
+    }
+
+    @Override
+    public BigDecimal calculate(BigDecimal[] values) {
+        return delegate.calculate(values);
+    }
+
+    @Override
+    public double calculateDouble(double[] values) {
+        long hash = hash(values);
+        Segment segment = segmentFor(hash);
+        long cached = segment.get(values, hash);
+        if (cached != Segment.ABSENT) {
+            hits.increment();
+            return Double.longBitsToDouble(cached);
+        }
+
+        misses.increment();
+        double result = delegate.calculateDouble(values);
+        store(segment, values, hash, result);
+        return result;
+    }
+
+    @Override
+    public double calculateDouble(double[] values, EvaluationStatus status) {
+        long hash = hash(values);
+        Segment segment = segmentFor(hash);
+        long cached = segment.get(values, hash);
+        if (cached != Segment.ABSENT) {
+            hits.increment();
+            return Double.longBitsToDouble(cached);
+        }
+
+        misses.increment();
+        boolean wasOk = status.isOk();
+        double result = delegate.calculateDouble(values, status);
+        if (wasOk && status.isOk()) {
+            store(segment, values, hash, result);
+        }
+        return result;
+    }
+
+    @Override
+    public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+        return delegate.calculateDual(values, gradient, buffers);
+    }
+
+    @Override
+    public Interval calculateInterval(Interval[] values) {
+        return delegate.calculateInterval(values);
+    }
+
+    public MathFunction getDelegate() {
+        return delegate;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private void store(Segment segment, double[] values, long hash, double result) {
+        if (segment.put(values, hash, Double.doubleToLongBits(result))) {
+            evictions.increment();
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 32) & (segments.length - 1)];
+    }
+
+    private long hash(double[] values) {
+        long hash = 0x9E3779B97F4A7C15L ^ values.length;
+        for (int i = 0; i < values.length; i++) {
+            hash = (hash ^ Double.doubleToLongBits(values[i])) * 0xBF58476D1CE4E5B9L;
+            hash ^= hash >>> 31;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static final class Segment {
+        static final long ABSENT = 0x7FF0000000000001L;
+
+        private final StampedLock lock = new StampedLock();
+        private final int capacity;
+        private final int mask;
+        private final long[] hashes;
+        private final int[] lengths;
+        private final long[] results;
+        private final boolean[] used;
+        private final byte[] referenced;
+        private Keys keys;
+        private int size;
+        private int hand;
+
+        private Segment(int capacity, int width) {
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            this.capacity = capacity;
+            this.mask = tableSize - 1;
+            this.hashes = new long[tableSize];
+            this.lengths = new int[tableSize];
+            this.keys = new Keys(width, new long[tableSize * width]);
+            this.results = new long[tableSize];
+            this.used = new boolean[tableSize];
+            this.referenced = new byte[tableSize];
+        }
+
+        long get(double[] values, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            int slot = find(values, hash);
+            long result = slot >= 0 ? results[slot] : ABSENT;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    slot = find(values, hash);
+                    result = slot >= 0 ? results[slot] : ABSENT;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (slot < 0) {
+                return ABSENT;
+            }
+            referenced[slot] = 1;
+            return result;
+        }
+
+        boolean put(double[] values, long hash, long result) {
+            long stamp = lock.writeLock();
+            try {
+                int existing = find(values, hash);
+                if (existing >= 0) {
+                    results[existing] = result;
+                    return false;
+                }
+
+                boolean evicted = false;
+                if (size == capacity) {
+                    evict();
+                    evicted = true;
+                }
+                if (values.length > keys.width()) {
+                    widen(values.length);
+                }
+                int slot = (int) hash & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = hash;
+                lengths[slot] = values.length;
+                for (int i = 0; i < values.length; i++) {
+                    keys.bits()[slot * keys.width() + i] = Double.doubleToLongBits(values[i]);
+                }
+                results[slot] = result;
+                referenced[slot] = 0;
+                used[slot] = true;
+                size++;
+                return evicted;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(used, false);
+                Arrays.fill(referenced, (byte) 0);
+                size = 0;
+                hand = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int find(double[] values, long hash) {
+            Keys current = keys;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                if (!used[slot]) {
+                    return -1;
+                }
+                if (hashes[slot] == hash && matches(slot, values, current)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private boolean matches(int slot, double[] values, Keys current) {
+            if (lengths[slot] != values.length || values.length > current.width()) {
+                return false;
+            }
+            int base = slot * current.width();
+            for (int i = 0; i < values.length; i++) {
+                if (current.bits()[base + i] != Double.doubleToLongBits(values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void widen(int width) {
+            long[] bits = new long[(mask + 1) * width];
+            for (int slot = 0; slot <= mask; slot++) {
+                if (used[slot]) {
+                    System.arraycopy(keys.bits(), slot * keys.width(), bits, slot * width, lengths[slot]);
+                }
+            }
+            keys = new Keys(width, bits);
+        }
+
+        private void evict() {
+            while (true) {
+                if (used[hand]) {
+                    if (referenced[hand] == 0) {
+                        remove(hand);
+                        return;
+                    }
+                    referenced[hand] = 0;
+                }
+                hand = (hand + 1) & mask;
+            }
+        }
+
+        private void remove(int slot) {
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (used[next]) {
+                int ideal = (int) hashes[next] & mask;
+                if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                    hashes[hole] = hashes[next];
+                    lengths[hole] = lengths[next];
+                    System.arraycopy(keys.bits(), next * keys.width(), keys.bits(), hole * keys.width(),
+                            lengths[next]);
+                    results[hole] = results[next];
+                    referenced[hole] = referenced[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            used[hole] = false;
+            referenced[hole] = 0;
+            size--;
+        }
+
+        private record Keys(int width, long[] bits) {
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ClassFileWriter {
+    private static final int CLASS_FILE_VERSION = 61;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> poolIndices = new HashMap<>();
+    private final List<byte[]> methods = new ArrayList<>();
+    private final String className;
+    private final String superName;
+    private int poolCount = 1;
+
+    ClassFileWriter(String className, String superName) {
+        this.className = className;
+        this.superName = superName;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    MethodWriter method(String name, String descriptor, int maxLocals) {
+        return new MethodWriter(name, descriptor, maxLocals);
+    }
+
+    byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            int thisClass = classRef(className);
+            int superClass = classRef(superName);
+
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_VERSION);
+            out.writeShort(poolCount);
+            pool.flush();
+            out.write(poolBytes.toByteArray());
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    int utf8(String value) {
+        return constant("U" + value, () -> {
+            pool.writeByte(1);
+            pool.writeUTF(value);
+        }, 1);
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, () -> {
+            pool.writeByte(7);
+            pool.writeShort(name);
+        }, 1);
+    }
+
+    int string(String value) {
+        int utf = utf8(value);
+        return constant("S" + value, () -> {
+            pool.writeByte(8);
+            pool.writeShort(utf);
+        }, 1);
+    }
+
+    int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        return constant("D" + bits, () -> {
+            pool.writeByte(6);
+            pool.writeLong(bits);
+        }, 2);
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(9, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = constant("N" + name + ":" + descriptor, () -> {
+            pool.writeByte(12);
+            pool.writeShort(nameIndex);
+            pool.writeShort(descriptorIndex);
+        }, 1);
+        return constant(tag + owner + "." + name + ":" + descriptor, () -> {
+            pool.writeByte(tag);
+            pool.writeShort(ownerIndex);
+            pool.writeShort(nameAndType);
+        }, 1);
+    }
+
+    private int constant(String key, PoolEntry entry, int slots) {
+        Integer existing = poolIndices.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            entry.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int index = poolCount;
+        poolCount += slots;
+        if (poolCount > 0xFFFF) {
+            throw new UnsupportedOperationException("Expression too large to compile: constant pool overflow");
+        }
+        poolIndices.put(key, index);
+        return index;
+    }
+
+    private interface PoolEntry {
+        void write() throws IOException;
+    }
+
+    final class MethodWriter {
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private final String name;
+        private final String descriptor;
+        private final int maxLocals;
+        private int stack;
+        private int maxStack;
+
+        private MethodWriter(String name, String descriptor, int maxLocals) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxLocals = maxLocals;
+        }
+
+        void op(int opcode, int stackDelta) {
+            code.write(opcode);
+            adjustStack(stackDelta);
+        }
+
+        void opWithShort(int opcode, int operand, int stackDelta) {
+            code.write(opcode);
+            code.write(operand >>> 8);
+            code.write(operand);
+            adjustStack(stackDelta);
+        }
+
+        void local(int opcode, int index, int stackDelta) {
+            if (index > 0xFF) {
+                code.write(Opcodes.WIDE);
+                opWithShort(opcode, index, stackDelta);
+            } else {
+                code.write(opcode);
+                code.write(index);
+                adjustStack(stackDelta);
+            }
+        }
+
+        void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                op(Opcodes.ICONST_0 + value, 1);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                code.write(Opcodes.BIPUSH);
+                code.write(value);
+                adjustStack(1);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                opWithShort(Opcodes.SIPUSH, value, 1);
+            } else {
+                throw new UnsupportedOperationException("Expression too large to compile: index " + value);
+            }
+        }
+
+        void pushDouble(double value) {
+            if (Double.doubleToRawLongBits(value) == 0L) {
+                op(Opcodes.DCONST_0, 2);
+            } else if (value == 1.0) {
+                op(Opcodes.DCONST_1, 2);
+            } else {
+                opWithShort(Opcodes.LDC2_W, doubleConstant(value), 2);
+            }
+        }
+
+        void pushString(String value) {
+            opWithShort(Opcodes.LDC_W, string(value), 1);
+        }
+
+        void invokeStatic(String owner, String methodName, String methodDescriptor) {
+            opWithShort(Opcodes.INVOKESTATIC, methodRef(owner, methodName, methodDescriptor),
+                    returnSlots(methodDescriptor) - argumentSlots(methodDescriptor));
+        }
+
+        void invokeVirtual(String owner, String methodName, String methodDescriptor) {
+            opWithShort(Opcodes.INVOKEVIRTUAL, methodRef(owner, methodName, methodDescriptor),
+                    returnSlots(methodDescriptor) - argumentSlots(methodDescriptor) - 1);
+        }
+
+        void invokeSpecial(String owner, String methodName, String methodDescriptor) {
+            opWithShort(Opcodes.INVOKESPECIAL, methodRef(owner, methodName, methodDescriptor),
+                    returnSlots(methodDescriptor) - argumentSlots(methodDescriptor) - 1);
+        }
+
+        void getField(String owner, String fieldName, String fieldDescriptor) {
+            opWithShort(Opcodes.GETFIELD, fieldRef(owner, fieldName, fieldDescriptor),
+                    slots(fieldDescriptor.charAt(0)) - 1);
+        }
+
+        void finish() {
+            byte[] bytecode = code.toByteArray();
+            if (bytecode.length > 0xFFFF) {
+                throw new UnsupportedOperationException("Expression too large to compile: method exceeds 64KB");
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeShort(ACC_PUBLIC);
+                out.writeShort(utf8(name));
+                out.writeShort(utf8(descriptor));
+                out.writeShort(1);
+                out.writeShort(utf8("Code"));
+                out.writeInt(2 + 2 + 4 + bytecode.length + 2 + 2);
+                out.writeShort(maxStack);
+                out.writeShort(maxLocals);
+                out.writeInt(bytecode.length);
+                out.write(bytecode);
+                out.writeShort(0);
+                out.writeShort(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            methods.add(bytes.toByteArray());
+        }
+
+        private void adjustStack(int delta) {
+            stack += delta;
+            maxStack = Math.max(maxStack, stack);
+        }
+    }
+
+    private static int argumentSlots(String descriptor) {
+        int slots = 0;
+        int position = 1;
+        while (descriptor.charAt(position) != ')') {
+            char type = descriptor.charAt(position);
+            slots += slots(type);
+            while (descriptor.charAt(position) == '[') {
+                position++;
+            }
+            if (descriptor.charAt(position) == 'L') {
+                position = descriptor.indexOf(';', position);
+            }
+            position++;
+        }
+        return slots;
+    }
+
+    private static int returnSlots(String descriptor) {
+        char type = descriptor.charAt(descriptor.indexOf(')') + 1);
+        return type == 'V' ? 0 : slots(type);
+    }
+
+    private static int slots(char type) {
+        return type == 'D' || type == 'J' ? 2 : 1;
+    }
+}
@@ -0,0 +1,49 @@
+package compiler;
+
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.GradientBuffers;
+import function.Interval;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+
+abstract class CompiledFunction extends MathFunction {
+    static final String INTERNAL_NAME = "compiler/CompiledFunction";
+    static final String CONSTRUCTOR_DESCRIPTOR = "(I[Ljava/math/BigDecimal;Lfunction/MathFunction;)V";
+
+    final BigDecimal[] constants;
+    final MathFunction interpreted;
+
+    CompiledFunction(int varNumber, BigDecimal[] constants, MathFunction interpreted) {
+        super(varNumber);
+        this.constants = constants;
+        this.interpreted = interpreted;
+    }
+
+    @Override
+    public double calculateDouble(double[] values, EvaluationStatus status) {
+        return interpreted.calculateDouble(values, status);
+    }
+
+    @Override
+    public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                               ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+        if (errors == null) {
+            calculateChunk(columns, offset, length, target, targetOffset, buffers);
+            return;
+        }
+        interpreted.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors, errorOffset);
+    }
+
+    @Override
+    public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+        return interpreted.calculateDual(values, gradient, buffers);
+    }
+
+    @Override
+    public Interval calculateInterval(Interval[] values) {
+        return interpreted.calculateInterval(values);
+    }
+}
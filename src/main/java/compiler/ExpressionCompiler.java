@@ -0,0 +1,198 @@
+package compiler;
+
+import function.IntegerPower;
+import function.MathFunction;
+import parser.nodes.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static compiler.Opcodes.*;
+
+public class ExpressionCompiler {
+    private static final String CLASS_NAME = "compiler/CompiledExpression";
+    private static final String BIG_DECIMAL = "java/math/BigDecimal";
+    private static final String BIG_DECIMAL_DESCRIPTOR = "L" + BIG_DECIMAL + ";";
+    private static final String BIG_DECIMAL_UNARY = "(" + BIG_DECIMAL_DESCRIPTOR + ")" + BIG_DECIMAL_DESCRIPTOR;
+    private static final String BIG_DECIMAL_BINARY =
+            "(" + BIG_DECIMAL_DESCRIPTOR + BIG_DECIMAL_DESCRIPTOR + ")" + BIG_DECIMAL_DESCRIPTOR;
+    private static final String DOUBLE_UNARY = "(D)D";
+    private static final String DOUBLE_BINARY = "(DD)D";
+
+    private static final int FIRST_LOCAL = 2;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    public static MathFunction compile(ASTNode root, MathContext mathContext) {
+        if (root == null) {
+            throw new IllegalArgumentException("AST root cannot be null");
+        }
+        return mathContext == null ? compile(root) : root.toMathFunction(mathContext);
+    }
+
+    public static MathFunction compile(ASTNode root) {
+        if (root == null) {
+            throw new IllegalArgumentException("AST root cannot be null");
+        }
+
+        List<BigDecimal> constants = new ArrayList<>();
+        ClassFileWriter writer = new ClassFileWriter(CLASS_NAME, CompiledFunction.INTERNAL_NAME);
+        BlockNode block = root instanceof BlockNode rootBlock ? rootBlock : null;
+        ASTNode result = block == null ? root : block.getResult();
+        List<ASTNode> bindings = block == null ? List.of() : block.getBindings();
+        int slotBase = block == null ? 0 : block.getVarCount();
+
+        emitConstructor(writer);
+
+        ClassFileWriter.MethodWriter exact = writer.method("calculate",
+                "([" + BIG_DECIMAL_DESCRIPTOR + ")" + BIG_DECIMAL_DESCRIPTOR, FIRST_LOCAL + bindings.size());
+        for (int i = 0; i < bindings.size(); i++) {
+            emitBigDecimal(exact, bindings.get(i), constants, slotBase);
+            exact.local(ASTORE, FIRST_LOCAL + i, -1);
+        }
+        emitBigDecimal(exact, result, constants, slotBase);
+        exact.op(ARETURN, -1);
+        exact.finish();
+
+        ClassFileWriter.MethodWriter primitive = writer.method("calculateDouble", "([D)D",
+                FIRST_LOCAL + 2 * bindings.size());
+        for (int i = 0; i < bindings.size(); i++) {
+            emitDouble(primitive, bindings.get(i), slotBase);
+            primitive.local(DSTORE, FIRST_LOCAL + 2 * i, -2);
+        }
+        emitDouble(primitive, result, slotBase);
+        primitive.op(DRETURN, -2);
+        primitive.finish();
+
+        MathFunction interpreted = root.toMathFunction();
+        return instantiate(writer.toByteArray(), interpreted.getVarNumber(), constants.toArray(new BigDecimal[0]),
+                interpreted);
+    }
+
+    private static void emitConstructor(ClassFileWriter writer) {
+        ClassFileWriter.MethodWriter constructor = writer.method("<init>", CompiledFunction.CONSTRUCTOR_DESCRIPTOR, 4);
+        constructor.op(ALOAD_0, 1);
+        constructor.op(ILOAD_1, 1);
+        constructor.op(ALOAD_2, 1);
+        constructor.local(ALOAD, 3, 1);
+        constructor.invokeSpecial(CompiledFunction.INTERNAL_NAME, "<init>", CompiledFunction.CONSTRUCTOR_DESCRIPTOR);
+        constructor.op(RETURN, 0);
+        constructor.finish();
+    }
+
+    private static CompiledFunction instantiate(byte[] classBytes, int varNumber, BigDecimal[] constants,
+                                                MathFunction interpreted) {
+        try {
+            Class<?> hiddenClass = LOOKUP.defineHiddenClass(classBytes, true).lookupClass();
+            MethodHandle constructor = LOOKUP.findConstructor(hiddenClass,
+                    MethodType.methodType(void.class, int.class, BigDecimal[].class, MathFunction.class));
+            return (CompiledFunction) constructor.invoke(varNumber, constants, interpreted);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to load compiled expression", e);
+        }
+    }
+
+    private static void emitBigDecimal(ClassFileWriter.MethodWriter method, ASTNode node, List<BigDecimal> constants,
+                                       int slotBase) {
+        if (node instanceof SlotNode slot) {
+            method.local(ALOAD, FIRST_LOCAL + slot.index() - slotBase, 1);
+        } else if (node instanceof NumberNode number) {
+            method.op(ALOAD_0, 1);
+            method.getField(CompiledFunction.INTERNAL_NAME, "constants", "[" + BIG_DECIMAL_DESCRIPTOR);
+            method.pushInt(constants.size());
+            method.op(AALOAD, -1);
+            constants.add(number.getValue());
+        } else if (node instanceof VariableNode variable) {
+            method.op(ALOAD_1, 1);
+            method.pushInt(variable.index());
+            method.pushString(variable.name());
+            method.invokeStatic(Operations.OWNER, "variable",
+                    "([" + BIG_DECIMAL_DESCRIPTOR + "ILjava/lang/String;)" + BIG_DECIMAL_DESCRIPTOR);
+        } else if (node instanceof UnaryOperationNode unary) {
+            emitBigDecimal(method, unary.getOperand(), constants, slotBase);
+            switch (unary.getOperator()) {
+                case "-" -> method.invokeVirtual(BIG_DECIMAL, "negate", "()" + BIG_DECIMAL_DESCRIPTOR);
+                case "abs" -> method.invokeVirtual(BIG_DECIMAL, "abs", "()" + BIG_DECIMAL_DESCRIPTOR);
+                case "sin", "cos", "tan", "sqrt", "ln", "lg" ->
+                        method.invokeStatic(Operations.OWNER, unary.getOperator(), BIG_DECIMAL_UNARY);
+                case "catan" -> method.invokeStatic(Operations.OWNER, "atan", BIG_DECIMAL_UNARY);
+                default -> throw new UnsupportedOperationException("Unknown operator: " + unary.getOperator());
+            }
+        } else if (node instanceof BinaryOperationNode binary && isIntegerPower(binary)) {
+            emitBigDecimal(method, binary.getLeft(), constants, slotBase);
+            method.pushInt(((NumberNode) binary.getRight()).getValue().intValueExact());
+            method.invokeStatic(Operations.OWNER, "power", "(" + BIG_DECIMAL_DESCRIPTOR + "I)" + BIG_DECIMAL_DESCRIPTOR);
+        } else if (node instanceof BinaryOperationNode binary) {
+            emitBigDecimal(method, binary.getLeft(), constants, slotBase);
+            emitBigDecimal(method, binary.getRight(), constants, slotBase);
+            switch (binary.getOperator()) {
+                case "+" -> method.invokeVirtual(BIG_DECIMAL, "add", BIG_DECIMAL_UNARY);
+                case "-" -> method.invokeVirtual(BIG_DECIMAL, "subtract", BIG_DECIMAL_UNARY);
+                case "*" -> method.invokeVirtual(BIG_DECIMAL, "multiply", BIG_DECIMAL_UNARY);
+                case "%" -> method.invokeVirtual(BIG_DECIMAL, "remainder", BIG_DECIMAL_UNARY);
+                case "/" -> method.invokeStatic(Operations.OWNER, "divide", BIG_DECIMAL_BINARY);
+                case "^" -> method.invokeStatic(Operations.OWNER, "power", BIG_DECIMAL_BINARY);
+                case "<", "<=", ">", ">=", "==", "!=" -> method.invokeStatic(Operations.OWNER,
+                        Operations.comparison(binary.getOperator()), BIG_DECIMAL_BINARY);
+                default -> throw new UnsupportedOperationException("Unknown operator: " + binary.getOperator());
+            }
+        } else {
+            throw new UnsupportedOperationException("Cannot compile node: " + node.getClass().getSimpleName());
+        }
+    }
+
+    private static void emitDouble(ClassFileWriter.MethodWriter method, ASTNode node, int slotBase) {
+        if (node instanceof SlotNode slot) {
+            method.local(DLOAD, FIRST_LOCAL + 2 * (slot.index() - slotBase), 2);
+        } else if (node instanceof NumberNode number) {
+            method.pushDouble(number.getDoubleValue());
+        } else if (node instanceof VariableNode variable) {
+            method.op(ALOAD_1, 1);
+            method.pushInt(variable.index());
+            method.pushString(variable.name());
+            method.invokeStatic(Operations.OWNER, "variable", "([DILjava/lang/String;)D");
+        } else if (node instanceof UnaryOperationNode unary) {
+            emitDouble(method, unary.getOperand(), slotBase);
+            switch (unary.getOperator()) {
+                case "-" -> method.op(DNEG, 0);
+                case "sin", "cos", "tan", "abs" ->
+                        method.invokeStatic("java/lang/Math", unary.getOperator(), DOUBLE_UNARY);
+                case "catan" -> method.invokeStatic("java/lang/Math", "atan", DOUBLE_UNARY);
+                case "sqrt", "ln", "lg" -> method.invokeStatic(Operations.OWNER, unary.getOperator(), DOUBLE_UNARY);
+                default -> throw new UnsupportedOperationException("Unknown operator: " + unary.getOperator());
+            }
+        } else if (node instanceof BinaryOperationNode binary && isIntegerPower(binary)) {
+            emitDouble(method, binary.getLeft(), slotBase);
+            method.pushInt(((NumberNode) binary.getRight()).getValue().intValueExact());
+            method.invokeStatic(Operations.OWNER, "power", "(DI)D");
+        } else if (node instanceof BinaryOperationNode binary) {
+            emitDouble(method, binary.getLeft(), slotBase);
+            emitDouble(method, binary.getRight(), slotBase);
+            switch (binary.getOperator()) {
+                case "+" -> method.op(DADD, -2);
+                case "-" -> method.op(DSUB, -2);
+                case "*" -> method.op(DMUL, -2);
+                case "/" -> method.invokeStatic(Operations.OWNER, "divide", DOUBLE_BINARY);
+                case "%" -> method.invokeStatic(Operations.OWNER, "remainder", DOUBLE_BINARY);
+                case "^" -> method.invokeStatic(Operations.OWNER, "power", DOUBLE_BINARY);
+                case "<", "<=", ">", ">=", "==", "!=" -> method.invokeStatic(Operations.OWNER,
+                        Operations.comparison(binary.getOperator()), DOUBLE_BINARY);
+                default -> throw new UnsupportedOperationException("Unknown operator: " + binary.getOperator());
+            }
+        } else {
+            throw new UnsupportedOperationException("Cannot compile node: " + node.getClass().getSimpleName());
+        }
+    }
+
+    private static boolean isIntegerPower(BinaryOperationNode binary) {
+        return binary.getOperator().equals("^") && binary.getRight() instanceof NumberNode exponent
+                && IntegerPower.isReducible(exponent.getValue());
+    }
+}
@@ -0,0 +1,301 @@
+package compiler;
+
+import function.IntegerPower;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class ExpressionProgram extends MathFunction {
+    static final int LOAD_VARIABLE = 0;
+    static final int LOAD_CONSTANT = 1;
+    static final int MOVE = 2;
+    static final int NEGATE = 3;
+    static final int SIN = 4;
+    static final int COS = 5;
+    static final int TAN = 6;
+    static final int ATAN = 7;
+    static final int SQRT = 8;
+    static final int LN = 9;
+    static final int LG = 10;
+    static final int ABS = 11;
+    static final int ADD = 12;
+    static final int SUBTRACT = 13;
+    static final int MULTIPLY = 14;
+    static final int DIVIDE = 15;
+    static final int REMAINDER = 16;
+    static final int POWER = 17;
+    static final int INTEGER_POWER = 18;
+    static final int LESS = 19;
+    static final int LESS_OR_EQUAL = 20;
+    static final int GREATER = 21;
+    static final int GREATER_OR_EQUAL = 22;
+    static final int EQUAL = 23;
+    static final int NOT_EQUAL = 24;
+    static final int INSTRUCTION_SIZE = 4;
+
+    private static final int MAGIC = 0x4D505247;
+    private static final short VERSION = 3;
+    private static final short OLDEST_READABLE_VERSION = 2;
+    private static final ThreadLocal<Registers> REGISTERS = ThreadLocal.withInitial(Registers::new);
+
+    private final String[] variableNames;
+    private final BigDecimal[] constants;
+    private final double[] doubleConstants;
+    private final int[] code;
+    private final int registerCount;
+    private final int result;
+
+    ExpressionProgram(int varNumber, String[] variableNames, BigDecimal[] constants, int[] code, int registerCount,
+                      int result) {
+        super(varNumber);
+        this.variableNames = variableNames;
+        this.constants = constants;
+        this.code = code;
+        this.registerCount = registerCount;
+        this.result = result;
+        this.doubleConstants = new double[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            doubleConstants[i] = constants[i].doubleValue();
+        }
+    }
+
+    @Override
+    public BigDecimal calculate(BigDecimal[] values) {
+        BigDecimal[] registers = REGISTERS.get().exact(registerCount);
+        try {
+            return calculate(values, registers);
+        } finally {
+            Arrays.fill(registers, 0, registerCount, null);
+        }
+    }
+
+    private BigDecimal calculate(BigDecimal[] values, BigDecimal[] registers) {
+        int[] code = this.code;
+        for (int pc = 0; pc < code.length; pc += INSTRUCTION_SIZE) {
+            int target = code[pc + 1];
+            int a = code[pc + 2];
+            int b = code[pc + 3];
+            registers[target] = switch (code[pc]) {
+                case LOAD_VARIABLE -> Operations.variable(values, a, variableNames[a]);
+                case LOAD_CONSTANT -> constants[a];
+                case MOVE -> registers[a];
+                case NEGATE -> registers[a].negate();
+                case SIN -> Operations.sin(registers[a]);
+                case COS -> Operations.cos(registers[a]);
+                case TAN -> Operations.tan(registers[a]);
+                case ATAN -> Operations.atan(registers[a]);
+                case SQRT -> Operations.sqrt(registers[a]);
+                case LN -> Operations.ln(registers[a]);
+                case LG -> Operations.lg(registers[a]);
+                case ABS -> registers[a].abs();
+                case ADD -> registers[a].add(registers[b]);
+                case SUBTRACT -> registers[a].subtract(registers[b]);
+                case MULTIPLY -> registers[a].multiply(registers[b]);
+                case DIVIDE -> Operations.divide(registers[a], registers[b]);
+                case REMAINDER -> registers[a].remainder(registers[b]);
+                case POWER -> Operations.power(registers[a], registers[b]);
+                case INTEGER_POWER -> Operations.power(registers[a], b);
+                case LESS -> Operations.less(registers[a], registers[b]);
+                case LESS_OR_EQUAL -> Operations.lessOrEqual(registers[a], registers[b]);
+                case GREATER -> Operations.greater(registers[a], registers[b]);
+                case GREATER_OR_EQUAL -> Operations.greaterOrEqual(registers[a], registers[b]);
+                case EQUAL -> Operations.equal(registers[a], registers[b]);
+                case NOT_EQUAL -> Operations.notEqual(registers[a], registers[b]);
+                default -> throw new IllegalStateException("Unknown opcode: " + code[pc]);
+            };
+        }
+        return registers[result];
+    }
+
+    @Override
+    public double calculateDouble(double[] values) {
+        double[] registers = REGISTERS.get().doubles(registerCount);
+        int[] code = this.code;
+        for (int pc = 0; pc < code.length; pc += INSTRUCTION_SIZE) {
+            int target = code[pc + 1];
+            int a = code[pc + 2];
+            int b = code[pc + 3];
+            registers[target] = switch (code[pc]) {
+                case LOAD_VARIABLE -> Operations.variable(values, a, variableNames[a]);
+                case LOAD_CONSTANT -> doubleConstants[a];
+                case MOVE -> registers[a];
+                case NEGATE -> -registers[a];
+                case SIN -> Math.sin(registers[a]);
+                case COS -> Math.cos(registers[a]);
+                case TAN -> Math.tan(registers[a]);
+                case ATAN -> Math.atan(registers[a]);
+                case SQRT -> Operations.sqrt(registers[a]);
+                case LN -> Operations.ln(registers[a]);
+                case LG -> Operations.lg(registers[a]);
+                case ABS -> Math.abs(registers[a]);
+                case ADD -> registers[a] + registers[b];
+                case SUBTRACT -> registers[a] - registers[b];
+                case MULTIPLY -> registers[a] * registers[b];
+                case DIVIDE -> Operations.divide(registers[a], registers[b]);
+                case REMAINDER -> Operations.remainder(registers[a], registers[b]);
+                case POWER -> Operations.power(registers[a], registers[b]);
+                case INTEGER_POWER -> Operations.power(registers[a], b);
+                case LESS -> Operations.less(registers[a], registers[b]);
+                case LESS_OR_EQUAL -> Operations.lessOrEqual(registers[a], registers[b]);
+                case GREATER -> Operations.greater(registers[a], registers[b]);
+                case GREATER_OR_EQUAL -> Operations.greaterOrEqual(registers[a], registers[b]);
+                case EQUAL -> Operations.equal(registers[a], registers[b]);
+                case NOT_EQUAL -> Operations.notEqual(registers[a], registers[b]);
+                default -> throw new IllegalStateException("Unknown opcode: " + code[pc]);
+            };
+        }
+        return registers[result];
+    }
+
+    public int getInstructionCount() {
+        return code.length / INSTRUCTION_SIZE;
+    }
+
+    public int getRegisterCount() {
+        return registerCount;
+    }
+
+    public byte[] toBytes() {
+        byte[][] names = new byte[variableNames.length][];
+        byte[][] unscaled = new byte[constants.length][];
+        int size = 4 + 2 + 4 + 4 + 4 + 4 + 4 + 4 + 4 * code.length;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = variableNames[i].getBytes(StandardCharsets.UTF_8);
+            size += 4 + names[i].length;
+        }
+        for (int i = 0; i < unscaled.length; i++) {
+            unscaled[i] = constants[i].unscaledValue().toByteArray();
+            size += 4 + 4 + unscaled[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC).putShort(VERSION).putInt(getVarNumber());
+        out.putInt(names.length);
+        for (byte[] name : names) {
+            out.putInt(name.length).put(name);
+        }
+        out.putInt(unscaled.length);
+        for (int i = 0; i < unscaled.length; i++) {
+            out.putInt(constants[i].scale()).putInt(unscaled[i].length).put(unscaled[i]);
+        }
+        out.putInt(registerCount).putInt(result).putInt(code.length);
+        for (int word : code) {
+            out.putInt(word);
+        }
+        return out.array();
+    }
+
+    public static ExpressionProgram fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Program bytes cannot be null");
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not an expression program");
+            }
+            short version = in.getShort();
+            if (version < OLDEST_READABLE_VERSION || version > VERSION) {
+                throw new IllegalArgumentException("Unsupported program version: " + version);
+            }
+
+            int varNumber = in.getInt();
+            String[] variableNames = new String[readLength(in)];
+            for (int i = 0; i < variableNames.length; i++) {
+                byte[] name = new byte[readLength(in)];
+                in.get(name);
+                variableNames[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            BigDecimal[] constants = new BigDecimal[readLength(in)];
+            for (int i = 0; i < constants.length; i++) {
+                int scale = in.getInt();
+                byte[] unscaled = new byte[readLength(in)];
+                in.get(unscaled);
+                constants[i] = new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            int registerCount = in.getInt();
+            int result = in.getInt();
+            int[] code = new int[readLength(in)];
+            in.asIntBuffer().get(code);
+            in.position(in.position() + 4 * code.length);
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after program");
+            }
+
+            verify(code, registerCount, result, variableNames.length, constants.length);
+            return new ExpressionProgram(varNumber, variableNames, constants, code, registerCount, result);
+        } catch (BufferUnderflowException | NumberFormatException e) {
+            throw new IllegalArgumentException("Corrupted program", e);
+        }
+    }
+
+    private static int readLength(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Corrupted program");
+        }
+        return length;
+    }
+
+    private static void verify(int[] code, int registerCount, int result, int variableCount, int constantCount) {
+        if (code.length == 0 || code.length % INSTRUCTION_SIZE != 0) {
+            throw new IllegalArgumentException("Corrupted program: truncated instruction stream");
+        }
+        if (registerCount <= 0 || result < 0 || result >= registerCount) {
+            throw new IllegalArgumentException("Corrupted program: invalid result register");
+        }
+
+        boolean[] written = new boolean[registerCount];
+        for (int pc = 0; pc < code.length; pc += INSTRUCTION_SIZE) {
+            int opcode = code[pc];
+            int target = code[pc + 1];
+            int a = code[pc + 2];
+            int b = code[pc + 3];
+            boolean valid = switch (opcode) {
+                case LOAD_VARIABLE -> a >= 0 && a < variableCount;
+                case LOAD_CONSTANT -> a >= 0 && a < constantCount;
+                case MOVE, NEGATE, SIN, COS, TAN, ATAN, SQRT, LN, LG, ABS -> isWritten(written, a);
+                case ADD, SUBTRACT, MULTIPLY, DIVIDE, REMAINDER, POWER, LESS, LESS_OR_EQUAL, GREATER,
+                     GREATER_OR_EQUAL, EQUAL, NOT_EQUAL -> isWritten(written, a) && isWritten(written, b);
+                case INTEGER_POWER -> isWritten(written, a) && Math.abs(b) <= IntegerPower.MAX_EXPONENT;
+                default -> false;
+            };
+            if (!valid || target < 0 || target >= registerCount) {
+                throw new IllegalArgumentException("Corrupted program: invalid instruction at " + pc / INSTRUCTION_SIZE);
+            }
+            written[target] = true;
+        }
+        if (!written[result]) {
+            throw new IllegalArgumentException("Corrupted program: result register is never written");
+        }
+    }
+
+    private static boolean isWritten(boolean[] written, int register) {
+        return register >= 0 && register < written.length && written[register];
+    }
+
+    private static final class Registers {
+        private double[] doubles = new double[16];
+        private BigDecimal[] exact = new BigDecimal[16];
+
+        private double[] doubles(int count) {
+            if (doubles.length < count) {
+                doubles = new double[Math.max(count, doubles.length * 2)];
+            }
+            return doubles;
+        }
+
+        private BigDecimal[] exact(int count) {
+            if (exact.length < count) {
+                exact = new BigDecimal[Math.max(count, exact.length * 2)];
+            }
+            return exact;
+        }
+    }
+}
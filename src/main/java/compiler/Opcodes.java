@@ -0,0 +1,35 @@
+package compiler;
+
+final class Opcodes {
+    static final int ICONST_0 = 0x03;
+    static final int DCONST_0 = 0x0e;
+    static final int DCONST_1 = 0x0f;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int LDC2_W = 0x14;
+    static final int ILOAD_1 = 0x1b;
+    static final int ALOAD_0 = 0x2a;
+    static final int ALOAD_1 = 0x2b;
+    static final int ALOAD_2 = 0x2c;
+    static final int DLOAD = 0x18;
+    static final int ALOAD = 0x19;
+    static final int DSTORE = 0x39;
+    static final int ASTORE = 0x3a;
+    static final int AALOAD = 0x32;
+    static final int DADD = 0x63;
+    static final int DSUB = 0x67;
+    static final int DMUL = 0x6b;
+    static final int DNEG = 0x77;
+    static final int DRETURN = 0xaf;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int GETFIELD = 0xb4;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int WIDE = 0xc4;
+
+    private Opcodes() {
+    }
+}
@@ -0,0 +1,189 @@
+package compiler;
+
+import function.IntegerPower;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+final class Operations {
+    static final String OWNER = "compiler/Operations";
+
+    private Operations() {
+    }
+
+    static BigDecimal variable(BigDecimal[] values, int index, String name) {
+        if (index >= values.length) {
+            throw new IllegalArgumentException("Not enough values provided for variable " + name);
+        }
+        return values[index];
+    }
+
+    static double variable(double[] values, int index, String name) {
+        if (index >= values.length) {
+            throw new IllegalArgumentException("Not enough values provided for variable " + name);
+        }
+        return values[index];
+    }
+
+    static BigDecimal divide(BigDecimal left, BigDecimal right) {
+        if (right.compareTo(BigDecimal.ZERO) == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return left.divide(right, 20, RoundingMode.HALF_UP);
+    }
+
+    static BigDecimal power(BigDecimal left, BigDecimal right) {
+        return BigDecimal.valueOf(power(left.doubleValue(), right.doubleValue()));
+    }
+
+    static BigDecimal power(BigDecimal base, int exponent) {
+        return IntegerPower.pow(base, exponent);
+    }
+
+    static BigDecimal less(BigDecimal left, BigDecimal right) {
+        return truth(left.compareTo(right) < 0);
+    }
+
+    static BigDecimal lessOrEqual(BigDecimal left, BigDecimal right) {
+        return truth(left.compareTo(right) <= 0);
+    }
+
+    static BigDecimal greater(BigDecimal left, BigDecimal right) {
+        return truth(left.compareTo(right) > 0);
+    }
+
+    static BigDecimal greaterOrEqual(BigDecimal left, BigDecimal right) {
+        return truth(left.compareTo(right) >= 0);
+    }
+
+    static BigDecimal equal(BigDecimal left, BigDecimal right) {
+        return truth(left.compareTo(right) == 0);
+    }
+
+    static BigDecimal notEqual(BigDecimal left, BigDecimal right) {
+        return truth(left.compareTo(right) != 0);
+    }
+
+    static BigDecimal sin(BigDecimal value) {
+        return BigDecimal.valueOf(Math.sin(value.doubleValue()));
+    }
+
+    static BigDecimal cos(BigDecimal value) {
+        return BigDecimal.valueOf(Math.cos(value.doubleValue()));
+    }
+
+    static BigDecimal tan(BigDecimal value) {
+        return BigDecimal.valueOf(Math.tan(value.doubleValue()));
+    }
+
+    static BigDecimal atan(BigDecimal value) {
+        return BigDecimal.valueOf(Math.atan(value.doubleValue()));
+    }
+
+    static BigDecimal sqrt(BigDecimal value) {
+        if (value.compareTo(BigDecimal.ZERO) < 0) {
+            throw new ArithmeticException("Square root of negative number");
+        }
+        return BigDecimal.valueOf(Math.sqrt(value.doubleValue()));
+    }
+
+    static BigDecimal ln(BigDecimal value) {
+        if (value.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ArithmeticException("Logarithm of non-positive number");
+        }
+        return BigDecimal.valueOf(Math.log(value.doubleValue()));
+    }
+
+    static BigDecimal lg(BigDecimal value) {
+        if (value.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ArithmeticException("Logarithm of non-positive number");
+        }
+        return BigDecimal.valueOf(Math.log10(value.doubleValue()));
+    }
+
+    static double divide(double left, double right) {
+        if (right == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return left / right;
+    }
+
+    static double remainder(double left, double right) {
+        if (right == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return left % right;
+    }
+
+    static double power(double left, double right) {
+        if (left < 0 && right % 1 != 0) {
+            throw new ArithmeticException("Negative base with fractional exponent is not real");
+        }
+        return Math.pow(left, right);
+    }
+
+    static double power(double base, int exponent) {
+        return IntegerPower.pow(base, exponent);
+    }
+
+    static double less(double left, double right) {
+        return left < right ? 1 : 0;
+    }
+
+    static double lessOrEqual(double left, double right) {
+        return left <= right ? 1 : 0;
+    }
+
+    static double greater(double left, double right) {
+        return left > right ? 1 : 0;
+    }
+
+    static double greaterOrEqual(double left, double right) {
+        return left >= right ? 1 : 0;
+    }
+
+    static double equal(double left, double right) {
+        return left == right ? 1 : 0;
+    }
+
+    static double notEqual(double left, double right) {
+        return left != right ? 1 : 0;
+    }
+
+    static double sqrt(double value) {
+        if (value < 0) {
+            throw new ArithmeticException("Square root of negative number");
+        }
+        return Math.sqrt(value);
+    }
+
+    static double ln(double value) {
+        if (value <= 0) {
+            throw new ArithmeticException("Logarithm of non-positive number");
+        }
+        return Math.log(value);
+    }
+
+    static double lg(double value) {
+        if (value <= 0) {
+            throw new ArithmeticException("Logarithm of non-positive number");
+        }
+        return Math.log10(value);
+    }
+
+    static String comparison(String operator) {
+        return switch (operator) {
+            case "<" -> "less";
+            case "<=" -> "lessOrEqual";
+            case ">" -> "greater";
+            case ">=" -> "greaterOrEqual";
+            case "==" -> "equal";
+            case "!=" -> "notEqual";
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+        };
+    }
+
+    private static BigDecimal truth(boolean value) {
+        return value ? BigDecimal.ONE : BigDecimal.ZERO;
+    }
+}
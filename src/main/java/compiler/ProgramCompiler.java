@@ -0,0 +1,158 @@
+package compiler;
+
+import function.IntegerPower;
+import parser.Optimizer;
+import parser.nodes.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static compiler.ExpressionProgram.*;
+
+public class ProgramCompiler {
+    private final List<BigDecimal> constants = new ArrayList<>();
+    private final Map<BigDecimal, Integer> constantIndices = new HashMap<>();
+    private final int slotBase;
+    private int[] code = new int[64];
+    private int length;
+    private int registerCount;
+
+    private ProgramCompiler(int slotBase) {
+        this.slotBase = slotBase;
+    }
+
+    public static ExpressionProgram compile(ASTNode root, MathContext mathContext) {
+        if (mathContext != null) {
+            throw new UnsupportedOperationException("Expression programs do not support a MathContext");
+        }
+        return compile(root);
+    }
+
+    public static ExpressionProgram compile(ASTNode root) {
+        if (root == null) {
+            throw new IllegalArgumentException("AST root cannot be null");
+        }
+
+        BlockNode block = root instanceof BlockNode rootBlock ? rootBlock : null;
+        List<ASTNode> bindings = block == null ? List.of() : block.getBindings();
+        ProgramCompiler compiler = new ProgramCompiler(block == null ? 0 : block.getVarCount());
+
+        int temporaries = bindings.size();
+        compiler.registerCount = temporaries;
+        for (int i = 0; i < bindings.size(); i++) {
+            compiler.lowerInto(bindings.get(i), i, temporaries);
+        }
+        int result = compiler.lower(block == null ? root : block.getResult(), temporaries);
+
+        return new ExpressionProgram(root.toMathFunction().getVarNumber(), Optimizer.variableNames(root),
+                compiler.constants.toArray(new BigDecimal[0]), Arrays.copyOf(compiler.code, compiler.length),
+                compiler.registerCount, result);
+    }
+
+    public static boolean isCompilable(ASTNode node) {
+        if (node instanceof BlockNode block) {
+            return block.getBindings().stream().allMatch(ProgramCompiler::isCompilable)
+                    && isCompilable(block.getResult());
+        }
+        if (node instanceof UnaryOperationNode unary) {
+            return isCompilable(unary.getOperand());
+        }
+        if (node instanceof BinaryOperationNode binary) {
+            return isCompilable(binary.getLeft()) && isCompilable(binary.getRight());
+        }
+        return node instanceof SlotNode || node instanceof NumberNode || node instanceof VariableNode;
+    }
+
+    private void lowerInto(ASTNode node, int target, int free) {
+        int register = lower(node, free);
+        if (register == free) {
+            code[length - INSTRUCTION_SIZE + 1] = target;
+        } else {
+            emit(MOVE, target, register, 0);
+        }
+    }
+
+    private int lower(ASTNode node, int free) {
+        if (node instanceof SlotNode slot) {
+            return slot.index() - slotBase;
+        }
+        if (node instanceof NumberNode number) {
+            return emit(LOAD_CONSTANT, free, constant(number.getValue()), 0);
+        }
+        if (node instanceof VariableNode variable) {
+            return emit(LOAD_VARIABLE, free, variable.index(), 0);
+        }
+        if (node instanceof UnaryOperationNode unary) {
+            int operand = lower(unary.getOperand(), free);
+            return emit(unaryOpcode(unary.getOperator()), free, operand, 0);
+        }
+        if (node instanceof BinaryOperationNode binary && binary.getOperator().equals("^")
+                && binary.getRight() instanceof NumberNode exponent && IntegerPower.isReducible(exponent.getValue())) {
+            int base = lower(binary.getLeft(), free);
+            return emit(INTEGER_POWER, free, base, exponent.getValue().intValueExact());
+        }
+        if (node instanceof BinaryOperationNode binary) {
+            int left = lower(binary.getLeft(), free);
+            int right = lower(binary.getRight(), left == free ? free + 1 : free);
+            return emit(binaryOpcode(binary.getOperator()), free, left, right);
+        }
+        throw new UnsupportedOperationException("Cannot compile node: " + node.getClass().getSimpleName());
+    }
+
+    private int emit(int opcode, int target, int a, int b) {
+        if (length + INSTRUCTION_SIZE > code.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+        }
+        code[length++] = opcode;
+        code[length++] = target;
+        code[length++] = a;
+        code[length++] = b;
+        registerCount = Math.max(registerCount, target + 1);
+        return target;
+    }
+
+    private int constant(BigDecimal value) {
+        return constantIndices.computeIfAbsent(value, key -> {
+            constants.add(key);
+            return constants.size() - 1;
+        });
+    }
+
+    private static int unaryOpcode(String operator) {
+        return switch (operator) {
+            case "-" -> NEGATE;
+            case "sin" -> SIN;
+            case "cos" -> COS;
+            case "tan" -> TAN;
+            case "catan" -> ATAN;
+            case "sqrt" -> SQRT;
+            case "ln" -> LN;
+            case "lg" -> LG;
+            case "abs" -> ABS;
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+        };
+    }
+
+    private static int binaryOpcode(String operator) {
+        return switch (operator) {
+            case "+" -> ADD;
+            case "-" -> SUBTRACT;
+            case "*" -> MULTIPLY;
+            case "/" -> DIVIDE;
+            case "%" -> REMAINDER;
+            case "^" -> POWER;
+            case "<" -> LESS;
+            case "<=" -> LESS_OR_EQUAL;
+            case ">" -> GREATER;
+            case ">=" -> GREATER_OR_EQUAL;
+            case "==" -> EQUAL;
+            case "!=" -> NOT_EQUAL;
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+        };
+    }
+}
@@ -0,0 +1,298 @@
+package evaluation;
+
+import function.MathFunction;
+import parser.Optimizer;
+import parser.nodes.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IncrementalEvaluator {
+    private static final int[] NO_CHILDREN = new int[0];
+
+    private final String[] variableNames;
+    private final MathFunction[] functions;
+    private final int[][] children;
+    private final boolean[] leaves;
+    private final BitSet[] dependents;
+    private final BitSet volatileNodes;
+    private final int root;
+
+    private final BigDecimal[] exactInputs;
+    private final BigDecimal[] exactValues;
+    private final BitSet exactDirty;
+    private final BigDecimal[][] exactArguments;
+
+    private final double[] doubleInputs;
+    private final boolean[] doubleInputsSet;
+    private final double[] doubleValues;
+    private final BitSet doubleDirty;
+    private final double[][] doubleArguments;
+
+    private long recomputations;
+
+    public IncrementalEvaluator(ASTNode root) {
+        this(root, null);
+    }
+
+    public IncrementalEvaluator(ASTNode root, MathContext mathContext) {
+        if (root == null) {
+            throw new IllegalArgumentException("AST root cannot be null");
+        }
+
+        this.variableNames = Optimizer.variableNames(root);
+        Builder builder = new Builder(mathContext, variableNames.length);
+        this.root = builder.add(root, new ASTNode[0]);
+        this.functions = builder.functions.toArray(new MathFunction[0]);
+        this.children = builder.children.toArray(new int[0][]);
+        this.leaves = new boolean[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            leaves[i] = builder.leaves.get(i);
+        }
+        this.dependents = builder.dependents;
+        this.volatileNodes = builder.volatileNodes;
+        this.exactArguments = new BigDecimal[builder.maxArity + 1][];
+        this.doubleArguments = new double[builder.maxArity + 1][];
+        for (int arity = 0; arity <= builder.maxArity; arity++) {
+            exactArguments[arity] = new BigDecimal[arity];
+            doubleArguments[arity] = new double[arity];
+        }
+
+        this.exactInputs = new BigDecimal[variableNames.length];
+        this.exactValues = new BigDecimal[functions.length];
+        this.exactDirty = new BitSet(functions.length);
+        exactDirty.set(0, functions.length);
+
+        this.doubleInputs = new double[variableNames.length];
+        this.doubleInputsSet = new boolean[variableNames.length];
+        this.doubleValues = new double[functions.length];
+        this.doubleDirty = new BitSet(functions.length);
+        doubleDirty.set(0, functions.length);
+    }
+
+    public void set(int index, BigDecimal value) {
+        checkIndex(index);
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        if (!value.equals(exactInputs[index])) {
+            exactInputs[index] = value;
+            exactDirty.or(dependents[index]);
+        }
+    }
+
+    public void set(int index, double value) {
+        checkIndex(index);
+        if (!doubleInputsSet[index] || Double.doubleToRawLongBits(doubleInputs[index]) != Double.doubleToRawLongBits(value)) {
+            doubleInputs[index] = value;
+            doubleInputsSet[index] = true;
+            doubleDirty.or(dependents[index]);
+        }
+    }
+
+    public BigDecimal calculate() {
+        exactDirty.or(volatileNodes);
+        for (int node = exactDirty.nextSetBit(0); node >= 0; node = exactDirty.nextSetBit(node + 1)) {
+            if (leaves[node]) {
+                requireExactInputs(node);
+                exactValues[node] = functions[node].calculate(exactInputs);
+            } else {
+                int[] operands = children[node];
+                BigDecimal[] arguments = exactArguments[operands.length];
+                for (int i = 0; i < operands.length; i++) {
+                    arguments[i] = exactValues[operands[i]];
+                }
+                exactValues[node] = functions[node].calculate(arguments);
+            }
+            exactDirty.clear(node);
+            recomputations++;
+        }
+        return exactValues[root];
+    }
+
+    public double calculateDouble() {
+        doubleDirty.or(volatileNodes);
+        for (int node = doubleDirty.nextSetBit(0); node >= 0; node = doubleDirty.nextSetBit(node + 1)) {
+            if (leaves[node]) {
+                requireDoubleInputs(node);
+                doubleValues[node] = functions[node].calculateDouble(doubleInputs);
+            } else {
+                int[] operands = children[node];
+                double[] arguments = doubleArguments[operands.length];
+                for (int i = 0; i < operands.length; i++) {
+                    arguments[i] = doubleValues[operands[i]];
+                }
+                doubleValues[node] = functions[node].calculateDouble(arguments);
+            }
+            doubleDirty.clear(node);
+            recomputations++;
+        }
+        return doubleValues[root];
+    }
+
+    public int getNodeCount() {
+        return functions.length;
+    }
+
+    public long getRecomputations() {
+        return recomputations;
+    }
+
+    private void requireExactInputs(int node) {
+        for (int variable = 0; variable < exactInputs.length; variable++) {
+            if (exactInputs[variable] == null && dependents[variable].get(node)) {
+                throw new IllegalArgumentException("Not enough values provided for variable " + variableNames[variable]);
+            }
+        }
+    }
+
+    private void requireDoubleInputs(int node) {
+        for (int variable = 0; variable < doubleInputsSet.length; variable++) {
+            if (!doubleInputsSet[variable] && dependents[variable].get(node)) {
+                throw new IllegalArgumentException("Not enough values provided for variable " + variableNames[variable]);
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= variableNames.length) {
+            throw new IndexOutOfBoundsException("Variable index " + index + " out of bounds for "
+                    + variableNames.length + " variables");
+        }
+    }
+
+    private static final class Builder {
+        private final MathContext mathContext;
+        private final List<MathFunction> functions = new ArrayList<>();
+        private final List<int[]> children = new ArrayList<>();
+        private final List<Boolean> leaves = new ArrayList<>();
+        private final List<BitSet> variables = new ArrayList<>();
+        private final Map<ASTNode, Integer> indices = new IdentityHashMap<>();
+        private final BitSet[] dependents;
+        private final BitSet volatileNodes = new BitSet();
+        private int maxArity = 2;
+
+        private Builder(MathContext mathContext, int variableCount) {
+            this.mathContext = mathContext;
+            this.dependents = new BitSet[variableCount];
+            for (int i = 0; i < variableCount; i++) {
+                dependents[i] = new BitSet();
+            }
+        }
+
+        private int add(ASTNode node, ASTNode[] slots) {
+            if (node instanceof SlotNode slot) {
+                return add(slots[slot.index()], slots);
+            }
+            Integer existing = indices.get(node);
+            if (existing != null) {
+                return existing;
+            }
+
+            int index;
+            if (node instanceof BlockNode block) {
+                ASTNode[] frame = new ASTNode[block.getSlotIndex(block.getBindings().size())];
+                for (int i = 0; i < block.getBindings().size(); i++) {
+                    frame[block.getSlotIndex(i)] = block.getBindings().get(i);
+                }
+                index = add(block.getResult(), frame);
+            } else if (node instanceof UnaryOperationNode unary) {
+                int operand = add(unary.getOperand(), slots);
+                index = operation(new UnaryOperationNode(unary.getOperator(), new SlotNode(0)), new int[]{operand});
+            } else if (node instanceof BinaryOperationNode binary && binary.getRight() instanceof NumberNode) {
+                int left = add(binary.getLeft(), slots);
+                index = operation(new BinaryOperationNode(binary.getOperator(), new SlotNode(0), binary.getRight(), 1),
+                        new int[]{left});
+            } else if (node instanceof BinaryOperationNode binary) {
+                int left = add(binary.getLeft(), slots);
+                int right = add(binary.getRight(), slots);
+                index = operation(new BinaryOperationNode(binary.getOperator(), new SlotNode(0), new SlotNode(1), 2),
+                        new int[]{left, right});
+            } else if (node instanceof FunctionCallNode call) {
+                int[] operands = new int[call.getArguments().size()];
+                List<ASTNode> locals = new ArrayList<>();
+                for (int i = 0; i < operands.length; i++) {
+                    operands[i] = add(call.getArguments().get(i), slots);
+                    locals.add(new SlotNode(i));
+                }
+                maxArity = Math.max(maxArity, operands.length);
+                index = operation(new FunctionCallNode(call.getFunction(), locals, operands.length), operands);
+                if (!call.getFunction().pure()) {
+                    volatileNodes.set(index);
+                }
+            } else if (node instanceof ConditionalNode conditional) {
+                BitSet depends = new BitSet();
+                boolean impure = collectInputs(conditional, depends);
+                index = register(conditional.toMathFunction(mathContext), NO_CHILDREN, true, depends);
+                if (impure) {
+                    volatileNodes.set(index);
+                }
+            } else {
+                BitSet depends = new BitSet();
+                if (node instanceof VariableNode variable) {
+                    depends.set(variable.index());
+                }
+                index = register(node.toMathFunction(mathContext), NO_CHILDREN, true, depends);
+            }
+            indices.put(node, index);
+            return index;
+        }
+
+        private int operation(ASTNode local, int[] operands) {
+            BitSet depends = new BitSet();
+            boolean impure = false;
+            for (int operand : operands) {
+                depends.or(variables.get(operand));
+                impure |= volatileNodes.get(operand);
+            }
+            int index = register(local.toMathFunction(mathContext), operands, false, depends);
+            if (impure) {
+                volatileNodes.set(index);
+            }
+            return index;
+        }
+
+        private static boolean collectInputs(ASTNode node, BitSet depends) {
+            if (node instanceof VariableNode variable) {
+                depends.set(variable.index());
+                return false;
+            }
+            if (node instanceof UnaryOperationNode unary) {
+                return collectInputs(unary.getOperand(), depends);
+            }
+            if (node instanceof BinaryOperationNode binary) {
+                return collectInputs(binary.getLeft(), depends) | collectInputs(binary.getRight(), depends);
+            }
+            if (node instanceof FunctionCallNode call) {
+                boolean impure = !call.getFunction().pure();
+                for (ASTNode argument : call.getArguments()) {
+                    impure |= collectInputs(argument, depends);
+                }
+                return impure;
+            }
+            if (node instanceof ConditionalNode conditional) {
+                return collectInputs(conditional.getCondition(), depends)
+                        | collectInputs(conditional.getThenBranch(), depends)
+                        | collectInputs(conditional.getElseBranch(), depends);
+            }
+            return false;
+        }
+
+        private int register(MathFunction function, int[] operands, boolean leaf, BitSet depends) {
+            int index = functions.size();
+            functions.add(function);
+            children.add(operands);
+            leaves.add(leaf);
+            variables.add(depends);
+            for (int variable = depends.nextSetBit(0); variable >= 0; variable = depends.nextSetBit(variable + 1)) {
+                dependents[variable].set(index);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package evaluation;
+
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelEvaluator {
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private static final ThreadLocal<ChunkBuffers> IDLE_BUFFERS = new ThreadLocal<>();
+
+    private final MathFunction function;
+    private final Executor executor;
+    private final int blockSize;
+
+    public ParallelEvaluator(MathFunction function) {
+        this(function, ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public ParallelEvaluator(MathFunction function, Executor executor, int blockSize) {
+        if (function == null || executor == null) {
+            throw new IllegalArgumentException("Function and executor cannot be null");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.function = function;
+        this.executor = executor;
+        this.blockSize = (blockSize + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+    }
+
+    public BitSet evaluate(double[][] columns, double[] out) {
+        validateColumns(columns, out.length);
+        long[] errorWords = new long[(out.length + Long.SIZE - 1) / Long.SIZE];
+
+        run(out.length, (from, to, buffers) -> {
+            for (int offset = from; offset < to; offset += MathFunction.CHUNK_SIZE) {
+                int length = Math.min(MathFunction.CHUNK_SIZE, to - offset);
+                EvaluationError[] errors = buffers.acquireErrors(length);
+                try {
+                    function.calculateChunk(columns, offset, length, out, offset, buffers, errors, 0);
+                    for (int i = 0; i < length; i++) {
+                        if (errors[i] != null) {
+                            out[offset + i] = Double.NaN;
+                            errorWords[(offset + i) / Long.SIZE] |= 1L << (offset + i);
+                        }
+                    }
+                } finally {
+                    buffers.releaseErrors();
+                }
+            }
+        });
+
+        return BitSet.valueOf(errorWords);
+    }
+
+    public BitSet evaluate(double[][] columns, double[] out, EvaluationError[] errors) {
+        validateColumns(columns, out.length);
+        if (errors.length < out.length) {
+            throw new IllegalArgumentException("Error array has fewer than %d rows".formatted(out.length));
+        }
+        long[] errorWords = new long[(out.length + Long.SIZE - 1) / Long.SIZE];
+
+        run(out.length, (from, to, buffers) -> {
+            function.evaluate(columns, from, to, out, errors, buffers);
+            for (int i = from; i < to; i++) {
+                if (errors[i] != null) {
+                    errorWords[i / Long.SIZE] |= 1L << i;
+                }
+            }
+        });
+
+        return BitSet.valueOf(errorWords);
+    }
+
+    public BitSet evaluate(BigDecimal[][] columns, BigDecimal[] out) {
+        validateColumns(columns, out.length);
+        long[] errorWords = new long[(out.length + Long.SIZE - 1) / Long.SIZE];
+
+        run(out.length, (from, to, buffers) -> {
+            BigDecimal[] row = new BigDecimal[columns.length];
+            for (int i = from; i < to; i++) {
+                for (int column = 0; column < columns.length; column++) {
+                    row[column] = columns[column][i];
+                }
+                try {
+                    out[i] = function.calculate(row);
+                } catch (ArithmeticException pointError) {
+                    out[i] = null;
+                    errorWords[i / Long.SIZE] |= 1L << i;
+                }
+            }
+        });
+
+        return BitSet.valueOf(errorWords);
+    }
+
+    private void run(int rows, Block block) {
+        if (rows <= blockSize) {
+            evaluateBlock(block, 0, rows);
+            return;
+        }
+
+        List<CompletableFuture<Void>> blocks = new ArrayList<>();
+        for (int from = 0; from < rows; from += blockSize) {
+            int start = from;
+            int end = Math.min(rows, from + blockSize);
+            blocks.add(CompletableFuture.runAsync(() -> evaluateBlock(block, start, end), executor));
+        }
+
+        try {
+            CompletableFuture.allOf(blocks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void evaluateBlock(Block block, int from, int to) {
+        ChunkBuffers buffers = IDLE_BUFFERS.get();
+        if (buffers == null) {
+            buffers = new ChunkBuffers();
+        } else {
+            IDLE_BUFFERS.set(null);
+        }
+        try {
+            block.evaluate(from, to, buffers);
+        } finally {
+            IDLE_BUFFERS.set(buffers);
+        }
+    }
+
+    private static void validateColumns(double[][] columns, int rows) {
+        for (int column = 0; column < columns.length; column++) {
+            requireRows(column, columns[column].length, rows);
+        }
+    }
+
+    private static void validateColumns(BigDecimal[][] columns, int rows) {
+        for (int column = 0; column < columns.length; column++) {
+            requireRows(column, columns[column].length, rows);
+        }
+    }
+
+    private static void requireRows(int column, int length, int rows) {
+        if (length < rows) {
+            throw new IllegalArgumentException("Column %d has fewer than %d rows".formatted(column, rows));
+        }
+    }
+
+    private interface Block {
+        void evaluate(int from, int to, ChunkBuffers buffers);
+    }
+}
@@ -0,0 +1,87 @@
+package function;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public final class ArgumentBuffers {
+    private static final ThreadLocal<ArgumentBuffers> LOCAL = ThreadLocal.withInitial(ArgumentBuffers::new);
+
+    private double[][][] doubles = new double[8][][];
+    private BigDecimal[][][] decimals = new BigDecimal[8][][];
+    private Interval[][][] intervals = new Interval[8][][];
+    private int depth;
+
+    private ArgumentBuffers() {
+    }
+
+    public static ArgumentBuffers get() {
+        return LOCAL.get();
+    }
+
+    public double[] acquire(int arity) {
+        grow();
+        double[][] byArity = doubles[depth];
+        if (byArity == null || byArity.length <= arity) {
+            byArity = doubles[depth] = byArity == null
+                    ? new double[arity + 1][]
+                    : Arrays.copyOf(byArity, arity + 1);
+        }
+        if (byArity[arity] == null) {
+            byArity[arity] = new double[arity];
+        }
+        depth++;
+        return byArity[arity];
+    }
+
+    public BigDecimal[] acquireDecimals(int arity) {
+        grow();
+        BigDecimal[][] byArity = decimals[depth];
+        if (byArity == null || byArity.length <= arity) {
+            byArity = decimals[depth] = byArity == null
+                    ? new BigDecimal[arity + 1][]
+                    : Arrays.copyOf(byArity, arity + 1);
+        }
+        if (byArity[arity] == null) {
+            byArity[arity] = new BigDecimal[arity];
+        }
+        depth++;
+        return byArity[arity];
+    }
+
+    public Interval[] acquireIntervals(int arity) {
+        grow();
+        Interval[][] byArity = intervals[depth];
+        if (byArity == null || byArity.length <= arity) {
+            byArity = intervals[depth] = byArity == null
+                    ? new Interval[arity + 1][]
+                    : Arrays.copyOf(byArity, arity + 1);
+        }
+        if (byArity[arity] == null) {
+            byArity[arity] = new Interval[arity];
+        }
+        depth++;
+        return byArity[arity];
+    }
+
+    public void release() {
+        depth--;
+    }
+
+    public void release(BigDecimal[] arguments) {
+        Arrays.fill(arguments, null);
+        depth--;
+    }
+
+    public void release(Interval[] arguments) {
+        Arrays.fill(arguments, null);
+        depth--;
+    }
+
+    private void grow() {
+        if (depth == doubles.length) {
+            doubles = Arrays.copyOf(doubles, depth * 2);
+            decimals = Arrays.copyOf(decimals, depth * 2);
+            intervals = Arrays.copyOf(intervals, depth * 2);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package function;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+public final class BigDecimalMath {
+    private static final int GUARD_DIGITS = 10;
+    private static final int MAX_SMALL_INTEGER_PRECISION = 18;
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal TEN = BigDecimal.TEN;
+    private static final BigDecimal ATAN_REDUCTION_LIMIT = new BigDecimal("0.1");
+
+    private static volatile BigDecimal cachedPi = BigDecimal.ZERO;
+    private static volatile BigDecimal cachedLn10 = BigDecimal.ZERO;
+
+    private BigDecimalMath() {
+    }
+
+    public static BigDecimal add(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        if (isSmallInteger(left) && isSmallInteger(right)) {
+            return fromLong(left.longValue() + right.longValue(), mathContext);
+        }
+        return left.add(right, mathContext);
+    }
+
+    public static BigDecimal subtract(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        if (isSmallInteger(left) && isSmallInteger(right)) {
+            return fromLong(left.longValue() - right.longValue(), mathContext);
+        }
+        return left.subtract(right, mathContext);
+    }
+
+    public static BigDecimal multiply(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        if (isSmallInteger(left) && isSmallInteger(right)
+                && left.precision() + right.precision() <= MAX_SMALL_INTEGER_PRECISION) {
+            return fromLong(left.longValue() * right.longValue(), mathContext);
+        }
+        return left.multiply(right, mathContext);
+    }
+
+    public static BigDecimal divide(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        if (right.signum() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return left.divide(right, mathContext);
+    }
+
+    public static BigDecimal remainder(BigDecimal left, BigDecimal right, MathContext mathContext) {
+        if (right.signum() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (isSmallInteger(left) && isSmallInteger(right)) {
+            return fromLong(left.longValue() % right.longValue(), mathContext);
+        }
+        return left.remainder(right).round(mathContext);
+    }
+
+    public static BigDecimal pow(BigDecimal base, BigDecimal exponent, MathContext mathContext) {
+        if (exponent.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        if (isInteger(exponent) && exponent.abs().compareTo(BigDecimal.valueOf(999_999_999)) <= 0) {
+            int power = exponent.intValueExact();
+            if (base.signum() == 0 && power < 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            return base.pow(power, mathContext);
+        }
+        if (base.signum() < 0) {
+            throw new ArithmeticException("Negative base with fractional exponent is not real");
+        }
+        if (base.signum() == 0) {
+            if (exponent.signum() < 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            return BigDecimal.ZERO;
+        }
+
+        MathContext working = working(mathContext, exponent.abs().precision() - exponent.abs().scale());
+        return exp(exponent.multiply(ln(base, working), working), working).round(mathContext);
+    }
+
+    public static BigDecimal sqrt(BigDecimal value, MathContext mathContext) {
+        if (value.signum() < 0) {
+            throw new ArithmeticException("Square root of negative number");
+        }
+        return value.sqrt(mathContext);
+    }
+
+    public static BigDecimal exp(BigDecimal value, MathContext mathContext) {
+        if (value.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        if (value.signum() < 0) {
+            MathContext working = working(mathContext, 0);
+            return BigDecimal.ONE.divide(exp(value.negate(), working), mathContext);
+        }
+
+        int halvings = 0;
+        BigDecimal reduced = value;
+        while (reduced.compareTo(BigDecimal.ONE) > 0) {
+            reduced = reduced.divide(TWO);
+            halvings++;
+        }
+
+        MathContext working = working(mathContext, halvings / 3 + 1);
+        BigDecimal result = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal threshold = BigDecimal.ONE.movePointLeft(working.getPrecision() + 1);
+        for (int n = 1; term.abs().compareTo(threshold) > 0; n++) {
+            term = term.multiply(reduced, working).divide(BigDecimal.valueOf(n), working);
+            result = result.add(term, working);
+        }
+        for (int i = 0; i < halvings; i++) {
+            result = result.multiply(result, working);
+        }
+        return result.round(mathContext);
+    }
+
+    public static BigDecimal ln(BigDecimal value, MathContext mathContext) {
+        if (value.signum() <= 0) {
+            throw new ArithmeticException("Logarithm of non-positive number");
+        }
+        if (value.compareTo(BigDecimal.ONE) == 0) {
+            return BigDecimal.ZERO;
+        }
+
+        int exponent = value.precision() - value.scale() - 1;
+        MathContext working = working(mathContext, String.valueOf(Math.abs(exponent)).length());
+        BigDecimal mantissa = value.movePointLeft(exponent);
+        BigDecimal result = lnOfMantissa(mantissa, working);
+        if (exponent != 0) {
+            result = result.add(ln10(working).multiply(BigDecimal.valueOf(exponent), working), working);
+        }
+        return result.round(mathContext);
+    }
+
+    public static BigDecimal lg(BigDecimal value, MathContext mathContext) {
+        MathContext working = working(mathContext, 0);
+        return ln(value, working).divide(ln10(working), mathContext);
+    }
+
+    public static BigDecimal sin(BigDecimal value, MathContext mathContext) {
+        MathContext working = working(mathContext, Math.max(0, value.precision() - value.scale()));
+        BigDecimal reduced = reduceAngle(value, working);
+        return sinSeries(reduced, working).round(mathContext);
+    }
+
+    public static BigDecimal cos(BigDecimal value, MathContext mathContext) {
+        MathContext working = working(mathContext, Math.max(0, value.precision() - value.scale()));
+        BigDecimal reduced = reduceAngle(value, working);
+        return cosSeries(reduced, working).round(mathContext);
+    }
+
+    public static BigDecimal tan(BigDecimal value, MathContext mathContext) {
+        MathContext working = working(mathContext, Math.max(0, value.precision() - value.scale()));
+        BigDecimal reduced = reduceAngle(value, working);
+        return sinSeries(reduced, working).divide(cosSeries(reduced, working), mathContext);
+    }
+
+    public static BigDecimal atan(BigDecimal value, MathContext mathContext) {
+        if (value.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        MathContext working = working(mathContext, 0);
+        if (value.abs().compareTo(BigDecimal.ONE) > 0) {
+            BigDecimal halfPi = pi(working).divide(TWO, working);
+            BigDecimal inverse = atan(BigDecimal.ONE.divide(value, working), working);
+            return (value.signum() > 0 ? halfPi.subtract(inverse, working) : halfPi.negate().subtract(inverse, working))
+                    .round(mathContext);
+        }
+
+        int doublings = 0;
+        BigDecimal reduced = value;
+        while (reduced.abs().compareTo(ATAN_REDUCTION_LIMIT) > 0) {
+            BigDecimal root = BigDecimal.ONE.add(reduced.multiply(reduced, working), working).sqrt(working);
+            reduced = reduced.divide(BigDecimal.ONE.add(root, working), working);
+            doublings++;
+        }
+        return atanSeries(reduced, working).multiply(BigDecimal.valueOf(1L << doublings), working).round(mathContext);
+    }
+
+    public static BigDecimal pi(MathContext mathContext) {
+        BigDecimal pi = cachedPi;
+        if (pi.precision() < mathContext.getPrecision() + GUARD_DIGITS) {
+            MathContext working = working(mathContext, 0);
+            BigDecimal first = atanSeries(BigDecimal.ONE.divide(BigDecimal.valueOf(5), working), working);
+            BigDecimal second = atanSeries(BigDecimal.ONE.divide(BigDecimal.valueOf(239), working), working);
+            pi = first.multiply(BigDecimal.valueOf(16), working)
+                    .subtract(second.multiply(BigDecimal.valueOf(4), working), working);
+            cachedPi = pi;
+        }
+        return pi.round(mathContext);
+    }
+
+    private static BigDecimal ln10(MathContext working) {
+        BigDecimal ln10 = cachedLn10;
+        if (ln10.precision() < working.getPrecision()) {
+            ln10 = lnOfMantissa(TEN, working);
+            cachedLn10 = ln10;
+        }
+        return ln10.round(working);
+    }
+
+    private static BigDecimal lnOfMantissa(BigDecimal value, MathContext working) {
+        BigDecimal result = BigDecimal.valueOf(Math.log(value.doubleValue()));
+        BigDecimal tolerance = BigDecimal.ONE.movePointLeft(working.getPrecision());
+        for (int i = 0; i < 64; i++) {
+            BigDecimal power = exp(result, working);
+            BigDecimal correction = TWO.multiply(value.subtract(power, working), working)
+                    .divide(value.add(power, working), working);
+            result = result.add(correction, working);
+            if (correction.abs().compareTo(tolerance) <= 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static BigDecimal reduceAngle(BigDecimal value, MathContext working) {
+        BigDecimal pi = pi(working);
+        BigDecimal twoPi = pi.multiply(TWO, working);
+        BigDecimal reduced = value.remainder(twoPi, working);
+        if (reduced.compareTo(pi) > 0) {
+            reduced = reduced.subtract(twoPi, working);
+        } else if (reduced.compareTo(pi.negate()) < 0) {
+            reduced = reduced.add(twoPi, working);
+        }
+        return reduced;
+    }
+
+    private static BigDecimal sinSeries(BigDecimal value, MathContext working) {
+        BigDecimal square = value.multiply(value, working);
+        BigDecimal term = value;
+        BigDecimal result = value;
+        BigDecimal threshold = BigDecimal.ONE.movePointLeft(working.getPrecision() + 1);
+        for (int n = 1; term.abs().compareTo(threshold) > 0; n++) {
+            term = term.multiply(square, working).divide(BigDecimal.valueOf(-(2L * n) * (2L * n + 1)), working);
+            result = result.add(term, working);
+        }
+        return result;
+    }
+
+    private static BigDecimal cosSeries(BigDecimal value, MathContext working) {
+        BigDecimal square = value.multiply(value, working);
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal result = BigDecimal.ONE;
+        BigDecimal threshold = BigDecimal.ONE.movePointLeft(working.getPrecision() + 1);
+        for (int n = 1; term.abs().compareTo(threshold) > 0; n++) {
+            term = term.multiply(square, working).divide(BigDecimal.valueOf(-(2L * n - 1) * (2L * n)), working);
+            result = result.add(term, working);
+        }
+        return result;
+    }
+
+    private static BigDecimal atanSeries(BigDecimal value, MathContext working) {
+        BigDecimal square = value.multiply(value, working);
+        BigDecimal power = value;
+        BigDecimal result = value;
+        BigDecimal threshold = BigDecimal.ONE.movePointLeft(working.getPrecision() + 1);
+        for (int n = 1; power.abs().compareTo(threshold) > 0; n++) {
+            power = power.multiply(square, working).negate();
+            result = result.add(power.divide(BigDecimal.valueOf(2L * n + 1), working), working);
+        }
+        return result;
+    }
+
+    private static MathContext working(MathContext mathContext, int extraDigits) {
+        return new MathContext(mathContext.getPrecision() + GUARD_DIGITS + extraDigits, RoundingMode.HALF_EVEN);
+    }
+
+    private static boolean isSmallInteger(BigDecimal value) {
+        return value.scale() == 0 && value.precision() <= MAX_SMALL_INTEGER_PRECISION;
+    }
+
+    private static boolean isInteger(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static BigDecimal fromLong(long value, MathContext mathContext) {
+        BigDecimal result = BigDecimal.valueOf(value);
+        return mathContext.getPrecision() > MAX_SMALL_INTEGER_PRECISION ? result : result.round(mathContext);
+    }
+}
@@ -0,0 +1,83 @@
+package function;
+
+import java.util.Arrays;
+
+public final class ChunkBuffers {
+    private final int chunkSize;
+    private double[][] stack = new double[8][];
+    private int depth;
+    private double[] row = new double[0];
+    private EvaluationError[] errors;
+    private EvaluationError[][] errorStack = new EvaluationError[2][];
+    private int errorDepth;
+    private final RowStack columns = new RowStack();
+
+    public ChunkBuffers() {
+        this(MathFunction.CHUNK_SIZE);
+    }
+
+    ChunkBuffers(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public double[] acquire() {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        if (stack[depth] == null) {
+            stack[depth] = new double[chunkSize];
+        }
+        return stack[depth++];
+    }
+
+    public void release() {
+        depth--;
+    }
+
+    public EvaluationError[] acquireErrors(int length) {
+        if (errorDepth == errorStack.length) {
+            errorStack = Arrays.copyOf(errorStack, errorDepth * 2);
+        }
+        if (errorStack[errorDepth] == null) {
+            errorStack[errorDepth] = new EvaluationError[chunkSize];
+        }
+        EvaluationError[] acquired = errorStack[errorDepth++];
+        Arrays.fill(acquired, 0, length, null);
+        return acquired;
+    }
+
+    public void releaseErrors() {
+        errorDepth--;
+    }
+
+    public double[][] acquireColumns(int count) {
+        return columns.acquire(count);
+    }
+
+    public void releaseColumns(double[][] acquired) {
+        columns.release(acquired);
+    }
+
+    int mark() {
+        return depth;
+    }
+
+    void reset(int mark) {
+        depth = mark;
+    }
+
+    EvaluationError[] errors(int length) {
+        if (errors == null) {
+            errors = new EvaluationError[chunkSize];
+        }
+        Arrays.fill(errors, 0, length, null);
+        return errors;
+    }
+
+    double[] row(int width) {
+        if (row.length < width) {
+            row = new double[width];
+        }
+        return row;
+    }
+}
@@ -0,0 +1,13 @@
+package function;
+
+public enum ErrorPolicy {
+    THROW,
+    NAN;
+
+    public MathFunction apply(MathFunction function) {
+        if (this == THROW || function instanceof NanFunction) {
+            return function;
+        }
+        return new NanFunction(function);
+    }
+}
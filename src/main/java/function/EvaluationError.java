@@ -0,0 +1,37 @@
+package function;
+
+public enum EvaluationError {
+    DIVISION_BY_ZERO("Division by zero"),
+    NEGATIVE_SQUARE_ROOT("Square root of negative number"),
+    NON_POSITIVE_LOGARITHM("Logarithm of non-positive number"),
+    FRACTIONAL_POWER_OF_NEGATIVE("Negative base with fractional exponent is not real"),
+    FUNCTION_ERROR("Function evaluation failed");
+
+    private final String message;
+
+    EvaluationError(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public static EvaluationError of(String message) {
+        for (EvaluationError error : values()) {
+            if (error.message.equals(message)) {
+                return error;
+            }
+        }
+        return FUNCTION_ERROR;
+    }
+
+    public static void report(EvaluationError[] errors, int index, EvaluationError error) {
+        if (errors == null) {
+            throw new ArithmeticException(error.getMessage());
+        }
+        if (errors[index] == null) {
+            errors[index] = error;
+        }
+    }
+}
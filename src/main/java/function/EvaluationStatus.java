@@ -0,0 +1,49 @@
+package function;
+
+public class EvaluationStatus {
+    public static final EvaluationStatus THROW = new EvaluationStatus() {
+        @Override
+        public void fail(EvaluationError error, String message) {
+            throw new ArithmeticException(message);
+        }
+    };
+
+    private EvaluationError error;
+    private String message;
+
+    public void fail(EvaluationError error) {
+        fail(error, error.getMessage());
+    }
+
+    public void fail(EvaluationError error, String message) {
+        if (this.error == null) {
+            this.error = error;
+            this.message = message;
+        }
+    }
+
+    public EvaluationStatus reset() {
+        error = null;
+        message = null;
+        return this;
+    }
+
+    public boolean isOk() {
+        return error == null;
+    }
+
+    public EvaluationError getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public ArithmeticException toException() {
+        if (error == null) {
+            throw new IllegalStateException("Evaluation succeeded");
+        }
+        return new ArithmeticException(message);
+    }
+}
@@ -0,0 +1,68 @@
+package function;
+
+public record FunctionDefinition(String name, int arity, boolean pure, NativeFunction implementation) {
+    public static final int VARIADIC = -1;
+
+    public FunctionDefinition {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Function name cannot be null or empty");
+        }
+        if (arity < VARIADIC) {
+            throw new IllegalArgumentException("Invalid arity for function " + name + ": " + arity);
+        }
+        if (implementation == null) {
+            throw new IllegalArgumentException("Implementation of function " + name + " cannot be null");
+        }
+    }
+
+    public boolean accepts(int argumentCount) {
+        return arity == VARIADIC ? argumentCount > 0 : argumentCount == arity;
+    }
+
+    public boolean differentiable() {
+        return implementation.hasPartials();
+    }
+
+    public FunctionDefinition partial(int index) {
+        if (!differentiable()) {
+            throw new UnsupportedOperationException("Function %s does not define partial derivatives".formatted(name));
+        }
+        return new FunctionDefinition(name + "'" + index, arity, pure,
+                arguments -> implementation.partial(arguments, index));
+    }
+
+    public double partial(double[] arguments, int index) {
+        if (!differentiable()) {
+            throw new UnsupportedOperationException("Function %s does not define partial derivatives".formatted(name));
+        }
+        return implementation.partial(arguments, index);
+    }
+
+    public Interval calculateInterval(Interval[] arguments) {
+        if (implementation.hasIntervals()) {
+            return implementation.calculateInterval(arguments);
+        }
+        double[] points = new double[arguments.length];
+        boolean domainError = false;
+        for (int i = 0; i < arguments.length; i++) {
+            if (!arguments[i].isPoint()) {
+                throw new UnsupportedOperationException(
+                        "Function %s does not define interval evaluation".formatted(name));
+            }
+            points[i] = arguments[i].low();
+            domainError |= arguments[i].domainError();
+        }
+        double value = implementation.calculateDouble(points);
+        if (Double.isNaN(value)) {
+            return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, true);
+        }
+        return new Interval(Math.nextDown(value), Math.nextUp(value), domainError);
+    }
+
+    public void checkArguments(int argumentCount) {
+        if (!accepts(argumentCount)) {
+            String expected = arity == VARIADIC ? "at least 1 argument" : arity == 1 ? "1 argument" : arity + " arguments";
+            throw new IllegalArgumentException("Function %s expects %s but got %d".formatted(name, expected, argumentCount));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package function;
+
+import java.util.Arrays;
+
+public final class GradientBuffers {
+    private int width;
+    private double[][] stack = new double[8][];
+    private int depth;
+    private double[][] slots = new double[0][];
+    private double[] frame = new double[0];
+    private final RowStack rows = new RowStack();
+
+    public int width() {
+        return width;
+    }
+
+    public double[] acquire() {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        if (stack[depth] == null || stack[depth].length < width) {
+            stack[depth] = new double[width];
+        }
+        return stack[depth++];
+    }
+
+    public void release() {
+        depth--;
+    }
+
+    public double[][] acquireRows(int count) {
+        return rows.acquire(count);
+    }
+
+    public void releaseRows(double[][] acquired) {
+        rows.release(acquired);
+    }
+
+    public double[] frame(int size) {
+        if (frame.length < size) {
+            frame = new double[size];
+        }
+        return frame;
+    }
+
+    public void bindSlot(int index, double[] gradient) {
+        if (index >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length * 2));
+        }
+        slots[index] = gradient;
+    }
+
+    public double[] slot(int index) {
+        return slots[index];
+    }
+
+    void reset(int width) {
+        this.width = width;
+        this.depth = 0;
+        rows.reset();
+    }
+}
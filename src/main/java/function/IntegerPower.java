@@ -0,0 +1,43 @@
+package function;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class IntegerPower {
+    public static final int MAX_EXPONENT = 64;
+
+    private IntegerPower() {
+    }
+
+    public static boolean isReducible(BigDecimal exponent) {
+        if (exponent.signum() != 0 && exponent.stripTrailingZeros().scale() > 0) {
+            return false;
+        }
+        return exponent.abs().compareTo(BigDecimal.valueOf(MAX_EXPONENT)) <= 0;
+    }
+
+    public static double pow(double base, int exponent) {
+        return switch (exponent) {
+            case 0 -> 1;
+            case 1 -> base;
+            case 2 -> base * base;
+            case 3 -> base * base * base;
+            case 4 -> {
+                double square = base * base;
+                yield square * square;
+            }
+            case -1 -> 1 / base;
+            default -> Math.pow(base, exponent);
+        };
+    }
+
+    public static BigDecimal pow(BigDecimal base, int exponent) {
+        if (exponent >= 0) {
+            return base.pow(exponent);
+        }
+        if (base.signum() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return BigDecimal.ONE.divide(base.pow(-exponent), 20, RoundingMode.HALF_UP);
+    }
+}
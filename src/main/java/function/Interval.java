@@ -0,0 +1,42 @@
+package function;
+
+public record Interval(double low, double high, boolean domainError) {
+
+    public Interval {
+        if (Double.isNaN(low) || Double.isNaN(high)) {
+            throw new IllegalArgumentException("Interval bounds cannot be NaN");
+        }
+        if (low > high) {
+            throw new IllegalArgumentException("Invalid interval [%s, %s]".formatted(low, high));
+        }
+    }
+
+    public static Interval of(double low, double high) {
+        return new Interval(low, high, false);
+    }
+
+    public static Interval point(double value) {
+        return new Interval(value, value, false);
+    }
+
+    public boolean contains(double value) {
+        return low <= value && value <= high;
+    }
+
+    public boolean containsZero() {
+        return low <= 0 && 0 <= high;
+    }
+
+    public boolean isPoint() {
+        return low == high;
+    }
+
+    public double width() {
+        return high - low;
+    }
+
+    @Override
+    public String toString() {
+        return domainError ? "[%s, %s]!".formatted(low, high) : "[%s, %s]".formatted(low, high);
+    }
+}
@@ -0,0 +1,274 @@
+package function;
+
+public final class IntervalMath {
+    private static final double HALF_PI = Math.PI / 2;
+    private static final double TWO_PI = 2 * Math.PI;
+    private static final double PERIOD_SLACK = 1e-12;
+    private static final Interval UNIT = new Interval(-1, 1, false);
+
+    private IntervalMath() {
+    }
+
+    public static Interval negate(Interval value) {
+        return new Interval(-value.high(), -value.low(), value.domainError());
+    }
+
+    public static Interval abs(Interval value) {
+        if (value.low() >= 0) {
+            return value;
+        }
+        if (value.high() <= 0) {
+            return negate(value);
+        }
+        return new Interval(0, Math.max(-value.low(), value.high()), value.domainError());
+    }
+
+    public static Interval add(Interval left, Interval right) {
+        return outward(left.low() + right.low(), left.high() + right.high(),
+                left.domainError() || right.domainError());
+    }
+
+    public static Interval subtract(Interval left, Interval right) {
+        return outward(left.low() - right.high(), left.high() - right.low(),
+                left.domainError() || right.domainError());
+    }
+
+    public static Interval multiply(Interval left, Interval right) {
+        return corners(product(left.low(), right.low()), product(left.low(), right.high()),
+                product(left.high(), right.low()), product(left.high(), right.high()),
+                left.domainError() || right.domainError());
+    }
+
+    public static Interval divide(Interval left, Interval right) {
+        boolean domainError = left.domainError() || right.domainError();
+        if (right.low() == 0 && right.high() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (right.low() < 0 && right.high() > 0) {
+            return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, true);
+        }
+        if (right.low() == 0) {
+            return multiply(left, new Interval(Math.nextDown(1 / right.high()), Double.POSITIVE_INFINITY, true));
+        }
+        if (right.high() == 0) {
+            return multiply(left, new Interval(Double.NEGATIVE_INFINITY, Math.nextUp(1 / right.low()), true));
+        }
+        return corners(left.low() / right.low(), left.low() / right.high(),
+                left.high() / right.low(), left.high() / right.high(), domainError);
+    }
+
+    public static Interval remainder(Interval left, Interval right) {
+        if (right.low() == 0 && right.high() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        boolean domainError = left.domainError() || right.domainError() || right.containsZero();
+        double modulus = Math.max(Math.abs(right.low()), Math.abs(right.high()));
+        double smallest = right.containsZero() ? 0 : Math.min(Math.abs(right.low()), Math.abs(right.high()));
+        if (-smallest < left.low() && left.high() < smallest) {
+            return new Interval(left.low(), left.high(), domainError);
+        }
+        double low = left.low() >= 0 ? 0 : Math.max(left.low(), -modulus);
+        double high = left.high() <= 0 ? 0 : Math.min(left.high(), modulus);
+        return new Interval(low, high, domainError);
+    }
+
+    public static Interval pow(Interval base, Interval exponent) {
+        boolean domainError = base.domainError() || exponent.domainError();
+        if (exponent.isPoint() && exponent.low() % 1 == 0) {
+            return integerPower(base, exponent.low(), domainError);
+        }
+        if (base.low() >= 0) {
+            return positivePower(base.low(), base.high(), exponent, domainError);
+        }
+
+        boolean integers = Math.floor(exponent.high()) >= exponent.low();
+        if (base.high() < 0 && !integers) {
+            throw new ArithmeticException("Negative base with fractional exponent is not real");
+        }
+        Interval result = null;
+        if (base.high() >= 0) {
+            result = positivePower(0, base.high(), exponent, true);
+        }
+        if (integers) {
+            Interval magnitude = positivePower(Math.max(0, -base.high()), -base.low(), exponent, true);
+            Interval symmetric = new Interval(-magnitude.high(), magnitude.high(), true);
+            result = result == null ? symmetric : hull(result, symmetric);
+        }
+        return result;
+    }
+
+    public static Interval sqrt(Interval value) {
+        if (value.high() < 0) {
+            throw new ArithmeticException("Square root of negative number");
+        }
+        double low = value.low() <= 0 ? 0 : Math.max(0, Math.nextDown(Math.sqrt(value.low())));
+        return new Interval(low, Math.nextUp(Math.sqrt(value.high())), value.domainError() || value.low() < 0);
+    }
+
+    public static Interval ln(Interval value) {
+        if (value.high() <= 0) {
+            throw new ArithmeticException("Logarithm of non-positive number");
+        }
+        double low = value.low() <= 0 ? Double.NEGATIVE_INFINITY : Math.nextDown(Math.log(value.low()));
+        return new Interval(low, Math.nextUp(Math.log(value.high())), value.domainError() || value.low() <= 0);
+    }
+
+    public static Interval lg(Interval value) {
+        if (value.high() <= 0) {
+            throw new ArithmeticException("Logarithm of non-positive number");
+        }
+        double low = value.low() <= 0 ? Double.NEGATIVE_INFINITY : Math.nextDown(Math.log10(value.low()));
+        return new Interval(low, Math.nextUp(Math.log10(value.high())), value.domainError() || value.low() <= 0);
+    }
+
+    public static Interval max(Interval[] values) {
+        double low = values[0].low();
+        double high = values[0].high();
+        boolean domainError = values[0].domainError();
+        for (int i = 1; i < values.length; i++) {
+            low = Math.max(low, values[i].low());
+            high = Math.max(high, values[i].high());
+            domainError |= values[i].domainError();
+        }
+        return new Interval(low, high, domainError);
+    }
+
+    public static Interval min(Interval[] values) {
+        double low = values[0].low();
+        double high = values[0].high();
+        boolean domainError = values[0].domainError();
+        for (int i = 1; i < values.length; i++) {
+            low = Math.min(low, values[i].low());
+            high = Math.min(high, values[i].high());
+            domainError |= values[i].domainError();
+        }
+        return new Interval(low, high, domainError);
+    }
+
+    public static Interval hypot(Interval left, Interval right) {
+        Interval x = abs(left);
+        Interval y = abs(right);
+        return new Interval(Math.max(0, Math.nextDown(Math.hypot(x.low(), y.low()))),
+                Math.nextUp(Math.hypot(x.high(), y.high())), left.domainError() || right.domainError());
+    }
+
+    public static Interval sin(Interval value) {
+        return periodic(value, HALF_PI, -HALF_PI, Math.sin(value.low()), Math.sin(value.high()));
+    }
+
+    public static Interval cos(Interval value) {
+        return periodic(value, 0, Math.PI, Math.cos(value.low()), Math.cos(value.high()));
+    }
+
+    public static Interval tan(Interval value) {
+        if (Double.isInfinite(value.low()) || Double.isInfinite(value.high()) || value.width() >= Math.PI
+                || reaches(value, HALF_PI, Math.PI)) {
+            return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, value.domainError());
+        }
+        return outward(Math.tan(value.low()), Math.tan(value.high()), value.domainError());
+    }
+
+    public static Interval atan(Interval value) {
+        return outward(Math.atan(value.low()), Math.atan(value.high()), value.domainError());
+    }
+
+    public static Interval less(Interval left, Interval right) {
+        return truth(left.high() < right.low(), left.low() >= right.high(), left, right);
+    }
+
+    public static Interval lessOrEqual(Interval left, Interval right) {
+        return truth(left.high() <= right.low(), left.low() > right.high(), left, right);
+    }
+
+    public static Interval greater(Interval left, Interval right) {
+        return less(right, left);
+    }
+
+    public static Interval greaterOrEqual(Interval left, Interval right) {
+        return lessOrEqual(right, left);
+    }
+
+    public static Interval equal(Interval left, Interval right) {
+        return truth(left.isPoint() && right.isPoint() && left.low() == right.low(),
+                left.high() < right.low() || right.high() < left.low(), left, right);
+    }
+
+    public static Interval notEqual(Interval left, Interval right) {
+        return truth(left.high() < right.low() || right.high() < left.low(),
+                left.isPoint() && right.isPoint() && left.low() == right.low(), left, right);
+    }
+
+    public static Interval hull(Interval first, Interval second) {
+        return new Interval(Math.min(first.low(), second.low()), Math.max(first.high(), second.high()),
+                first.domainError() || second.domainError());
+    }
+
+    private static Interval truth(boolean always, boolean never, Interval left, Interval right) {
+        return new Interval(always ? 1 : 0, never ? 0 : 1, left.domainError() || right.domainError());
+    }
+
+    private static Interval integerPower(Interval base, double power, boolean domainError) {
+        if (power == 0) {
+            return new Interval(1, 1, domainError);
+        }
+        if (power < 0) {
+            Interval denominator = integerPower(base, -power, domainError);
+            if (denominator.low() > 0 || denominator.high() < 0) {
+                return outward(1 / denominator.high(), 1 / denominator.low(), domainError);
+            }
+            if (denominator.low() == 0) {
+                return new Interval(Math.nextDown(1 / denominator.high()), Double.POSITIVE_INFINITY, domainError);
+            }
+            return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, domainError);
+        }
+
+        double low = Math.pow(base.low(), power);
+        double high = Math.pow(base.high(), power);
+        if (power % 2 != 0) {
+            return outward(low, high, domainError);
+        }
+        if (base.containsZero()) {
+            return new Interval(0, Math.nextUp(Math.max(low, high)), domainError);
+        }
+        return new Interval(Math.max(0, Math.nextDown(Math.min(low, high))), Math.nextUp(Math.max(low, high)),
+                domainError);
+    }
+
+    private static Interval positivePower(double low, double high, Interval exponent, boolean domainError) {
+        Interval result = corners(Math.pow(low, exponent.low()), Math.pow(low, exponent.high()),
+                Math.pow(high, exponent.low()), Math.pow(high, exponent.high()), domainError);
+        return result.low() < 0 ? new Interval(0, Math.max(0, result.high()), domainError) : result;
+    }
+
+    private static Interval periodic(Interval value, double maximum, double minimum, double first, double last) {
+        if (Double.isInfinite(value.low()) || Double.isInfinite(value.high()) || value.width() >= TWO_PI) {
+            return value.domainError() ? new Interval(-1, 1, true) : UNIT;
+        }
+        double low = reaches(value, minimum, TWO_PI) ? -1 : Math.max(-1, Math.nextDown(Math.min(first, last)));
+        double high = reaches(value, maximum, TWO_PI) ? 1 : Math.min(1, Math.nextUp(Math.max(first, last)));
+        return new Interval(low, high, value.domainError());
+    }
+
+    private static boolean reaches(Interval value, double phase, double period) {
+        double slack = PERIOD_SLACK * Math.max(1, Math.max(Math.abs(value.low()), Math.abs(value.high())));
+        return Math.ceil((value.low() - slack - phase) / period) <= Math.floor((value.high() + slack - phase) / period);
+    }
+
+    private static double product(double left, double right) {
+        double product = left * right;
+        return Double.isNaN(product) ? 0 : product;
+    }
+
+    private static Interval corners(double first, double second, double third, double fourth, boolean domainError) {
+        if (Double.isNaN(first) || Double.isNaN(second) || Double.isNaN(third) || Double.isNaN(fourth)) {
+            return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, domainError);
+        }
+        return outward(Math.min(Math.min(first, second), Math.min(third, fourth)),
+                Math.max(Math.max(first, second), Math.max(third, fourth)), domainError);
+    }
+
+    private static Interval outward(double low, double high, boolean domainError) {
+        return new Interval(Double.isNaN(low) ? Double.NEGATIVE_INFINITY : Math.nextDown(low),
+                Double.isNaN(high) ? Double.POSITIVE_INFINITY : Math.nextUp(high), domainError);
+    }
+}
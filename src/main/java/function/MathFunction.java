@@ -1,8 +1,13 @@
 package function;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 
 public abstract class MathFunction {
+    public static final int CHUNK_SIZE = 1024;
+
+    private static final ThreadLocal<GradientBuffers> GRADIENT_BUFFERS = ThreadLocal.withInitial(GradientBuffers::new);
+
     private final int varNumber;
 
     public MathFunction(int varNumber) {
@@ -11,7 +16,118 @@ public abstract class MathFunction {
 
     public abstract BigDecimal calculate(BigDecimal[] values);
 
+    public abstract double calculateDouble(double[] values);
+
+    public double calculateDouble(double[] values, EvaluationStatus status) {
+        try {
+            return calculateDouble(values);
+        } catch (ArithmeticException e) {
+            status.fail(EvaluationError.of(e.getMessage()), e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    public void evaluate(double[][] columns, double[] out) {
+        evaluate(columns, 0, out.length, out);
+    }
+
+    public void evaluate(double[][] columns, int from, int to, double[] out) {
+        validateRange(columns, from, to, out.length);
+
+        ChunkBuffers buffers = new ChunkBuffers(CHUNK_SIZE);
+        for (int offset = from; offset < to; offset += CHUNK_SIZE) {
+            calculateChunk(columns, offset, Math.min(CHUNK_SIZE, to - offset), out, offset, buffers);
+        }
+    }
+
+    public void evaluate(double[][] columns, int from, int to, double[] out, EvaluationError[] errors) {
+        evaluate(columns, from, to, out, errors, new ChunkBuffers(CHUNK_SIZE));
+    }
+
+    public void evaluate(double[][] columns, int from, int to, double[] out, EvaluationError[] errors,
+                         ChunkBuffers buffers) {
+        validateRange(columns, from, to, out.length);
+        if (errors.length < to) {
+            throw new IllegalArgumentException("Error array has fewer than %d rows".formatted(to));
+        }
+
+        Arrays.fill(errors, from, to, null);
+        for (int offset = from; offset < to; offset += CHUNK_SIZE) {
+            calculateChunk(columns, offset, Math.min(CHUNK_SIZE, to - offset), out, offset, buffers, errors, offset);
+        }
+        for (int i = from; i < to; i++) {
+            if (errors[i] != null) {
+                out[i] = Double.NaN;
+            }
+        }
+    }
+
+    public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                               ChunkBuffers buffers) {
+        double[] row = buffers.row(columns.length);
+        for (int i = 0; i < length; i++) {
+            for (int column = 0; column < columns.length; column++) {
+                row[column] = columns[column][offset + i];
+            }
+            target[targetOffset + i] = calculateDouble(row);
+        }
+    }
+
+    public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                               ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+        int mark = buffers.mark();
+        try {
+            calculateChunk(columns, offset, length, target, targetOffset, buffers);
+            return;
+        } catch (ArithmeticException e) {
+            if (errors == null) {
+                throw e;
+            }
+            buffers.reset(mark);
+        }
+        double[] row = buffers.row(columns.length);
+        EvaluationStatus status = new EvaluationStatus();
+        for (int i = 0; i < length; i++) {
+            for (int column = 0; column < columns.length; column++) {
+                row[column] = columns[column][offset + i];
+            }
+            target[targetOffset + i] = calculateDouble(row, status.reset());
+            if (!status.isOk()) {
+                EvaluationError.report(errors, errorOffset + i, status.getError());
+            }
+        }
+    }
+
+    public double calculateWithGradient(double[] values, double[] gradient) {
+        return calculateWithGradient(values, gradient, GRADIENT_BUFFERS.get());
+    }
+
+    public double calculateWithGradient(double[] values, double[] gradient, GradientBuffers buffers) {
+        buffers.reset(gradient.length);
+        return calculateDual(values, gradient, buffers);
+    }
+
+    public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+        throw new UnsupportedOperationException("Gradient evaluation is not supported by " + getClass().getName());
+    }
+
+    public Interval calculateInterval(Interval[] values) {
+        throw new UnsupportedOperationException("Interval evaluation is not supported by " + getClass().getName());
+    }
+
     public int getVarNumber() {
         return varNumber;
     }
+
+    private static void validateRange(double[][] columns, int from, int to, int rows) {
+        if (from < 0 || from > to || to > rows) {
+            throw new IllegalArgumentException("Invalid row range [%d, %d) for output of %d rows"
+                    .formatted(from, to, rows));
+        }
+        for (int column = 0; column < columns.length; column++) {
+            if (columns[column].length < to) {
+                throw new IllegalArgumentException("Column %d has fewer than %d rows".formatted(column, to));
+            }
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package function;
+
+import java.math.BigDecimal;
+
+public abstract class MultiMathFunction {
+    private final int varNumber;
+    private final int size;
+
+    public MultiMathFunction(int varNumber, int size) {
+        this.varNumber = varNumber;
+        this.size = size;
+    }
+
+    public abstract void calculate(BigDecimal[] values, BigDecimal[] out);
+
+    public abstract void calculateDouble(double[] values, double[] out);
+
+    public BigDecimal[] calculate(BigDecimal[] values) {
+        BigDecimal[] out = new BigDecimal[size];
+        calculate(values, out);
+        return out;
+    }
+
+    public double[] calculateDouble(double[] values) {
+        double[] out = new double[size];
+        calculateDouble(values, out);
+        return out;
+    }
+
+    public int getVarNumber() {
+        return varNumber;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
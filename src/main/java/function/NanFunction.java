@@ -0,0 +1,71 @@
+package function;
+
+import java.math.BigDecimal;
+
+final class NanFunction extends MathFunction {
+    private static final ThreadLocal<EvaluationStatus> IDLE_STATUS = new ThreadLocal<>();
+
+    private final MathFunction delegate;
+
+    NanFunction(MathFunction delegate) {
+        super(delegate.getVarNumber());
+        this.delegate = delegate;
+    }
+
+    @Override
+    public BigDecimal calculate(BigDecimal[] values) {
+        return delegate.calculate(values);
+    }
+
+    @Override
+    public double calculateDouble(double[] values) {
+        EvaluationStatus status = IDLE_STATUS.get();
+        if (status == null) {
+            status = new EvaluationStatus();
+        } else {
+            IDLE_STATUS.set(null);
+        }
+        try {
+            return calculateDouble(values, status.reset());
+        } finally {
+            IDLE_STATUS.set(status);
+        }
+    }
+
+    @Override
+    public double calculateDouble(double[] values, EvaluationStatus status) {
+        double result = delegate.calculateDouble(values, status);
+        return status.isOk() ? result : Double.NaN;
+    }
+
+    @Override
+    public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                               ChunkBuffers buffers) {
+        calculateChunk(columns, offset, length, target, targetOffset, buffers, buffers.errors(length), 0);
+    }
+
+    @Override
+    public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                               ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+        if (errors == null) {
+            calculateChunk(columns, offset, length, target, targetOffset, buffers);
+            return;
+        }
+        delegate.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors, errorOffset);
+        for (int i = 0; i < length; i++) {
+            if (errors[errorOffset + i] != null) {
+                target[targetOffset + i] = Double.NaN;
+            }
+        }
+    }
+
+    @Override
+    public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+        return delegate.calculateDual(values, gradient, buffers);
+    }
+
+    @Override
+    public Interval calculateInterval(Interval[] values) {
+        return delegate.calculateInterval(values);
+    }
+}
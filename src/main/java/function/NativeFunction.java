@@ -0,0 +1,34 @@
+package function;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+@FunctionalInterface
+public interface NativeFunction {
+    double calculateDouble(double[] arguments);
+
+    default BigDecimal calculate(BigDecimal[] arguments, MathContext mathContext) {
+        double[] values = new double[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = arguments[i].doubleValue();
+        }
+        BigDecimal result = BigDecimal.valueOf(calculateDouble(values));
+        return mathContext == null ? result : result.round(mathContext);
+    }
+
+    default boolean hasPartials() {
+        return false;
+    }
+
+    default double partial(double[] arguments, int index) {
+        throw new UnsupportedOperationException("Partial derivatives are not defined");
+    }
+
+    default boolean hasIntervals() {
+        return false;
+    }
+
+    default Interval calculateInterval(Interval[] arguments) {
+        throw new UnsupportedOperationException("Interval evaluation is not defined");
+    }
+}
@@ -0,0 +1,34 @@
+package function;
+
+import java.util.Arrays;
+
+final class RowStack {
+    private double[][][][] pools = new double[4][][][];
+    private int depth;
+
+    double[][] acquire(int count) {
+        if (depth == pools.length) {
+            pools = Arrays.copyOf(pools, depth * 2);
+        }
+        double[][][] byCount = pools[depth];
+        if (byCount == null || byCount.length <= count) {
+            byCount = pools[depth] = byCount == null
+                    ? new double[count + 1][][]
+                    : Arrays.copyOf(byCount, count + 1);
+        }
+        if (byCount[count] == null) {
+            byCount[count] = new double[count][];
+        }
+        depth++;
+        return byCount[count];
+    }
+
+    void release(double[][] rows) {
+        Arrays.fill(rows, null);
+        depth--;
+    }
+
+    void reset() {
+        depth = 0;
+    }
+}
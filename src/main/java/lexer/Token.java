@@ -23,6 +23,8 @@ public record Token(TokenType type, String value) {
         NUMBER,
         VARIABLE,
         CONSTANT,
+        FUNCTION,
+        SEPARATOR,
         LEFT_PARENTHESIS,
         RIGHT_PARENTHESIS
     }
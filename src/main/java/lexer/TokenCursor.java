@@ -0,0 +1,297 @@
+package lexer;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static lexer.Token.TokenType.*;
+
+public final class TokenCursor implements TokenStream {
+    private static final String BINARY_OPS = "+-*/%^";
+    private static final Token LEFT = new Token(LEFT_PARENTHESIS, "(");
+    private static final Token RIGHT = new Token(RIGHT_PARENTHESIS, ")");
+    private static final Token ARGUMENT_SEPARATOR = new Token(SEPARATOR, ";");
+    private static final Token UNARY_MINUS = new Token(UNARY_OPERATION, "-");
+    private static final Token LESS = new Token(BINARY_OPERATION, "<");
+    private static final Token LESS_OR_EQUAL = new Token(BINARY_OPERATION, "<=");
+    private static final Token GREATER = new Token(BINARY_OPERATION, ">");
+    private static final Token GREATER_OR_EQUAL = new Token(BINARY_OPERATION, ">=");
+    private static final Token EQUAL = new Token(BINARY_OPERATION, "==");
+    private static final Token NOT_EQUAL = new Token(BINARY_OPERATION, "!=");
+    private static final Token[] BINARY_TOKENS = new Token[128];
+    private static final Token[] VARIABLE_TOKENS = new Token[128];
+    private static final Token[] KEYWORD_TOKENS = {
+            new Token(UNARY_OPERATION, "sin"),
+            new Token(UNARY_OPERATION, "cos"),
+            new Token(UNARY_OPERATION, "tan"),
+            new Token(UNARY_OPERATION, "catan"),
+            new Token(UNARY_OPERATION, "ln"),
+            new Token(UNARY_OPERATION, "lg"),
+            new Token(UNARY_OPERATION, "sqrt"),
+            new Token(UNARY_OPERATION, "abs"),
+            new Token(CONSTANT, "e"),
+            new Token(CONSTANT, "pi"),
+            new Token(FUNCTION, "if")
+    };
+
+    static {
+        for (char operator : BINARY_OPS.toCharArray()) {
+            BINARY_TOKENS[operator] = new Token(BINARY_OPERATION, String.valueOf(operator));
+        }
+        for (char letter = 'a'; letter <= 'z'; letter++) {
+            VARIABLE_TOKENS[letter] = new Token(VARIABLE, String.valueOf(letter));
+        }
+    }
+
+    private final CharSequence input;
+    private final int length;
+    private int position;
+    private int normalizedPosition;
+    private Token.TokenType type;
+    private Token.TokenType previousType;
+    private Token token;
+    private int start;
+    private int end;
+    private char[] text = new char[16];
+    private int textLength;
+
+    public TokenCursor(CharSequence input) {
+        if (input == null || isBlank(input)) {
+            throw new IllegalArgumentException("Expression cannot be null or empty");
+        }
+        this.input = input;
+        this.length = input.length();
+    }
+
+    @Override
+    public Token.TokenType next() {
+        previousType = type;
+        token = null;
+        skipWhitespace();
+        if (position >= length) {
+            type = null;
+            return null;
+        }
+
+        start = position;
+        char currentChar = normalizedCharAt(position);
+        int currentPosition = normalizedPosition + 1;
+
+        if (currentChar == '(') {
+            consume(LEFT);
+        } else if (currentChar == ')') {
+            consume(RIGHT);
+        } else if (currentChar == ';') {
+            consume(ARGUMENT_SEPARATOR);
+        } else if (currentChar == '-' && (previousType == null || previousType == LEFT_PARENTHESIS
+                || previousType == BINARY_OPERATION || previousType == SEPARATOR)) {
+            consume(UNARY_MINUS);
+        } else if (currentChar == '<' || currentChar == '>' || currentChar == '=' || currentChar == '!') {
+            scanComparison(currentChar, currentPosition);
+        } else if (BINARY_OPS.indexOf(currentChar) != -1) {
+            consume(BINARY_TOKENS[currentChar]);
+        } else if (Character.isDigit(currentChar) || currentChar == '.') {
+            scanNumber();
+        } else if (Character.isLetter(currentChar)) {
+            scanIdentifier();
+        } else {
+            throw new IllegalArgumentException(
+                    String.format("Unknown character '%c' at position %d", currentChar, currentPosition)
+            );
+        }
+        return type;
+    }
+
+    public Token.TokenType type() {
+        return type;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int end() {
+        return end;
+    }
+
+    public Token token() {
+        if (token == null && type != null) {
+            token = new Token(type, text());
+        }
+        return token;
+    }
+
+    @Override
+    public String text() {
+        return token != null ? token.value() : new String(text, 0, textLength);
+    }
+
+    @Override
+    public BigDecimal numberValue() {
+        if (type != NUMBER) {
+            throw new IllegalStateException("Current token is not a number: " + type);
+        }
+        return new BigDecimal(text, 0, textLength);
+    }
+
+    private void consume(Token interned) {
+        type = interned.type();
+        token = interned;
+        position++;
+        normalizedPosition++;
+        end = position;
+    }
+
+    private void scanComparison(char first, int currentPosition) {
+        int next = position + 1;
+        while (next < length && isWhitespace(input.charAt(next))) {
+            next++;
+        }
+        boolean orEqual = next < length && input.charAt(next) == '=';
+        Token comparison = switch (first) {
+            case '<' -> orEqual ? LESS_OR_EQUAL : LESS;
+            case '>' -> orEqual ? GREATER_OR_EQUAL : GREATER;
+            case '=' -> orEqual ? EQUAL : null;
+            default -> orEqual ? NOT_EQUAL : null;
+        };
+        if (comparison == null) {
+            throw new IllegalArgumentException(
+                    String.format("Unknown character '%c' at position %d", first, currentPosition)
+            );
+        }
+        if (!orEqual) {
+            consume(comparison);
+            return;
+        }
+        type = comparison.type();
+        token = comparison;
+        position = next + 1;
+        normalizedPosition += 2;
+        end = position;
+    }
+
+    private void scanNumber() {
+        textLength = 0;
+        boolean hasDot = false;
+        while (position < length) {
+            char c = normalizedCharAt(position);
+            if (isWhitespace(c)) {
+                position++;
+                continue;
+            }
+            if (!Character.isDigit(c) && c != '.') {
+                break;
+            }
+            if (c == '.') {
+                if (hasDot) {
+                    throw new IllegalArgumentException(
+                            String.format("Invalid number format: multiple dots at position %d", normalizedPosition + 1)
+                    );
+                }
+                hasDot = true;
+            }
+            append(c);
+            position++;
+            normalizedPosition++;
+            end = position;
+        }
+        type = NUMBER;
+    }
+
+    private void scanIdentifier() {
+        textLength = 0;
+        while (position < length) {
+            char c = input.charAt(position);
+            if (!isIdentifierPart(c) || !Character.isLetter(c) && matchesKeyword()) {
+                break;
+            }
+            append(Character.toLowerCase(c));
+            position++;
+            normalizedPosition++;
+            end = position;
+        }
+
+        for (Token keyword : KEYWORD_TOKENS) {
+            if (matches(keyword.value())) {
+                type = keyword.type();
+                token = keyword;
+                return;
+            }
+        }
+
+        int next = position;
+        while (next < length && isWhitespace(input.charAt(next))) {
+            next++;
+        }
+        if (next < length && input.charAt(next) == '(') {
+            type = FUNCTION;
+            return;
+        }
+        type = VARIABLE;
+        token = textLength == 1 && text[0] < VARIABLE_TOKENS.length ? VARIABLE_TOKENS[text[0]] : null;
+    }
+
+    private boolean matchesKeyword() {
+        for (Token keyword : KEYWORD_TOKENS) {
+            if (matches(keyword.value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(String keyword) {
+        if (keyword.length() != textLength) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (keyword.charAt(i) != text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, textLength * 2);
+        }
+        text[textLength++] = c;
+    }
+
+    private void skipWhitespace() {
+        while (position < length && isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char normalizedCharAt(int index) {
+        char c = input.charAt(index);
+        return c == ',' ? '.' : c;
+    }
+
+    public static boolean isKeyword(String name) {
+        for (Token keyword : KEYWORD_TOKENS) {
+            if (keyword.value().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isBlank(CharSequence input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (input.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
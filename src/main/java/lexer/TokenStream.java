@@ -0,0 +1,34 @@
+package lexer;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface TokenStream {
+    Token.TokenType next();
+
+    String text();
+
+    BigDecimal numberValue();
+
+    static TokenStream of(List<Token> tokens) {
+        return new TokenStream() {
+            private int position = -1;
+
+            @Override
+            public Token.TokenType next() {
+                position++;
+                return position < tokens.size() ? tokens.get(position).type() : null;
+            }
+
+            @Override
+            public String text() {
+                return tokens.get(position).value();
+            }
+
+            @Override
+            public BigDecimal numberValue() {
+                return new BigDecimal(text());
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mathparser.Evaluate")
+@Label("Evaluate Expression")
+@Category("Math Parser")
+@Description("MathFunction evaluation of an instrumented expression")
+@StackTrace(false)
+final class EvaluateEvent extends jdk.jfr.Event {
+    @Label("Expression")
+    String expression;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
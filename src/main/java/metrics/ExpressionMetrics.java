@@ -0,0 +1,44 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ExpressionMetrics {
+    static final int SUB_BUCKET_BITS = 3;
+
+    private final String expression;
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram(SUB_BUCKET_BITS);
+
+    ExpressionMetrics(String expression) {
+        this.expression = expression;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public long getInvocations() {
+        return latency.getCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void recordErrors(long count) {
+        errors.add(count);
+    }
+
+    void reset() {
+        errors.reset();
+        latency.reset();
+    }
+}
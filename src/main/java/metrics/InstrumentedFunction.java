@@ -0,0 +1,144 @@
+package metrics;
+
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.GradientBuffers;
+import function.Interval;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+
+final class InstrumentedFunction extends MathFunction {
+    private final String expression;
+    private final MathFunction delegate;
+    private final ExpressionMetrics metrics;
+    private final LatencyHistogram evaluation;
+
+    InstrumentedFunction(String expression, MathFunction delegate, ExpressionMetrics metrics,
+                         LatencyHistogram evaluation) {
+        super(delegate.getVarNumber());
+        this.expression = expression;
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.evaluation = evaluation;
+    }
+
+    @Override
+    public BigDecimal calculate(BigDecimal[] values) {
+        EvaluateEvent event = new EvaluateEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            BigDecimal result = delegate.calculate(values);
+            record(event, start, 1, false);
+            return result;
+        } catch (ArithmeticException e) {
+            metrics.recordError();
+            record(event, start, 1, true);
+            throw e;
+        }
+    }
+
+    @Override
+    public double calculateDouble(double[] values) {
+        EvaluateEvent event = new EvaluateEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            double result = delegate.calculateDouble(values);
+            record(event, start, 1, false);
+            return result;
+        } catch (ArithmeticException e) {
+            metrics.recordError();
+            record(event, start, 1, true);
+            throw e;
+        }
+    }
+
+    @Override
+    public double calculateDouble(double[] values, EvaluationStatus status) {
+        EvaluateEvent event = new EvaluateEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean succeeded = status.isOk();
+        try {
+            double result = delegate.calculateDouble(values, status);
+            boolean failed = succeeded && !status.isOk();
+            if (failed) {
+                metrics.recordError();
+            }
+            record(event, start, 1, failed);
+            return result;
+        } catch (ArithmeticException e) {
+            metrics.recordError();
+            record(event, start, 1, true);
+            throw e;
+        }
+    }
+
+    @Override
+    public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                               ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+        if (errors == null) {
+            calculateChunk(columns, offset, length, target, targetOffset, buffers);
+            return;
+        }
+        EvaluateEvent event = new EvaluateEvent();
+        event.begin();
+        long start = System.nanoTime();
+        delegate.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors, errorOffset);
+        int failed = 0;
+        for (int i = 0; i < length; i++) {
+            if (errors[errorOffset + i] != null) {
+                failed++;
+            }
+        }
+        metrics.recordErrors(failed);
+        record(event, start, length, failed > 0);
+    }
+
+    @Override
+    public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                               ChunkBuffers buffers) {
+        EvaluateEvent event = new EvaluateEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            delegate.calculateChunk(columns, offset, length, target, targetOffset, buffers);
+            record(event, start, length, false);
+        } catch (ArithmeticException e) {
+            metrics.recordError();
+            record(event, start, length, true);
+            throw e;
+        }
+    }
+
+    @Override
+    public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+        return delegate.calculateDual(values, gradient, buffers);
+    }
+
+    @Override
+    public Interval calculateInterval(Interval[] values) {
+        return delegate.calculateInterval(values);
+    }
+
+    MathFunction getDelegate() {
+        return delegate;
+    }
+
+    private void record(EvaluateEvent event, long start, int rows, boolean failed) {
+        long elapsed = System.nanoTime() - start;
+        if (rows > 0) {
+            metrics.getLatency().record(elapsed / rows, rows);
+            evaluation.record(elapsed / rows, rows);
+        }
+        if (event.shouldCommit()) {
+            event.expression = expression;
+            event.rows = rows;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram {
+    static final int DEFAULT_SUB_BUCKET_BITS = 5;
+    private static final int MAX_EXPONENT = 42;
+    private static final long MAX_TRACKABLE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final int subBucketBits;
+    private final int bucketCount;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private volatile AtomicLongArray buckets;
+
+    public LatencyHistogram() {
+        this(DEFAULT_SUB_BUCKET_BITS);
+    }
+
+    LatencyHistogram(int subBucketBits) {
+        if (subBucketBits < 1 || subBucketBits > DEFAULT_SUB_BUCKET_BITS) {
+            throw new IllegalArgumentException("Sub-bucket bits must be between 1 and " + DEFAULT_SUB_BUCKET_BITS
+                    + ": " + subBucketBits);
+        }
+        this.subBucketBits = subBucketBits;
+        this.bucketCount = bucketCount(subBucketBits);
+    }
+
+    public void record(long nanos) {
+        record(nanos, 1);
+    }
+
+    public void record(long nanos, long occurrences) {
+        if (occurrences <= 0) {
+            return;
+        }
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE));
+        buckets().addAndGet(indexOf(value, subBucketBits), occurrences);
+        count.add(occurrences);
+        sum.add(value * occurrences);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        AtomicLongArray buckets = this.buckets;
+        if (buckets == null) {
+            return 0;
+        }
+        long[] counts = new long[bucketCount];
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i, subBucketBits), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        AtomicLongArray buckets = this.buckets;
+        if (buckets != null) {
+            for (int i = 0; i < bucketCount; i++) {
+                buckets.set(i, 0);
+            }
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    int getBucketCount() {
+        return bucketCount;
+    }
+
+    boolean isAllocated() {
+        return buckets != null;
+    }
+
+    private AtomicLongArray buckets() {
+        AtomicLongArray buckets = this.buckets;
+        if (buckets == null) {
+            synchronized (this) {
+                buckets = this.buckets;
+                if (buckets == null) {
+                    buckets = this.buckets = new AtomicLongArray(bucketCount);
+                }
+            }
+        }
+        return buckets;
+    }
+
+    static int bucketCount(int subBucketBits) {
+        int subBucketCount = 1 << subBucketBits;
+        return 2 * subBucketCount + (MAX_EXPONENT - subBucketBits) * subBucketCount;
+    }
+
+    static int indexOf(long value, int subBucketBits) {
+        int subBucketCount = 1 << subBucketBits;
+        int linearLimit = 2 * subBucketCount;
+        if (value < linearLimit) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - subBucketBits)) - subBucketCount;
+        return linearLimit + (exponent - subBucketBits - 1) * subBucketCount + mantissa;
+    }
+
+    static long highestEquivalentValue(int index, int subBucketBits) {
+        int subBucketCount = 1 << subBucketBits;
+        int linearLimit = 2 * subBucketCount;
+        if (index < linearLimit) {
+            return index;
+        }
+        int exponent = (index - linearLimit) / subBucketCount + subBucketBits + 1;
+        int mantissa = (index - linearLimit) % subBucketCount;
+        long width = 1L << (exponent - subBucketBits);
+        return (subBucketCount + mantissa) * width + width - 1;
+    }
+}
@@ -0,0 +1,20 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mathparser.Lex")
+@Label("Tokenize Expression")
+@Category("Math Parser")
+@Description("Lexer.tokenize call")
+@StackTrace(false)
+final class LexEvent extends jdk.jfr.Event {
+    @Label("Expression")
+    String expression;
+
+    @Label("Tokens")
+    int tokens;
+}
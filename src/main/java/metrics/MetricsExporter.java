@@ -0,0 +1,6 @@
+package metrics;
+
+@FunctionalInterface
+public interface MetricsExporter {
+    void export(MetricsSnapshot snapshot);
+}
@@ -0,0 +1,153 @@
+package metrics;
+
+import function.ErrorPolicy;
+import function.MathFunction;
+import lexer.Lexer;
+import lexer.Token;
+import metrics.MetricsSnapshot.Phase;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class MetricsRegistry {
+    public static final MetricsRegistry DISABLED = new MetricsRegistry(false, 0);
+    public static final int DEFAULT_MAX_EXPRESSIONS = 1024;
+    public static final String OTHER_EXPRESSIONS = "<other>";
+
+    private final boolean enabled;
+    private final int maxExpressions;
+    private final ConcurrentHashMap<String, ExpressionMetrics> expressions = new ConcurrentHashMap<>();
+    private final ExpressionMetrics otherExpressions = new ExpressionMetrics(OTHER_EXPRESSIONS);
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+
+    public MetricsRegistry() {
+        this(DEFAULT_MAX_EXPRESSIONS);
+    }
+
+    public MetricsRegistry(int maxExpressions) {
+        this(true, maxExpressions);
+        if (maxExpressions < 0) {
+            throw new IllegalArgumentException("Maximum expression count cannot be negative: " + maxExpressions);
+        }
+    }
+
+    private MetricsRegistry(boolean enabled, int maxExpressions) {
+        this.enabled = enabled;
+        this.maxExpressions = maxExpressions;
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Token> tokenize(String expression) {
+        if (!enabled) {
+            return Lexer.tokenize(expression);
+        }
+
+        LexEvent event = new LexEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<Token> tokens = Lexer.tokenize(expression);
+        phases.get(Phase.LEX).record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.expression = expression;
+            event.tokens = tokens.size();
+            event.commit();
+        }
+        return tokens;
+    }
+
+    public MathFunction parse(String expression) {
+        return parse(expression, ParserOptions.DEFAULT);
+    }
+
+    public MathFunction parse(String expression, ParserOptions options) {
+        if (!enabled) {
+            return Parser.parse(expression, options);
+        }
+
+        List<Token> tokens = tokenize(expression);
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        MathFunction function = Parser.parse(tokens, options.withErrorPolicy(ErrorPolicy.THROW));
+        phases.get(Phase.PARSE).record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.expression = expression;
+            event.optimized = options.isOptimizationEnabled();
+            event.commit();
+        }
+        return options.getErrorPolicy().apply(instrument(expression, function));
+    }
+
+    public MathFunction instrument(String expression, MathFunction function) {
+        if (!enabled) {
+            return function;
+        }
+        if (function instanceof InstrumentedFunction instrumented) {
+            function = instrumented.getDelegate();
+        }
+        return new InstrumentedFunction(expression, function, metricsFor(expression), phases.get(Phase.EVALUATE));
+    }
+
+    public ExpressionMetrics getMetrics(String expression) {
+        return expressions.get(expression);
+    }
+
+    public ExpressionMetrics getOtherMetrics() {
+        return otherExpressions;
+    }
+
+    public LatencyHistogram getPhase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<Phase, MetricsSnapshot.Latency> phaseLatencies = new EnumMap<>(Phase.class);
+        phases.forEach((phase, histogram) -> phaseLatencies.put(phase, MetricsSnapshot.Latency.of(histogram)));
+
+        List<MetricsSnapshot.Expression> expressionSnapshots = new ArrayList<>();
+        for (ExpressionMetrics metrics : expressions.values()) {
+            expressionSnapshots.add(new MetricsSnapshot.Expression(metrics.getExpression(), metrics.getInvocations(),
+                    metrics.getErrors(), MetricsSnapshot.Latency.of(metrics.getLatency())));
+        }
+        expressionSnapshots.sort(Comparator.comparing(MetricsSnapshot.Expression::expression));
+        if (otherExpressions.getInvocations() > 0 || otherExpressions.getErrors() > 0) {
+            expressionSnapshots.add(new MetricsSnapshot.Expression(OTHER_EXPRESSIONS, otherExpressions.getInvocations(),
+                    otherExpressions.getErrors(), MetricsSnapshot.Latency.of(otherExpressions.getLatency())));
+        }
+        return new MetricsSnapshot(Instant.now(), phaseLatencies, expressionSnapshots);
+    }
+
+    public void export(MetricsExporter exporter) {
+        exporter.export(snapshot());
+    }
+
+    public void reset() {
+        expressions.clear();
+        otherExpressions.reset();
+        phases.values().forEach(LatencyHistogram::reset);
+    }
+
+    private ExpressionMetrics metricsFor(String expression) {
+        ExpressionMetrics metrics = expressions.get(expression);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (expressions.size() >= maxExpressions) {
+            return otherExpressions;
+        }
+        return expressions.computeIfAbsent(expression, ExpressionMetrics::new);
+    }
+}
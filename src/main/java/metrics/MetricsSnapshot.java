@@ -0,0 +1,30 @@
+package metrics;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record MetricsSnapshot(Instant timestamp, Map<Phase, Latency> phases, List<Expression> expressions) {
+
+    public MetricsSnapshot {
+        phases = Map.copyOf(phases);
+        expressions = List.copyOf(expressions);
+    }
+
+    public enum Phase {
+        LEX,
+        PARSE,
+        EVALUATE
+    }
+
+    public record Latency(long count, double mean, long p50, long p90, long p99, long max) {
+
+        static Latency of(LatencyHistogram histogram) {
+            return new Latency(histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99), histogram.getMax());
+        }
+    }
+
+    public record Expression(String expression, long invocations, long errors, Latency latency) {
+    }
+}
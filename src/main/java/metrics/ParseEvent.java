@@ -0,0 +1,20 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("mathparser.Parse")
+@Label("Parse Expression")
+@Category("Math Parser")
+@Description("Parser.parse call, excluding tokenization")
+@StackTrace(false)
+final class ParseEvent extends jdk.jfr.Event {
+    @Label("Expression")
+    String expression;
+
+    @Label("Optimized")
+    boolean optimized;
+}
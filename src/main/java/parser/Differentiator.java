@@ -0,0 +1,249 @@
+package parser;
+
+import function.MathFunction;
+import function.MultiMathFunction;
+import parser.nodes.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class Differentiator {
+    private static final NumberNode ZERO = new NumberNode(BigDecimal.ZERO);
+    private static final NumberNode ONE = new NumberNode(BigDecimal.ONE);
+    private static final NumberNode TWO = new NumberNode(BigDecimal.valueOf(2));
+    private static final NumberNode LN_10 = new NumberNode(BigDecimal.valueOf(Math.log(10)));
+
+    private final int variable;
+    private final int varCount;
+    private final Map<ASTNode, ASTNode> derivatives = new IdentityHashMap<>();
+
+    private Differentiator(int variable, int varCount) {
+        this.variable = variable;
+        this.varCount = varCount;
+    }
+
+    public static ASTNode derivative(ASTNode root, String variable) {
+        String[] names = Optimizer.variableNames(root);
+        int index = Arrays.asList(names).indexOf(variable);
+        if (index < 0) {
+            return ZERO;
+        }
+        return derivative(inline(root), index, names.length);
+    }
+
+    public static ASTNode[] gradient(ASTNode root) {
+        String[] names = Optimizer.variableNames(root);
+        ASTNode inlined = inline(root);
+        ASTNode[] partials = new ASTNode[names.length];
+        for (int i = 0; i < names.length; i++) {
+            partials[i] = derivative(inlined, i, names.length);
+        }
+        return partials;
+    }
+
+    public static MathFunction derivativeFunction(ASTNode root, String variable) {
+        return Optimizer.eliminateCommonSubexpressions(derivative(root, variable), Optimizer.variableNames(root))
+                .toMathFunction();
+    }
+
+    public static MultiMathFunction gradientFunction(ASTNode root) {
+        return Optimizer.eliminateCommonSubexpressions(Arrays.asList(gradient(root)), Optimizer.variableNames(root))
+                .toMultiMathFunction();
+    }
+
+    private static ASTNode derivative(ASTNode root, int variable, int varCount) {
+        return Optimizer.simplify(new Differentiator(variable, varCount).differentiate(root));
+    }
+
+    private ASTNode differentiate(ASTNode node) {
+        ASTNode derivative = derivatives.get(node);
+        if (derivative == null) {
+            derivative = differentiateNode(node);
+            derivatives.put(node, derivative);
+        }
+        return derivative;
+    }
+
+    private ASTNode differentiateNode(ASTNode node) {
+        if (node instanceof NumberNode) {
+            return ZERO;
+        }
+        if (node instanceof VariableNode variableNode) {
+            return variableNode.index() == variable ? ONE : ZERO;
+        }
+        if (node instanceof UnaryOperationNode unary) {
+            return differentiateUnary(unary.getOperator(), unary.getOperand());
+        }
+        if (node instanceof BinaryOperationNode binary) {
+            return differentiateBinary(binary);
+        }
+        if (node instanceof ConditionalNode conditional) {
+            ASTNode thenDerivative = differentiate(conditional.getThenBranch());
+            ASTNode elseDerivative = differentiate(conditional.getElseBranch());
+            return isZero(thenDerivative) && isZero(elseDerivative)
+                    ? ZERO
+                    : new ConditionalNode(conditional.getCondition(), thenDerivative, elseDerivative, varCount);
+        }
+        if (node instanceof FunctionCallNode call) {
+            return differentiateCall(call);
+        }
+        throw new UnsupportedOperationException("Cannot differentiate " + node.getClass().getSimpleName());
+    }
+
+    private ASTNode differentiateCall(FunctionCallNode call) {
+        ASTNode result = ZERO;
+        for (int i = 0; i < call.getArguments().size(); i++) {
+            ASTNode inner = differentiate(call.getArguments().get(i));
+            if (isZero(inner)) {
+                continue;
+            }
+            if (!call.getFunction().differentiable()) {
+                throw new UnsupportedOperationException(
+                        "Cannot differentiate function %s: no partial derivatives defined"
+                                .formatted(call.getFunction().name()));
+            }
+            ASTNode partial = new FunctionCallNode(call.getFunction().partial(i), call.getArguments(), varCount);
+            result = add(result, multiply(partial, inner));
+        }
+        return result;
+    }
+
+    private ASTNode differentiateUnary(String operator, ASTNode operand) {
+        ASTNode inner = differentiate(operand);
+        if (isZero(inner)) {
+            return ZERO;
+        }
+
+        return switch (operator) {
+            case "-" -> negate(inner);
+            case "sin" -> multiply(unary("cos", operand), inner);
+            case "cos" -> negate(multiply(unary("sin", operand), inner));
+            case "tan" -> divide(inner, multiply(unary("cos", operand), unary("cos", operand)));
+            case "catan" -> divide(inner, add(ONE, multiply(operand, operand)));
+            case "sqrt" -> divide(inner, multiply(TWO, unary("sqrt", operand)));
+            case "ln" -> divide(inner, operand);
+            case "lg" -> divide(inner, multiply(operand, LN_10));
+            case "abs" -> divide(multiply(inner, operand), unary("abs", operand));
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+        };
+    }
+
+    private ASTNode differentiateBinary(BinaryOperationNode node) {
+        if (BinaryOperationNode.isComparison(node.getOperator())) {
+            return ZERO;
+        }
+        ASTNode left = node.getLeft();
+        ASTNode right = node.getRight();
+        ASTNode leftDerivative = differentiate(left);
+        ASTNode rightDerivative = differentiate(right);
+
+        return switch (node.getOperator()) {
+            case "+" -> add(leftDerivative, rightDerivative);
+            case "-" -> subtract(leftDerivative, rightDerivative);
+            case "*" -> add(multiply(leftDerivative, right), multiply(left, rightDerivative));
+            case "/" -> isZero(rightDerivative)
+                    ? divide(leftDerivative, right)
+                    : divide(subtract(multiply(leftDerivative, right), multiply(left, rightDerivative)),
+                    multiply(right, right));
+            case "%" -> subtract(leftDerivative,
+                    multiply(rightDerivative, divide(subtract(left, node), right)));
+            case "^" -> {
+                if (isZero(rightDerivative)) {
+                    yield multiply(multiply(right, binary("^", left, subtract(right, ONE))), leftDerivative);
+                }
+                if (isZero(leftDerivative)) {
+                    yield multiply(multiply(node, unary("ln", left)), rightDerivative);
+                }
+                yield multiply(node, add(multiply(rightDerivative, unary("ln", left)),
+                        divide(multiply(right, leftDerivative), left)));
+            }
+            default -> throw new UnsupportedOperationException("Unknown operator: " + node.getOperator());
+        };
+    }
+
+    private ASTNode add(ASTNode left, ASTNode right) {
+        if (isZero(left)) return right;
+        if (isZero(right)) return left;
+        return binary("+", left, right);
+    }
+
+    private ASTNode subtract(ASTNode left, ASTNode right) {
+        if (isZero(right)) return left;
+        if (isZero(left)) return negate(right);
+        return binary("-", left, right);
+    }
+
+    private ASTNode multiply(ASTNode left, ASTNode right) {
+        if (isZero(left) || isZero(right)) return ZERO;
+        if (isOne(left)) return right;
+        if (isOne(right)) return left;
+        return binary("*", left, right);
+    }
+
+    private ASTNode divide(ASTNode left, ASTNode right) {
+        if (isOne(right)) return left;
+        return binary("/", left, right);
+    }
+
+    private static ASTNode negate(ASTNode operand) {
+        if (isZero(operand)) return ZERO;
+        if (operand instanceof UnaryOperationNode unary && unary.getOperator().equals("-")) {
+            return unary.getOperand();
+        }
+        return unary("-", operand);
+    }
+
+    private ASTNode binary(String operator, ASTNode left, ASTNode right) {
+        return new BinaryOperationNode(operator, left, right, varCount);
+    }
+
+    private static ASTNode unary(String operator, ASTNode operand) {
+        return new UnaryOperationNode(operator, operand);
+    }
+
+    private static boolean isZero(ASTNode node) {
+        return node instanceof NumberNode number && number.getValue().signum() == 0;
+    }
+
+    private static boolean isOne(ASTNode node) {
+        return node instanceof NumberNode number && number.getValue().compareTo(BigDecimal.ONE) == 0;
+    }
+
+    private static ASTNode inline(ASTNode root) {
+        if (!(root instanceof BlockNode block)) {
+            return root;
+        }
+
+        ASTNode[] slots = new ASTNode[block.getSlotIndex(block.getBindings().size())];
+        for (int i = 0; i < block.getBindings().size(); i++) {
+            slots[block.getSlotIndex(i)] = substitute(block.getBindings().get(i), slots);
+        }
+        return substitute(block.getResult(), slots);
+    }
+
+    private static ASTNode substitute(ASTNode node, ASTNode[] slots) {
+        if (node instanceof SlotNode slot) {
+            return slots[slot.index()];
+        }
+        if (node instanceof UnaryOperationNode unary) {
+            return new UnaryOperationNode(unary.getOperator(), substitute(unary.getOperand(), slots));
+        }
+        if (node instanceof BinaryOperationNode binary) {
+            return new BinaryOperationNode(binary.getOperator(), substitute(binary.getLeft(), slots),
+                    substitute(binary.getRight(), slots), binary.getVarCount());
+        }
+        if (node instanceof FunctionCallNode call) {
+            return new FunctionCallNode(call.getFunction(),
+                    call.getArguments().stream().map(argument -> substitute(argument, slots)).toList(),
+                    call.getVarCount());
+        }
+        if (node instanceof ConditionalNode conditional) {
+            return new ConditionalNode(substitute(conditional.getCondition(), slots),
+                    substitute(conditional.getThenBranch(), slots), substitute(conditional.getElseBranch(), slots),
+                    conditional.getVarCount());
+        }
+        return node;
+    }
+}
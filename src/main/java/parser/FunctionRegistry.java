@@ -0,0 +1,202 @@
+package parser;
+
+import function.BigDecimalMath;
+import function.FunctionDefinition;
+import function.Interval;
+import function.IntervalMath;
+import function.NativeFunction;
+import lexer.TokenCursor;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public final class FunctionRegistry {
+    public static final FunctionRegistry EMPTY = new FunctionRegistry(Map.of());
+    public static final FunctionRegistry DEFAULT = EMPTY
+            .with("max", FunctionDefinition.VARIADIC, true, new NativeFunction() {
+                @Override
+                public double calculateDouble(double[] arguments) {
+                    double result = arguments[0];
+                    for (int i = 1; i < arguments.length; i++) {
+                        result = Math.max(result, arguments[i]);
+                    }
+                    return result;
+                }
+
+                @Override
+                public BigDecimal calculate(BigDecimal[] arguments, MathContext mathContext) {
+                    BigDecimal result = arguments[0];
+                    for (int i = 1; i < arguments.length; i++) {
+                        result = result.max(arguments[i]);
+                    }
+                    return result;
+                }
+
+                @Override
+                public boolean hasPartials() {
+                    return true;
+                }
+
+                @Override
+                public double partial(double[] arguments, int index) {
+                    int selected = 0;
+                    for (int i = 1; i < arguments.length; i++) {
+                        if (arguments[i] > arguments[selected]) {
+                            selected = i;
+                        }
+                    }
+                    return index == selected ? 1 : 0;
+                }
+
+                @Override
+                public boolean hasIntervals() {
+                    return true;
+                }
+
+                @Override
+                public Interval calculateInterval(Interval[] arguments) {
+                    return IntervalMath.max(arguments);
+                }
+            })
+            .with("min", FunctionDefinition.VARIADIC, true, new NativeFunction() {
+                @Override
+                public double calculateDouble(double[] arguments) {
+                    double result = arguments[0];
+                    for (int i = 1; i < arguments.length; i++) {
+                        result = Math.min(result, arguments[i]);
+                    }
+                    return result;
+                }
+
+                @Override
+                public BigDecimal calculate(BigDecimal[] arguments, MathContext mathContext) {
+                    BigDecimal result = arguments[0];
+                    for (int i = 1; i < arguments.length; i++) {
+                        result = result.min(arguments[i]);
+                    }
+                    return result;
+                }
+
+                @Override
+                public boolean hasPartials() {
+                    return true;
+                }
+
+                @Override
+                public double partial(double[] arguments, int index) {
+                    int selected = 0;
+                    for (int i = 1; i < arguments.length; i++) {
+                        if (arguments[i] < arguments[selected]) {
+                            selected = i;
+                        }
+                    }
+                    return index == selected ? 1 : 0;
+                }
+
+                @Override
+                public boolean hasIntervals() {
+                    return true;
+                }
+
+                @Override
+                public Interval calculateInterval(Interval[] arguments) {
+                    return IntervalMath.min(arguments);
+                }
+            })
+            .with("hypot", 2, true, new NativeFunction() {
+                @Override
+                public double calculateDouble(double[] arguments) {
+                    return Math.hypot(arguments[0], arguments[1]);
+                }
+
+                @Override
+                public BigDecimal calculate(BigDecimal[] arguments, MathContext mathContext) {
+                    if (mathContext == null) {
+                        return BigDecimal.valueOf(Math.hypot(arguments[0].doubleValue(), arguments[1].doubleValue()));
+                    }
+                    BigDecimal sum = arguments[0].multiply(arguments[0]).add(arguments[1].multiply(arguments[1]));
+                    return BigDecimalMath.sqrt(sum, mathContext);
+                }
+
+                @Override
+                public boolean hasPartials() {
+                    return true;
+                }
+
+                @Override
+                public double partial(double[] arguments, int index) {
+                    double length = Math.hypot(arguments[0], arguments[1]);
+                    return length == 0 ? 0 : arguments[index] / length;
+                }
+
+                @Override
+                public boolean hasIntervals() {
+                    return true;
+                }
+
+                @Override
+                public Interval calculateInterval(Interval[] arguments) {
+                    return IntervalMath.hypot(arguments[0], arguments[1]);
+                }
+            });
+
+    private final Map<String, FunctionDefinition> functions;
+
+    private FunctionRegistry(Map<String, FunctionDefinition> functions) {
+        this.functions = functions;
+    }
+
+    public FunctionRegistry with(String name, int arity, boolean pure, NativeFunction implementation) {
+        return with(new FunctionDefinition(name, arity, pure, implementation));
+    }
+
+    public FunctionRegistry with(FunctionDefinition function) {
+        if (!isValidName(function.name())) {
+            throw new IllegalArgumentException("Invalid function name: " + function.name());
+        }
+        if (TokenCursor.isKeyword(function.name())) {
+            throw new IllegalArgumentException("Function name is reserved: " + function.name());
+        }
+        Map<String, FunctionDefinition> copy = new HashMap<>(functions);
+        copy.put(function.name(), function);
+        return new FunctionRegistry(Map.copyOf(copy));
+    }
+
+    public FunctionRegistry without(String name) {
+        Map<String, FunctionDefinition> copy = new HashMap<>(functions);
+        copy.remove(name);
+        return new FunctionRegistry(Map.copyOf(copy));
+    }
+
+    public FunctionDefinition lookup(String name) {
+        FunctionDefinition function = functions.get(name);
+        if (function == null) {
+            throw new IllegalArgumentException("Unknown function: " + name);
+        }
+        return function;
+    }
+
+    public boolean contains(String name) {
+        return functions.containsKey(name);
+    }
+
+    public Set<String> names() {
+        return functions.keySet();
+    }
+
+    private static boolean isValidName(String name) {
+        if (!Character.isLetter(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!TokenCursor.isIdentifierPart(c) || Character.isUpperCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,474 @@
+package parser;
+
+import function.IntegerPower;
+import parser.nodes.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Optimizer {
+    private static final int MIN_SHARED_SIZE = 3;
+    private static final BigDecimal[] NO_VALUES = new BigDecimal[0];
+    private static final int MAX_POLYNOMIAL_DEGREE = 32;
+    private static final int POWER_COST = 10;
+
+    public static ASTNode optimize(ASTNode root) {
+        return optimize(root, null);
+    }
+
+    public static ASTNode optimize(ASTNode root, MathContext mathContext) {
+        return eliminateCommonSubexpressions(simplify(root, mathContext), variableNames(root));
+    }
+
+    public static ASTNode simplify(ASTNode node) {
+        return simplify(node, null);
+    }
+
+    public static ASTNode simplify(ASTNode node, MathContext mathContext) {
+        return toHornerForm(simplifyNode(node, mathContext));
+    }
+
+    public static ASTNode toHornerForm(ASTNode node) {
+        if (node instanceof BinaryOperationNode binary) {
+            Polynomial polynomial = polynomial(binary);
+            if (polynomial != null) {
+                if (polynomial.degree() < 2) {
+                    return node;
+                }
+                ASTNode horner = horner(polynomial, binary.getVarCount());
+                return cost(horner) < cost(node) ? horner : node;
+            }
+            return new BinaryOperationNode(binary.getOperator(), toHornerForm(binary.getLeft()),
+                    toHornerForm(binary.getRight()), binary.getVarCount());
+        }
+        if (node instanceof UnaryOperationNode unary) {
+            return new UnaryOperationNode(unary.getOperator(), toHornerForm(unary.getOperand()));
+        }
+        if (node instanceof FunctionCallNode call) {
+            return new FunctionCallNode(call.getFunction(),
+                    call.getArguments().stream().map(Optimizer::toHornerForm).toList(), call.getVarCount());
+        }
+        if (node instanceof ConditionalNode conditional) {
+            return new ConditionalNode(toHornerForm(conditional.getCondition()),
+                    toHornerForm(conditional.getThenBranch()), toHornerForm(conditional.getElseBranch()),
+                    conditional.getVarCount());
+        }
+        return node;
+    }
+
+    public static ASTNode eliminateCommonSubexpressions(ASTNode root, String[] variableNames) {
+        MultiBlockNode block = eliminateCommonSubexpressions(List.of(root), variableNames);
+        return block.getBindings().isEmpty()
+                ? root
+                : new BlockNode(block.getBindings(), block.getResults().get(0), variableNames);
+    }
+
+    public static MultiBlockNode eliminateCommonSubexpressions(List<ASTNode> roots, String[] variableNames) {
+        Map<ASTNode, Integer> ids = new IdentityHashMap<>();
+        Map<Shape, Integer> shapes = new HashMap<>();
+        List<Integer> sizes = new ArrayList<>();
+        for (ASTNode root : roots) {
+            assignIds(root, ids, shapes, sizes);
+        }
+
+        int[] uses = new int[sizes.size()];
+        for (ASTNode root : roots) {
+            countUses(root, ids, uses);
+        }
+
+        List<ASTNode> bindings = new ArrayList<>();
+        List<ASTNode> results = new ArrayList<>();
+        int[] slots = new int[sizes.size()];
+        for (ASTNode root : roots) {
+            results.add(rewrite(root, ids, sizes, uses, slots, bindings, variableNames.length));
+        }
+
+        return new MultiBlockNode(bindings, results, variableNames);
+    }
+
+    public static String[] variableNames(ASTNode root) {
+        return variableNames(List.of(root));
+    }
+
+    public static String[] variableNames(List<ASTNode> roots) {
+        Map<Integer, String> names = new HashMap<>();
+        roots.forEach(root -> collectVariables(root, names));
+        String[] result = new String[names.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1];
+        names.forEach((index, name) -> result[index] = name);
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] == null) {
+                result[i] = "#" + i;
+            }
+        }
+        return result;
+    }
+
+    private static ASTNode simplifyNode(ASTNode node, MathContext mathContext) {
+        if (node instanceof UnaryOperationNode unary) {
+            return simplifyUnary(unary.getOperator(), simplifyNode(unary.getOperand(), mathContext), mathContext);
+        }
+        if (node instanceof BinaryOperationNode binary) {
+            return simplifyBinary(binary.getOperator(), simplifyNode(binary.getLeft(), mathContext),
+                    simplifyNode(binary.getRight(), mathContext), binary.getVarCount(), mathContext);
+        }
+        if (node instanceof FunctionCallNode call) {
+            return simplifyCall(call, mathContext);
+        }
+        if (node instanceof ConditionalNode conditional) {
+            return simplifyConditional(conditional, mathContext);
+        }
+        return node;
+    }
+
+    private static ASTNode simplifyUnary(String operator, ASTNode operand, MathContext mathContext) {
+        if (operator.equals("-") && operand instanceof UnaryOperationNode inner && inner.getOperator().equals("-")) {
+            return inner.getOperand();
+        }
+
+        UnaryOperationNode node = new UnaryOperationNode(operator, operand);
+        return operand instanceof NumberNode ? fold(node, mathContext) : node;
+    }
+
+    private static ASTNode simplifyBinary(String operator, ASTNode left, ASTNode right, int varCount,
+                                          MathContext mathContext) {
+        BinaryOperationNode node = new BinaryOperationNode(operator, left, right, varCount);
+        if (left instanceof NumberNode && right instanceof NumberNode) {
+            return fold(node, mathContext);
+        }
+
+        switch (operator) {
+            case "+" -> {
+                if (isConstant(left, BigDecimal.ZERO)) return right;
+                if (isConstant(right, BigDecimal.ZERO)) return left;
+            }
+            case "-" -> {
+                if (isConstant(right, BigDecimal.ZERO)) return left;
+            }
+            case "*" -> {
+                if (isConstant(left, BigDecimal.ONE)) return right;
+                if (isConstant(right, BigDecimal.ONE)) return left;
+                if (isConstant(left, BigDecimal.ZERO) && cannotFail(right)) return left;
+                if (isConstant(right, BigDecimal.ZERO) && cannotFail(left)) return right;
+            }
+            case "^" -> {
+                if (isConstant(right, BigDecimal.ONE)) return left;
+            }
+        }
+        return node;
+    }
+
+    private static ASTNode simplifyCall(FunctionCallNode call, MathContext mathContext) {
+        List<ASTNode> arguments = new ArrayList<>();
+        boolean constant = call.getFunction().pure();
+        for (ASTNode argument : call.getArguments()) {
+            ASTNode simplified = simplifyNode(argument, mathContext);
+            constant &= simplified instanceof NumberNode;
+            arguments.add(simplified);
+        }
+
+        FunctionCallNode node = new FunctionCallNode(call.getFunction(), arguments, call.getVarCount());
+        return constant ? fold(node, mathContext) : node;
+    }
+
+    private static ASTNode simplifyConditional(ConditionalNode conditional, MathContext mathContext) {
+        ASTNode condition = simplifyNode(conditional.getCondition(), mathContext);
+        if (condition instanceof NumberNode number) {
+            return simplifyNode(number.getValue().signum() != 0
+                    ? conditional.getThenBranch()
+                    : conditional.getElseBranch(), mathContext);
+        }
+        return new ConditionalNode(condition, simplifyNode(conditional.getThenBranch(), mathContext),
+                simplifyNode(conditional.getElseBranch(), mathContext), conditional.getVarCount());
+    }
+
+    private static ASTNode fold(ASTNode node, MathContext mathContext) {
+        try {
+            return new NumberNode(node.toMathFunction(mathContext).calculate(NO_VALUES));
+        } catch (ArithmeticException | NumberFormatException e) {
+            return node;
+        }
+    }
+
+    private static boolean isConstant(ASTNode node, BigDecimal value) {
+        return node instanceof NumberNode number && number.getValue().compareTo(value) == 0;
+    }
+
+    private static boolean cannotFail(ASTNode node) {
+        if (node instanceof UnaryOperationNode unary) {
+            return switch (unary.getOperator()) {
+                case "-", "abs", "sin", "cos", "tan", "catan" -> cannotFail(unary.getOperand());
+                default -> false;
+            };
+        }
+        if (node instanceof BinaryOperationNode binary) {
+            return switch (binary.getOperator()) {
+                case "+", "-", "*", "<", "<=", ">", ">=", "==", "!=" ->
+                        cannotFail(binary.getLeft()) && cannotFail(binary.getRight());
+                default -> false;
+            };
+        }
+        if (node instanceof ConditionalNode conditional) {
+            return cannotFail(conditional.getCondition()) && cannotFail(conditional.getThenBranch())
+                    && cannotFail(conditional.getElseBranch());
+        }
+        return node instanceof NumberNode || node instanceof VariableNode;
+    }
+
+    private static int assignIds(ASTNode node, Map<ASTNode, Integer> ids, Map<Shape, Integer> shapes,
+                                 List<Integer> sizes) {
+        Shape shape;
+        int size;
+        if (node instanceof UnaryOperationNode unary) {
+            int operand = assignIds(unary.getOperand(), ids, shapes, sizes);
+            shape = new Shape("unary", unary.getOperator(), operand, -1);
+            size = 1 + sizes.get(operand);
+        } else if (node instanceof BinaryOperationNode binary) {
+            int left = assignIds(binary.getLeft(), ids, shapes, sizes);
+            int right = assignIds(binary.getRight(), ids, shapes, sizes);
+            shape = new Shape("binary", binary.getOperator(), left, right);
+            size = 1 + sizes.get(left) + sizes.get(right);
+        } else if (node instanceof FunctionCallNode call) {
+            List<Object> signature = new ArrayList<>();
+            signature.add(call.getFunction());
+            size = 1;
+            for (ASTNode argument : call.getArguments()) {
+                int argumentId = assignIds(argument, ids, shapes, sizes);
+                signature.add(argumentId);
+                size += sizes.get(argumentId);
+            }
+            shape = call.getFunction().pure() ? new Shape("call", signature, -1, -1) : new Shape("opaque", node, -1, -1);
+        } else if (node instanceof NumberNode number) {
+            shape = number.getConstant() == null
+                    ? new Shape("number", number.getValue(), -1, -1)
+                    : new Shape("constant", number.getConstant(), -1, -1);
+            size = 1;
+        } else if (node instanceof VariableNode variable) {
+            shape = new Shape("variable", variable.index(), -1, -1);
+            size = 1;
+        } else {
+            shape = new Shape("opaque", node, -1, -1);
+            size = 1;
+        }
+
+        Integer id = shapes.get(shape);
+        if (id == null) {
+            id = sizes.size();
+            shapes.put(shape, id);
+            sizes.add(size);
+        }
+        ids.put(node, id);
+        return id;
+    }
+
+    private static void countUses(ASTNode node, Map<ASTNode, Integer> ids, int[] uses) {
+        if (uses[ids.get(node)]++ > 0) {
+            return;
+        }
+        if (node instanceof UnaryOperationNode unary) {
+            countUses(unary.getOperand(), ids, uses);
+        } else if (node instanceof BinaryOperationNode binary) {
+            countUses(binary.getLeft(), ids, uses);
+            countUses(binary.getRight(), ids, uses);
+        } else if (node instanceof FunctionCallNode call) {
+            call.getArguments().forEach(argument -> countUses(argument, ids, uses));
+        }
+    }
+
+    private static ASTNode rewrite(ASTNode node, Map<ASTNode, Integer> ids, List<Integer> sizes, int[] uses,
+                                   int[] slots, List<ASTNode> bindings, int varCount) {
+        int id = ids.get(node);
+        boolean shared = uses[id] > 1 && sizes.get(id) >= MIN_SHARED_SIZE;
+        if (shared && slots[id] > 0) {
+            return new SlotNode(slots[id] - 1);
+        }
+
+        ASTNode rewritten = node;
+        if (node instanceof UnaryOperationNode unary) {
+            rewritten = new UnaryOperationNode(unary.getOperator(),
+                    rewrite(unary.getOperand(), ids, sizes, uses, slots, bindings, varCount));
+        } else if (node instanceof BinaryOperationNode binary) {
+            rewritten = new BinaryOperationNode(binary.getOperator(),
+                    rewrite(binary.getLeft(), ids, sizes, uses, slots, bindings, varCount),
+                    rewrite(binary.getRight(), ids, sizes, uses, slots, bindings, varCount),
+                    binary.getVarCount());
+        } else if (node instanceof FunctionCallNode call) {
+            List<ASTNode> arguments = new ArrayList<>();
+            for (ASTNode argument : call.getArguments()) {
+                arguments.add(rewrite(argument, ids, sizes, uses, slots, bindings, varCount));
+            }
+            rewritten = new FunctionCallNode(call.getFunction(), arguments, call.getVarCount());
+        }
+
+        if (!shared) {
+            return rewritten;
+        }
+        bindings.add(rewritten);
+        slots[id] = varCount + bindings.size();
+        return new SlotNode(slots[id] - 1);
+    }
+
+    private static void collectVariables(ASTNode node, Map<Integer, String> names) {
+        if (node instanceof VariableNode variable) {
+            names.put(variable.index(), variable.name());
+        } else if (node instanceof UnaryOperationNode unary) {
+            collectVariables(unary.getOperand(), names);
+        } else if (node instanceof BinaryOperationNode binary) {
+            collectVariables(binary.getLeft(), names);
+            collectVariables(binary.getRight(), names);
+        } else if (node instanceof FunctionCallNode call) {
+            call.getArguments().forEach(argument -> collectVariables(argument, names));
+        } else if (node instanceof ConditionalNode conditional) {
+            collectVariables(conditional.getCondition(), names);
+            collectVariables(conditional.getThenBranch(), names);
+            collectVariables(conditional.getElseBranch(), names);
+        } else if (node instanceof BlockNode block) {
+            block.getBindings().forEach(binding -> collectVariables(binding, names));
+            collectVariables(block.getResult(), names);
+        }
+    }
+
+    private static Polynomial polynomial(ASTNode node) {
+        if (node instanceof NumberNode number && number.getConstant() == null) {
+            return new Polynomial(null, new BigDecimal[]{number.getValue()});
+        }
+        if (node instanceof VariableNode variable) {
+            return new Polynomial(variable, new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ONE});
+        }
+        if (node instanceof UnaryOperationNode unary && unary.getOperator().equals("-")) {
+            Polynomial operand = polynomial(unary.getOperand());
+            return operand == null ? null : operand.scale(BigDecimal.ONE.negate());
+        }
+        if (!(node instanceof BinaryOperationNode binary)) {
+            return null;
+        }
+
+        Polynomial left = polynomial(binary.getLeft());
+        if (left == null) {
+            return null;
+        }
+        if (binary.getOperator().equals("^")) {
+            if (!(binary.getRight() instanceof NumberNode exponent) || exponent.getValue().signum() < 0
+                    || !IntegerPower.isReducible(exponent.getValue())
+                    || left.degree() * exponent.getValue().intValue() > MAX_POLYNOMIAL_DEGREE) {
+                return null;
+            }
+            Polynomial result = new Polynomial(left.variable(), new BigDecimal[]{BigDecimal.ONE});
+            for (int i = exponent.getValue().intValue(); i > 0; i--) {
+                result = result.multiply(left);
+            }
+            return result;
+        }
+
+        Polynomial right = polynomial(binary.getRight());
+        if (right == null || left.variable() != null && right.variable() != null
+                && left.variable().index() != right.variable().index()) {
+            return null;
+        }
+        return switch (binary.getOperator()) {
+            case "+" -> left.add(right);
+            case "-" -> left.add(right.scale(BigDecimal.ONE.negate()));
+            case "*" -> left.degree() + right.degree() > MAX_POLYNOMIAL_DEGREE ? null : left.multiply(right);
+            default -> null;
+        };
+    }
+
+    private static ASTNode horner(Polynomial polynomial, int varCount) {
+        BigDecimal[] coefficients = polynomial.coefficients();
+        VariableNode variable = polynomial.variable();
+        BigDecimal leading = coefficients[polynomial.degree()];
+        ASTNode result;
+        if (leading.compareTo(BigDecimal.ONE) == 0) {
+            result = variable;
+        } else if (leading.compareTo(BigDecimal.ONE.negate()) == 0) {
+            result = new UnaryOperationNode("-", variable);
+        } else {
+            result = new BinaryOperationNode("*", new NumberNode(leading), variable, varCount);
+        }
+
+        for (int power = polynomial.degree() - 1; power >= 0; power--) {
+            if (power < polynomial.degree() - 1) {
+                result = new BinaryOperationNode("*", result, variable, varCount);
+            }
+            BigDecimal coefficient = coefficients[power];
+            if (coefficient.signum() > 0) {
+                result = new BinaryOperationNode("+", result, new NumberNode(coefficient), varCount);
+            } else if (coefficient.signum() < 0) {
+                result = new BinaryOperationNode("-", result, new NumberNode(coefficient.negate()), varCount);
+            }
+        }
+        return result;
+    }
+
+    private static int cost(ASTNode node) {
+        if (node instanceof UnaryOperationNode unary) {
+            return 1 + cost(unary.getOperand());
+        }
+        if (node instanceof BinaryOperationNode binary) {
+            if (binary.getOperator().equals("^") && binary.getRight() instanceof NumberNode exponent) {
+                int power = exponent.getValue().intValue();
+                return cost(binary.getLeft()) + switch (power) {
+                    case 0, 1 -> 0;
+                    case 2 -> 1;
+                    case 3, 4 -> 2;
+                    default -> POWER_COST;
+                };
+            }
+            return 1 + cost(binary.getLeft()) + cost(binary.getRight());
+        }
+        return 0;
+    }
+
+    private record Polynomial(VariableNode variable, BigDecimal[] coefficients) {
+        Polynomial {
+            int degree = coefficients.length - 1;
+            while (degree > 0 && coefficients[degree].signum() == 0) {
+                degree--;
+            }
+            coefficients = Arrays.copyOf(coefficients, degree + 1);
+        }
+
+        int degree() {
+            return coefficients.length - 1;
+        }
+
+        Polynomial add(Polynomial other) {
+            BigDecimal[] sum = new BigDecimal[Math.max(coefficients.length, other.coefficients.length)];
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] = coefficient(i).add(other.coefficient(i));
+            }
+            return new Polynomial(variable != null ? variable : other.variable, sum);
+        }
+
+        Polynomial multiply(Polynomial other) {
+            BigDecimal[] product = new BigDecimal[degree() + other.degree() + 1];
+            Arrays.fill(product, BigDecimal.ZERO);
+            for (int i = 0; i < coefficients.length; i++) {
+                for (int j = 0; j < other.coefficients.length; j++) {
+                    product[i + j] = product[i + j].add(coefficients[i].multiply(other.coefficients[j]));
+                }
+            }
+            return new Polynomial(variable != null ? variable : other.variable, product);
+        }
+
+        Polynomial scale(BigDecimal factor) {
+            BigDecimal[] scaled = new BigDecimal[coefficients.length];
+            for (int i = 0; i < scaled.length; i++) {
+                scaled[i] = coefficients[i].multiply(factor);
+            }
+            return new Polynomial(variable, scaled);
+        }
+
+        private BigDecimal coefficient(int power) {
+            return power < coefficients.length ? coefficients[power] : BigDecimal.ZERO;
+        }
+    }
+
+    private record Shape(String kind, Object payload, int left, int right) {
+    }
+}
@@ -1,152 +1,267 @@
 package parser;
 
+import function.FunctionDefinition;
 import function.MathFunction;
+import function.MultiMathFunction;
 import lexer.Token;
+import lexer.TokenCursor;
+import lexer.TokenStream;
 import parser.nodes.*;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Stack;
 
-import static lexer.Token.TokenType.LEFT_PARENTHESIS;
-import static lexer.Token.TokenType.UNARY_OPERATION;
+import static lexer.Token.TokenType.*;
 
 public class Parser {
-    private static final Map<String, Integer> OPERATOR_PRECEDENCE = Map.of(
-            "+", 1,
-            "-", 1,
-            "*", 2,
-            "/", 2,
-            "%", 2,
-            "^", 3
-    );
+    private static final int[] OPERATOR_PRECEDENCE = new int[128];
+
+    static {
+        OPERATOR_PRECEDENCE['<'] = 1;
+        OPERATOR_PRECEDENCE['>'] = 1;
+        OPERATOR_PRECEDENCE['='] = 1;
+        OPERATOR_PRECEDENCE['!'] = 1;
+        OPERATOR_PRECEDENCE['+'] = 2;
+        OPERATOR_PRECEDENCE['-'] = 2;
+        OPERATOR_PRECEDENCE['*'] = 3;
+        OPERATOR_PRECEDENCE['/'] = 3;
+        OPERATOR_PRECEDENCE['%'] = 3;
+        OPERATOR_PRECEDENCE['^'] = 4;
+    }
+
+    private final TokenStream tokens;
+    private final FunctionRegistry functions;
+    private final VariableTracker variableTracker;
+    private Token.TokenType current;
+
+    private Parser(TokenStream tokens, FunctionRegistry functions) {
+        this(tokens, functions, new VariableTracker());
+    }
+
+    private Parser(TokenStream tokens, FunctionRegistry functions, VariableTracker variableTracker) {
+        this.tokens = tokens;
+        this.functions = functions;
+        this.variableTracker = variableTracker;
+        this.current = tokens.next();
+    }
 
     public static MathFunction parse(List<Token> tokens) {
+        return parse(tokens, ParserOptions.DEFAULT);
+    }
+
+    public static MathFunction parse(List<Token> tokens, ParserOptions options) {
+        return toMathFunction(parseTree(tokens, options), options);
+    }
+
+    public static MathFunction parse(String expression) {
+        return parse(expression, ParserOptions.DEFAULT);
+    }
+
+    public static MathFunction parse(String expression, ParserOptions options) {
+        return toMathFunction(parseTree(expression, options), options);
+    }
+
+    public static ASTNode parseTree(List<Token> tokens) {
+        return parseTree(tokens, ParserOptions.DEFAULT);
+    }
+
+    public static ASTNode parseTree(List<Token> tokens, ParserOptions options) {
         if (tokens == null || tokens.isEmpty()) {
             throw new IllegalArgumentException("Token list cannot be null or empty");
         }
+        return new Parser(TokenStream.of(tokens), options.getFunctions()).parseRoot();
+    }
 
-        VariableTracker variableTracker = new VariableTracker();
-        Stack<ASTNode> output = new Stack<>();
-        Stack<Token> operators = new Stack<>();
-
-        for (Token token : tokens) {
-            switch (token.type()) {
-                case NUMBER:
-                    output.push(new NumberNode(new BigDecimal(token.value())));
-                    break;
-
-                case CONSTANT:
-                    output.push(parseConstant(token.value()));
-                    break;
-
-                case VARIABLE:
-                    int varIndex = variableTracker.getIndexForVariable(token.value());
-                    output.push(new VariableNode(token.value(), varIndex));
-                    break;
-
-                case UNARY_OPERATION:
-                case LEFT_PARENTHESIS:
-                    operators.push(token);
-                    break;
-
-                case BINARY_OPERATION:
-                    processBinaryOperator(output, operators, token, variableTracker);
-                    operators.push(token);
-                    break;
-
-                case RIGHT_PARENTHESIS:
-                    processRightParenthesis(output, operators, variableTracker);
-                    break;
-            }
-        }
+    public static ASTNode parseTree(CharSequence expression) {
+        return parseTree(expression, ParserOptions.DEFAULT);
+    }
 
-        processRemainingOperators(output, operators, variableTracker);
-        validateFinalOutput(output);
+    public static ASTNode parseTree(CharSequence expression, ParserOptions options) {
+        return new Parser(new TokenCursor(expression), options.getFunctions()).parseRoot();
+    }
 
-        return output.pop().toMathFunction();
+    public static MultiMathFunction parseAll(List<? extends CharSequence> expressions) {
+        return parseAll(expressions, ParserOptions.DEFAULT);
     }
 
-    private static ASTNode parseConstant(String constant) {
-        return switch (constant) {
-            case "e" -> new NumberNode(BigDecimal.valueOf(Math.E));
-            case "pi" -> new NumberNode(BigDecimal.valueOf(Math.PI));
-            default -> throw new IllegalArgumentException("Unknown constant: " + constant);
-        };
+    public static MultiMathFunction parseAll(List<? extends CharSequence> expressions, ParserOptions options) {
+        return parseAllTrees(expressions, options).toMultiMathFunction(options.getMathContext());
     }
 
-    private static void processBinaryOperator(Stack<ASTNode> output, Stack<Token> operators, Token token,
-                                              VariableTracker variableTracker) {
-        while (!operators.isEmpty() &&
-                operators.peek().type() != LEFT_PARENTHESIS &&
-                (operators.peek().type() == UNARY_OPERATION ||
-                        (OPERATOR_PRECEDENCE.get(token.value()) < OPERATOR_PRECEDENCE.get(operators.peek().value()) ||
-                                (OPERATOR_PRECEDENCE.get(token.value()).equals(OPERATOR_PRECEDENCE.get(operators.peek().value()))
-                                        && !token.value().equals("^"))))) {
-            applyOperator(output, operators.pop(), variableTracker);
+    public static MultiBlockNode parseAllTrees(List<? extends CharSequence> expressions, ParserOptions options) {
+        if (expressions == null || expressions.isEmpty()) {
+            throw new IllegalArgumentException("Expression list cannot be null or empty");
         }
+
+        VariableTracker variableTracker = new VariableTracker();
+        List<ASTNode> roots = new ArrayList<>(expressions.size());
+        for (int i = 0; i < expressions.size(); i++) {
+            CharSequence expression = expressions.get(i);
+            ASTNode root;
+            try {
+                root = new Parser(new TokenCursor(expression), options.getFunctions(), variableTracker).parseRoot();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Cannot parse expression %d '%s': %s".formatted(i, expression, e.getMessage()), e);
+            }
+            roots.add(options.isOptimizationEnabled() ? Optimizer.simplify(root, options.getMathContext()) : root);
+        }
+
+        String[] variableNames = new String[variableTracker.getTotalVariables()];
+        variableTracker.forEach((name, index) -> variableNames[index] = name);
+        return Optimizer.eliminateCommonSubexpressions(roots, variableNames);
     }
 
-    private static void processRightParenthesis(Stack<ASTNode> output, Stack<Token> operators,
-                                                VariableTracker variableTracker) {
-        while (!operators.isEmpty() && operators.peek().type() != LEFT_PARENTHESIS) {
-            applyOperator(output, operators.pop(), variableTracker);
+    private static MathFunction toMathFunction(ASTNode tree, ParserOptions options) {
+        if (options.isOptimizationEnabled()) {
+            tree = Optimizer.optimize(tree, options.getMathContext());
         }
+        return options.getErrorPolicy().apply(tree.toMathFunction(options.getMathContext()));
+    }
 
-        if (operators.isEmpty()) {
+    private ASTNode parseRoot() {
+        if (current == RIGHT_PARENTHESIS) {
+            throw new IllegalArgumentException("Invalid expression");
+        }
+        ASTNode root = parseExpression(1, null, null);
+        if (current == RIGHT_PARENTHESIS) {
             throw new IllegalArgumentException("Mismatched parentheses");
         }
-
-        operators.pop();
-
-        if (!operators.isEmpty() && operators.peek().type() == UNARY_OPERATION) {
-            applyOperator(output, operators.pop(), variableTracker);
+        if (current != null) {
+            throw new IllegalArgumentException("Invalid expression");
         }
+        return root;
     }
 
-    private static void processRemainingOperators(Stack<ASTNode> output, Stack<Token> operators,
-                                                  VariableTracker variableTracker) {
-        while (!operators.isEmpty()) {
-            if (operators.peek().type() == LEFT_PARENTHESIS) {
-                throw new IllegalArgumentException("Mismatched parentheses");
+    private ASTNode parseExpression(int minPrecedence, String pendingOperator, Token.TokenType pendingType) {
+        ASTNode left = parseOperand(pendingOperator, pendingType);
+
+        while (current == BINARY_OPERATION) {
+            String operator = tokens.text();
+            char symbol = operator.charAt(0);
+            int precedence = OPERATOR_PRECEDENCE[symbol];
+            if (precedence < minPrecedence) {
+                break;
             }
-            applyOperator(output, operators.pop(), variableTracker);
+
+            advance();
+            ASTNode right = parseExpression(symbol == '^' ? precedence : precedence + 1, operator, BINARY_OPERATION);
+            left = new BinaryOperationNode(operator, left, right, variableTracker.getTotalVariables());
         }
+
+        return left;
     }
 
-    private static void validateFinalOutput(Stack<ASTNode> output) {
-        if (output.size() != 1) {
-            throw new IllegalArgumentException("Invalid expression");
+    private ASTNode parseOperand(String pendingOperator, Token.TokenType pendingType) {
+        if (current == null) {
+            throw notEnoughOperands(pendingOperator, pendingType);
         }
-    }
 
-    private static void applyOperator(Stack<ASTNode> output, Token operator, VariableTracker variableTracker) {
-        switch (operator.type()) {
-            case UNARY_OPERATION:
-                applyUnaryOperator(output, operator);
-                break;
+        switch (current) {
+            case NUMBER: {
+                ASTNode node = new NumberNode(tokens.numberValue());
+                advance();
+                return node;
+            }
+            case CONSTANT: {
+                ASTNode node = parseConstant(tokens.text());
+                advance();
+                return node;
+            }
+            case VARIABLE: {
+                String name = tokens.text();
+                int varIndex = variableTracker.getIndexForVariable(name);
+                advance();
+                return new VariableNode(name, varIndex);
+            }
+            case UNARY_OPERATION: {
+                String operator = tokens.text();
+                advance();
+                return new UnaryOperationNode(operator, parseOperand(operator, UNARY_OPERATION));
+            }
+            case FUNCTION:
+                return tokens.text().equals("if") ? parseConditional() : parseCall();
+            case LEFT_PARENTHESIS: {
+                advance();
+                if (current == RIGHT_PARENTHESIS && pendingOperator == null) {
+                    throw new IllegalArgumentException("Invalid expression");
+                }
+                ASTNode node = parseExpression(1, pendingOperator, pendingType);
+                if (current == null) {
+                    throw new IllegalArgumentException("Mismatched parentheses");
+                }
+                if (current != RIGHT_PARENTHESIS) {
+                    throw new IllegalArgumentException("Invalid expression");
+                }
+                advance();
+                return node;
+            }
             case BINARY_OPERATION:
-                applyBinaryOperator(output, operator, variableTracker);
-                break;
+                throw pendingOperator == null
+                        ? notEnoughOperands(tokens.text(), BINARY_OPERATION)
+                        : notEnoughOperands(pendingOperator, pendingType);
             default:
-                throw new IllegalArgumentException("Unexpected operator type: " + operator.type());
+                throw notEnoughOperands(pendingOperator, pendingType);
+        }
+    }
+
+    private ASTNode parseCall() {
+        FunctionDefinition function = functions.lookup(tokens.text());
+        List<ASTNode> arguments = parseArguments();
+        return new FunctionCallNode(function, arguments, variableTracker.getTotalVariables());
+    }
+
+    private ASTNode parseConditional() {
+        List<ASTNode> arguments = parseArguments();
+        if (arguments.size() != 3) {
+            throw new IllegalArgumentException("Function if expects 3 arguments but got " + arguments.size());
         }
+        return new ConditionalNode(arguments.get(0), arguments.get(1), arguments.get(2),
+                variableTracker.getTotalVariables());
     }
 
-    private static void applyUnaryOperator(Stack<ASTNode> output, Token operator) {
-        if (output.isEmpty()) {
-            throw new IllegalArgumentException("Not enough operands for unary operator: " + operator.value());
+    private List<ASTNode> parseArguments() {
+        advance();
+        if (current != LEFT_PARENTHESIS) {
+            throw new IllegalArgumentException("Invalid expression");
+        }
+        advance();
+
+        List<ASTNode> arguments = new ArrayList<>();
+        if (current != RIGHT_PARENTHESIS) {
+            arguments.add(parseExpression(1, null, null));
+            while (current == SEPARATOR) {
+                advance();
+                arguments.add(parseExpression(1, null, null));
+            }
+        }
+        if (current == null) {
+            throw new IllegalArgumentException("Mismatched parentheses");
+        }
+        if (current != RIGHT_PARENTHESIS) {
+            throw new IllegalArgumentException("Invalid expression");
         }
-        output.push(new UnaryOperationNode(operator.value(), output.pop()));
+        advance();
+        return arguments;
+    }
+
+    private void advance() {
+        current = tokens.next();
     }
 
-    private static void applyBinaryOperator(Stack<ASTNode> output, Token operator, VariableTracker variableTracker) {
-        if (output.size() < 2) {
-            throw new IllegalArgumentException("Not enough operands for binary operator: " + operator.value());
+    private static IllegalArgumentException notEnoughOperands(String operator, Token.TokenType type) {
+        if (operator == null) {
+            return new IllegalArgumentException("Invalid expression");
         }
-        ASTNode right = output.pop();
-        ASTNode left = output.pop();
-        output.push(new BinaryOperationNode(operator.value(), left, right, variableTracker.getTotalVariables()));
+        String kind = type == UNARY_OPERATION ? "unary" : "binary";
+        return new IllegalArgumentException("Not enough operands for " + kind + " operator: " + operator);
+    }
+
+    private static ASTNode parseConstant(String constant) {
+        return switch (constant) {
+            case "e" -> NumberNode.e();
+            case "pi" -> NumberNode.pi();
+            default -> throw new IllegalArgumentException("Unknown constant: " + constant);
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package parser;
+
+import function.ErrorPolicy;
+
+import java.math.MathContext;
+
+public final class ParserOptions {
+    public static final ParserOptions DEFAULT =
+            new ParserOptions(false, null, FunctionRegistry.DEFAULT, ErrorPolicy.THROW);
+
+    private final boolean optimize;
+    private final MathContext mathContext;
+    private final FunctionRegistry functions;
+    private final ErrorPolicy errorPolicy;
+
+    private ParserOptions(boolean optimize, MathContext mathContext, FunctionRegistry functions,
+                          ErrorPolicy errorPolicy) {
+        this.optimize = optimize;
+        this.mathContext = mathContext;
+        this.functions = functions;
+        this.errorPolicy = errorPolicy;
+    }
+
+    public ParserOptions withOptimization(boolean optimize) {
+        return new ParserOptions(optimize, mathContext, functions, errorPolicy);
+    }
+
+    public ParserOptions withMathContext(MathContext mathContext) {
+        if (mathContext != null && mathContext.getPrecision() == 0) {
+            throw new IllegalArgumentException("MathContext precision must be positive");
+        }
+        return new ParserOptions(optimize, mathContext, functions, errorPolicy);
+    }
+
+    public ParserOptions withFunctions(FunctionRegistry functions) {
+        if (functions == null) {
+            throw new IllegalArgumentException("Function registry cannot be null");
+        }
+        return new ParserOptions(optimize, mathContext, functions, errorPolicy);
+    }
+
+    public ParserOptions withErrorPolicy(ErrorPolicy errorPolicy) {
+        if (errorPolicy == null) {
+            throw new IllegalArgumentException("Error policy cannot be null");
+        }
+        return new ParserOptions(optimize, mathContext, functions, errorPolicy);
+    }
+
+    public boolean isOptimizationEnabled() {
+        return optimize;
+    }
+
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    public FunctionRegistry getFunctions() {
+        return functions;
+    }
+
+    public ErrorPolicy getErrorPolicy() {
+        return errorPolicy;
+    }
+}
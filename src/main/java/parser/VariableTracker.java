@@ -2,6 +2,7 @@ package parser;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.ObjIntConsumer;
 
 class VariableTracker {
     private final Map<String, Integer> variableIndices = new HashMap<>();
@@ -14,4 +15,8 @@ class VariableTracker {
     public int getTotalVariables() {
         return nextIndex;
     }
+
+    public void forEach(ObjIntConsumer<String> action) {
+        variableIndices.forEach(action::accept);
+    }
 }
\ No newline at end of file
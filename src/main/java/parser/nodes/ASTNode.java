@@ -2,6 +2,12 @@ package parser.nodes;
 
 import function.MathFunction;
 
+import java.math.MathContext;
+
 public interface ASTNode {
-    MathFunction toMathFunction();
+    default MathFunction toMathFunction() {
+        return toMathFunction(null);
+    }
+
+    MathFunction toMathFunction(MathContext mathContext);
 }
\ No newline at end of file
@@ -1,10 +1,20 @@
 package parser.nodes;
 
 
+import function.BigDecimalMath;
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.GradientBuffers;
+import function.IntegerPower;
+import function.Interval;
+import function.IntervalMath;
 import function.MathFunction;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.Arrays;
 
 public class BinaryOperationNode implements ASTNode {
     private final String operator;
@@ -19,16 +29,39 @@ public class BinaryOperationNode implements ASTNode {
         this.varCount = varCount;
     }
 
+    public String getOperator() {
+        return operator;
+    }
+
+    public ASTNode getLeft() {
+        return left;
+    }
+
+    public ASTNode getRight() {
+        return right;
+    }
+
+    public int getVarCount() {
+        return varCount;
+    }
+
     @Override
-    public MathFunction toMathFunction() {
-        MathFunction leftFunc = left.toMathFunction();
-        MathFunction rightFunc = right.toMathFunction();
+    public MathFunction toMathFunction(MathContext mathContext) {
+        MathFunction leftFunc = left.toMathFunction(mathContext);
+        if (operator.equals("^") && right instanceof NumberNode exponent
+                && IntegerPower.isReducible(exponent.getValue())) {
+            return integerPower(leftFunc, exponent.getValue(), mathContext);
+        }
+        MathFunction rightFunc = right.toMathFunction(mathContext);
 
         return new MathFunction(varCount) {
             @Override
             public BigDecimal calculate(BigDecimal[] values) {
                 BigDecimal leftVal = leftFunc.calculate(values);
                 BigDecimal rightVal = rightFunc.calculate(values);
+                if (mathContext != null) {
+                    return calculateExact(operator, leftVal, rightVal, mathContext);
+                }
 
                 return switch (operator) {
                     case "+" -> leftVal.add(rightVal);
@@ -41,6 +74,7 @@ public class BinaryOperationNode implements ASTNode {
                         yield leftVal.divide(rightVal, 20, RoundingMode.HALF_UP);
                     }
                     case "%" -> leftVal.remainder(rightVal);
+                    case "<", "<=", ">", ">=", "==", "!=" -> compareExact(operator, leftVal, rightVal);
                     case "^" -> {
                         double leftDouble = leftVal.doubleValue();
                         double rightDouble = rightVal.doubleValue();
@@ -52,6 +86,355 @@ public class BinaryOperationNode implements ASTNode {
                     default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
                 };
             }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return calculateDouble(values, EvaluationStatus.THROW);
+            }
+
+            @Override
+            public double calculateDouble(double[] values, EvaluationStatus status) {
+                double leftVal = leftFunc.calculateDouble(values, status);
+                double rightVal = rightFunc.calculateDouble(values, status);
+
+                return switch (operator) {
+                    case "+" -> leftVal + rightVal;
+                    case "-" -> leftVal - rightVal;
+                    case "*" -> leftVal * rightVal;
+                    case "/" -> {
+                        if (rightVal == 0) {
+                            status.fail(EvaluationError.DIVISION_BY_ZERO);
+                            yield Double.NaN;
+                        }
+                        yield leftVal / rightVal;
+                    }
+                    case "%" -> {
+                        if (rightVal == 0) {
+                            status.fail(EvaluationError.DIVISION_BY_ZERO);
+                            yield Double.NaN;
+                        }
+                        yield leftVal % rightVal;
+                    }
+                    case "^" -> {
+                        if (leftVal < 0 && rightVal % 1 != 0) {
+                            status.fail(EvaluationError.FRACTIONAL_POWER_OF_NEGATIVE);
+                            yield Double.NaN;
+                        }
+                        yield Math.pow(leftVal, rightVal);
+                    }
+                    case "<", "<=", ">", ">=", "==", "!=" -> compare(operator, leftVal, rightVal);
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                };
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                calculateChunk(columns, offset, length, target, targetOffset, buffers, null, 0);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+                leftFunc.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors, errorOffset);
+                double[] right = buffers.acquire();
+                rightFunc.calculateChunk(columns, offset, length, right, 0, buffers, errors, errorOffset);
+
+                switch (operator) {
+                    case "+" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] += right[i];
+                        }
+                    }
+                    case "-" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] -= right[i];
+                        }
+                    }
+                    case "*" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] *= right[i];
+                        }
+                    }
+                    case "/" -> {
+                        requireNonZero(right, length, errors, errorOffset);
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] /= right[i];
+                        }
+                    }
+                    case "%" -> {
+                        requireNonZero(right, length, errors, errorOffset);
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] %= right[i];
+                        }
+                    }
+                    case "^" -> {
+                        for (int i = 0; i < length; i++) {
+                            if (target[targetOffset + i] < 0 && right[i] % 1 != 0) {
+                                EvaluationError.report(errors, errorOffset + i,
+                                        EvaluationError.FRACTIONAL_POWER_OF_NEGATIVE);
+                                right[i] = Double.NaN;
+                            }
+                        }
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] = Math.pow(target[targetOffset + i], right[i]);
+                        }
+                    }
+                    case "<" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] = target[targetOffset + i] < right[i] ? 1 : 0;
+                        }
+                    }
+                    case "<=" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] = target[targetOffset + i] <= right[i] ? 1 : 0;
+                        }
+                    }
+                    case ">" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] = target[targetOffset + i] > right[i] ? 1 : 0;
+                        }
+                    }
+                    case ">=" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] = target[targetOffset + i] >= right[i] ? 1 : 0;
+                        }
+                    }
+                    case "==" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] = target[targetOffset + i] == right[i] ? 1 : 0;
+                        }
+                    }
+                    case "!=" -> {
+                        for (int i = 0; i < length; i++) {
+                            target[targetOffset + i] = target[targetOffset + i] != right[i] ? 1 : 0;
+                        }
+                    }
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                }
+                buffers.release();
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                double leftVal = leftFunc.calculateDual(values, gradient, buffers);
+                double[] right = buffers.acquire();
+                double rightVal = rightFunc.calculateDual(values, right, buffers);
+                int width = buffers.width();
+
+                double result;
+                switch (operator) {
+                    case "+" -> {
+                        result = leftVal + rightVal;
+                        for (int i = 0; i < width; i++) {
+                            gradient[i] += right[i];
+                        }
+                    }
+                    case "-" -> {
+                        result = leftVal - rightVal;
+                        for (int i = 0; i < width; i++) {
+                            gradient[i] -= right[i];
+                        }
+                    }
+                    case "*" -> {
+                        result = leftVal * rightVal;
+                        for (int i = 0; i < width; i++) {
+                            gradient[i] = gradient[i] * rightVal + leftVal * right[i];
+                        }
+                    }
+                    case "/" -> {
+                        if (rightVal == 0) {
+                            throw new ArithmeticException("Division by zero");
+                        }
+                        result = leftVal / rightVal;
+                        for (int i = 0; i < width; i++) {
+                            gradient[i] = (gradient[i] - result * right[i]) / rightVal;
+                        }
+                    }
+                    case "%" -> {
+                        if (rightVal == 0) {
+                            throw new ArithmeticException("Division by zero");
+                        }
+                        result = leftVal % rightVal;
+                        double quotient = (leftVal - result) / rightVal;
+                        for (int i = 0; i < width; i++) {
+                            gradient[i] -= quotient * right[i];
+                        }
+                    }
+                    case "^" -> {
+                        if (leftVal < 0 && rightVal % 1 != 0) {
+                            throw new ArithmeticException("Negative base with fractional exponent is not real");
+                        }
+                        result = Math.pow(leftVal, rightVal);
+                        double baseSlope = rightVal * Math.pow(leftVal, rightVal - 1);
+                        double exponentSlope = result * Math.log(leftVal);
+                        for (int i = 0; i < width; i++) {
+                            gradient[i] = (gradient[i] == 0 ? 0 : baseSlope * gradient[i])
+                                    + (right[i] == 0 ? 0 : exponentSlope * right[i]);
+                        }
+                    }
+                    case "<", "<=", ">", ">=", "==", "!=" -> {
+                        result = compare(operator, leftVal, rightVal);
+                        Arrays.fill(gradient, 0, width, 0);
+                    }
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                }
+                buffers.release();
+                return result;
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                Interval leftVal = leftFunc.calculateInterval(values);
+                Interval rightVal = rightFunc.calculateInterval(values);
+
+                return switch (operator) {
+                    case "+" -> IntervalMath.add(leftVal, rightVal);
+                    case "-" -> IntervalMath.subtract(leftVal, rightVal);
+                    case "*" -> IntervalMath.multiply(leftVal, rightVal);
+                    case "/" -> IntervalMath.divide(leftVal, rightVal);
+                    case "%" -> IntervalMath.remainder(leftVal, rightVal);
+                    case "^" -> IntervalMath.pow(leftVal, rightVal);
+                    case "<" -> IntervalMath.less(leftVal, rightVal);
+                    case "<=" -> IntervalMath.lessOrEqual(leftVal, rightVal);
+                    case ">" -> IntervalMath.greater(leftVal, rightVal);
+                    case ">=" -> IntervalMath.greaterOrEqual(leftVal, rightVal);
+                    case "==" -> IntervalMath.equal(leftVal, rightVal);
+                    case "!=" -> IntervalMath.notEqual(leftVal, rightVal);
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                };
+            }
         };
     }
+
+    private MathFunction integerPower(MathFunction baseFunc, BigDecimal exponentValue, MathContext mathContext) {
+        int exponent = exponentValue.intValueExact();
+        Interval exponentInterval = Interval.point(exponent);
+
+        return new MathFunction(varCount) {
+            @Override
+            public BigDecimal calculate(BigDecimal[] values) {
+                BigDecimal base = baseFunc.calculate(values);
+                if (mathContext != null) {
+                    return calculateExact("^", base, exponentValue, mathContext);
+                }
+                return IntegerPower.pow(base, exponent);
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return IntegerPower.pow(baseFunc.calculateDouble(values), exponent);
+            }
+
+            @Override
+            public double calculateDouble(double[] values, EvaluationStatus status) {
+                return IntegerPower.pow(baseFunc.calculateDouble(values, status), exponent);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                calculateChunk(columns, offset, length, target, targetOffset, buffers, null, 0);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+                baseFunc.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors, errorOffset);
+                int end = targetOffset + length;
+
+                switch (exponent) {
+                    case 2 -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] *= target[i];
+                        }
+                    }
+                    case 3 -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = target[i] * target[i] * target[i];
+                        }
+                    }
+                    default -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = IntegerPower.pow(target[i], exponent);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                double base = baseFunc.calculateDual(values, gradient, buffers);
+                double slope = exponent == 0 ? 0 : exponent * IntegerPower.pow(base, exponent - 1);
+                for (int i = 0; i < buffers.width(); i++) {
+                    if (gradient[i] != 0) {
+                        gradient[i] *= slope;
+                    }
+                }
+                return IntegerPower.pow(base, exponent);
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                return IntervalMath.pow(baseFunc.calculateInterval(values), exponentInterval);
+            }
+        };
+    }
+
+    private static BigDecimal calculateExact(String operator, BigDecimal leftVal, BigDecimal rightVal,
+                                             MathContext mathContext) {
+        return switch (operator) {
+            case "+" -> BigDecimalMath.add(leftVal, rightVal, mathContext);
+            case "-" -> BigDecimalMath.subtract(leftVal, rightVal, mathContext);
+            case "*" -> BigDecimalMath.multiply(leftVal, rightVal, mathContext);
+            case "/" -> BigDecimalMath.divide(leftVal, rightVal, mathContext);
+            case "%" -> BigDecimalMath.remainder(leftVal, rightVal, mathContext);
+            case "^" -> BigDecimalMath.pow(leftVal, rightVal, mathContext);
+            case "<", "<=", ">", ">=", "==", "!=" -> compareExact(operator, leftVal, rightVal);
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+        };
+    }
+
+    public static boolean isComparison(String operator) {
+        return switch (operator) {
+            case "<", "<=", ">", ">=", "==", "!=" -> true;
+            default -> false;
+        };
+    }
+
+    private static BigDecimal compareExact(String operator, BigDecimal leftVal, BigDecimal rightVal) {
+        int comparison = leftVal.compareTo(rightVal);
+        boolean result = switch (operator) {
+            case "<" -> comparison < 0;
+            case "<=" -> comparison <= 0;
+            case ">" -> comparison > 0;
+            case ">=" -> comparison >= 0;
+            case "==" -> comparison == 0;
+            case "!=" -> comparison != 0;
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+        };
+        return result ? BigDecimal.ONE : BigDecimal.ZERO;
+    }
+
+    private static double compare(String operator, double leftVal, double rightVal) {
+        boolean result = switch (operator) {
+            case "<" -> leftVal < rightVal;
+            case "<=" -> leftVal <= rightVal;
+            case ">" -> leftVal > rightVal;
+            case ">=" -> leftVal >= rightVal;
+            case "==" -> leftVal == rightVal;
+            case "!=" -> leftVal != rightVal;
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+        };
+        return result ? 1 : 0;
+    }
+
+    private static void requireNonZero(double[] values, int length, EvaluationError[] errors, int errorOffset) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == 0) {
+                EvaluationError.report(errors, errorOffset + i, EvaluationError.DIVISION_BY_ZERO);
+                values[i] = Double.NaN;
+            }
+        }
+    }
 }
\ No newline at end of file
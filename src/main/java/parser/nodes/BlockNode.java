@@ -0,0 +1,158 @@
+package parser.nodes;
+
+
+import function.ArgumentBuffers;
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.GradientBuffers;
+import function.Interval;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+public class BlockNode implements ASTNode {
+    private final List<ASTNode> bindings;
+    private final ASTNode result;
+    private final String[] variableNames;
+
+    public BlockNode(List<ASTNode> bindings, ASTNode result, String[] variableNames) {
+        this.bindings = List.copyOf(bindings);
+        this.result = result;
+        this.variableNames = variableNames.clone();
+    }
+
+    public List<ASTNode> getBindings() {
+        return bindings;
+    }
+
+    public ASTNode getResult() {
+        return result;
+    }
+
+    public int getVarCount() {
+        return variableNames.length;
+    }
+
+    public int getSlotIndex(int binding) {
+        return variableNames.length + binding;
+    }
+
+    @Override
+    public MathFunction toMathFunction(MathContext mathContext) {
+        MathFunction[] bindingFuncs = bindings.stream().map(binding -> binding.toMathFunction(mathContext)).toArray(MathFunction[]::new);
+        MathFunction resultFunc = result.toMathFunction(mathContext);
+        int varCount = variableNames.length;
+        int frameSize = varCount + bindingFuncs.length;
+
+        return new MathFunction(resultFunc.getVarNumber()) {
+            @Override
+            public BigDecimal calculate(BigDecimal[] values) {
+                requireValues(values.length);
+                ArgumentBuffers frames = ArgumentBuffers.get();
+                BigDecimal[] frame = frames.acquireDecimals(frameSize);
+                try {
+                    System.arraycopy(values, 0, frame, 0, varCount);
+                    for (int i = 0; i < bindingFuncs.length; i++) {
+                        frame[varCount + i] = bindingFuncs[i].calculate(frame);
+                    }
+                    return resultFunc.calculate(frame);
+                } finally {
+                    frames.release(frame);
+                }
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return calculateDouble(values, EvaluationStatus.THROW);
+            }
+
+            @Override
+            public double calculateDouble(double[] values, EvaluationStatus status) {
+                requireValues(values.length);
+                ArgumentBuffers frames = ArgumentBuffers.get();
+                double[] frame = frames.acquire(frameSize);
+                try {
+                    System.arraycopy(values, 0, frame, 0, varCount);
+                    for (int i = 0; i < bindingFuncs.length; i++) {
+                        frame[varCount + i] = bindingFuncs[i].calculateDouble(frame, status);
+                    }
+                    return resultFunc.calculateDouble(frame, status);
+                } finally {
+                    frames.release();
+                }
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                calculateChunk(columns, offset, length, target, targetOffset, buffers, null, 0);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+                requireValues(columns.length);
+                double[][] frame = buffers.acquireColumns(frameSize);
+                try {
+                    for (int i = 0; i < varCount; i++) {
+                        frame[i] = buffers.acquire();
+                        System.arraycopy(columns[i], offset, frame[i], 0, length);
+                    }
+                    for (int i = 0; i < bindingFuncs.length; i++) {
+                        frame[varCount + i] = buffers.acquire();
+                        bindingFuncs[i].calculateChunk(frame, 0, length, frame[varCount + i], 0, buffers, errors,
+                                errorOffset);
+                    }
+                    resultFunc.calculateChunk(frame, 0, length, target, targetOffset, buffers, errors, errorOffset);
+                    for (int i = 0; i < frameSize; i++) {
+                        buffers.release();
+                    }
+                } finally {
+                    buffers.releaseColumns(frame);
+                }
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                requireValues(values.length);
+                double[] frame = buffers.frame(frameSize);
+                System.arraycopy(values, 0, frame, 0, varCount);
+                for (int i = 0; i < bindingFuncs.length; i++) {
+                    double[] slotGradient = buffers.acquire();
+                    frame[varCount + i] = bindingFuncs[i].calculateDual(frame, slotGradient, buffers);
+                    buffers.bindSlot(varCount + i, slotGradient);
+                }
+                double result = resultFunc.calculateDual(frame, gradient, buffers);
+                for (int i = 0; i < bindingFuncs.length; i++) {
+                    buffers.release();
+                }
+                return result;
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                requireValues(values.length);
+                ArgumentBuffers frames = ArgumentBuffers.get();
+                Interval[] frame = frames.acquireIntervals(frameSize);
+                try {
+                    System.arraycopy(values, 0, frame, 0, varCount);
+                    for (int i = 0; i < bindingFuncs.length; i++) {
+                        frame[varCount + i] = bindingFuncs[i].calculateInterval(frame);
+                    }
+                    return resultFunc.calculateInterval(frame);
+                } finally {
+                    frames.release(frame);
+                }
+            }
+        };
+    }
+
+    private void requireValues(int provided) {
+        if (provided < variableNames.length) {
+            throw new IllegalArgumentException("Not enough values provided for variable " + variableNames[provided]);
+        }
+    }
+}
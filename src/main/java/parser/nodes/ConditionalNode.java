@@ -0,0 +1,150 @@
+package parser.nodes;
+
+
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.GradientBuffers;
+import function.Interval;
+import function.IntervalMath;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+public class ConditionalNode implements ASTNode {
+    private final ASTNode condition;
+    private final ASTNode thenBranch;
+    private final ASTNode elseBranch;
+    private final int varCount;
+
+    public ConditionalNode(ASTNode condition, ASTNode thenBranch, ASTNode elseBranch, int varCount) {
+        this.condition = condition;
+        this.thenBranch = thenBranch;
+        this.elseBranch = elseBranch;
+        this.varCount = varCount;
+    }
+
+    public ASTNode getCondition() {
+        return condition;
+    }
+
+    public ASTNode getThenBranch() {
+        return thenBranch;
+    }
+
+    public ASTNode getElseBranch() {
+        return elseBranch;
+    }
+
+    public int getVarCount() {
+        return varCount;
+    }
+
+    @Override
+    public MathFunction toMathFunction(MathContext mathContext) {
+        MathFunction conditionFunc = condition.toMathFunction(mathContext);
+        MathFunction thenFunc = thenBranch.toMathFunction(mathContext);
+        MathFunction elseFunc = elseBranch.toMathFunction(mathContext);
+
+        return new MathFunction(varCount) {
+            @Override
+            public BigDecimal calculate(BigDecimal[] values) {
+                return conditionFunc.calculate(values).signum() != 0
+                        ? thenFunc.calculate(values)
+                        : elseFunc.calculate(values);
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return calculateDouble(values, EvaluationStatus.THROW);
+            }
+
+            @Override
+            public double calculateDouble(double[] values, EvaluationStatus status) {
+                return conditionFunc.calculateDouble(values, status) != 0
+                        ? thenFunc.calculateDouble(values, status)
+                        : elseFunc.calculateDouble(values, status);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                calculateChunk(columns, offset, length, target, targetOffset, buffers, null, 0);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+                conditionFunc.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors,
+                        errorOffset);
+                int taken = 0;
+                for (int i = 0; i < length; i++) {
+                    taken += target[targetOffset + i] != 0 ? 1 : 0;
+                }
+                if (taken == length || taken == 0) {
+                    MathFunction branch = taken == 0 ? elseFunc : thenFunc;
+                    branch.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors, errorOffset);
+                    return;
+                }
+
+                double[] thenValues = buffers.acquire();
+                double[] elseValues = buffers.acquire();
+                EvaluationError[] thenErrors = buffers.acquireErrors(length);
+                EvaluationError[] elseErrors = buffers.acquireErrors(length);
+                thenFunc.calculateChunk(columns, offset, length, thenValues, 0, buffers, thenErrors, 0);
+                elseFunc.calculateChunk(columns, offset, length, elseValues, 0, buffers, elseErrors, 0);
+                for (int i = 0; i < length; i++) {
+                    boolean selected = target[targetOffset + i] != 0;
+                    target[targetOffset + i] = selected ? thenValues[i] : elseValues[i];
+                    thenErrors[i] = selected ? thenErrors[i] : elseErrors[i];
+                }
+
+                EvaluationError failure = null;
+                for (int i = 0; i < length && failure == null; i++) {
+                    if (thenErrors[i] != null) {
+                        if (errors == null) {
+                            failure = thenErrors[i];
+                        } else {
+                            EvaluationError.report(errors, errorOffset + i, thenErrors[i]);
+                        }
+                    }
+                }
+                buffers.releaseErrors();
+                buffers.releaseErrors();
+                buffers.release();
+                buffers.release();
+                if (failure != null) {
+                    throw new ArithmeticException(failure.getMessage());
+                }
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                double[] conditionGradient = buffers.acquire();
+                double selector = conditionFunc.calculateDual(values, conditionGradient, buffers);
+                buffers.release();
+                return selector != 0
+                        ? thenFunc.calculateDual(values, gradient, buffers)
+                        : elseFunc.calculateDual(values, gradient, buffers);
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                Interval selector = conditionFunc.calculateInterval(values);
+                if (!selector.containsZero()) {
+                    return withDomainError(thenFunc.calculateInterval(values), selector.domainError());
+                }
+                if (selector.isPoint()) {
+                    return withDomainError(elseFunc.calculateInterval(values), selector.domainError());
+                }
+                return withDomainError(IntervalMath.hull(thenFunc.calculateInterval(values),
+                        elseFunc.calculateInterval(values)), selector.domainError());
+            }
+        };
+    }
+
+    private static Interval withDomainError(Interval value, boolean domainError) {
+        return domainError && !value.domainError() ? new Interval(value.low(), value.high(), true) : value;
+    }
+}
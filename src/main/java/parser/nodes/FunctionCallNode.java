@@ -0,0 +1,190 @@
+package parser.nodes;
+
+
+import function.ArgumentBuffers;
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.FunctionDefinition;
+import function.GradientBuffers;
+import function.Interval;
+import function.MathFunction;
+import function.NativeFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.List;
+
+public class FunctionCallNode implements ASTNode {
+    private final FunctionDefinition function;
+    private final List<ASTNode> arguments;
+    private final int varCount;
+
+    public FunctionCallNode(FunctionDefinition function, List<ASTNode> arguments, int varCount) {
+        function.checkArguments(arguments.size());
+        this.function = function;
+        this.arguments = List.copyOf(arguments);
+        this.varCount = varCount;
+    }
+
+    public FunctionDefinition getFunction() {
+        return function;
+    }
+
+    public List<ASTNode> getArguments() {
+        return arguments;
+    }
+
+    public int getVarCount() {
+        return varCount;
+    }
+
+    @Override
+    public MathFunction toMathFunction(MathContext mathContext) {
+        MathFunction[] argumentFuncs = arguments.stream()
+                .map(argument -> argument.toMathFunction(mathContext))
+                .toArray(MathFunction[]::new);
+        NativeFunction implementation = function.implementation();
+        int arity = argumentFuncs.length;
+
+        return new MathFunction(varCount) {
+            @Override
+            public BigDecimal calculate(BigDecimal[] values) {
+                ArgumentBuffers buffers = ArgumentBuffers.get();
+                BigDecimal[] args = buffers.acquireDecimals(arity);
+                try {
+                    for (int i = 0; i < arity; i++) {
+                        args[i] = argumentFuncs[i].calculate(values);
+                    }
+                    return implementation.calculate(args, mathContext);
+                } finally {
+                    buffers.release(args);
+                }
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                ArgumentBuffers buffers = ArgumentBuffers.get();
+                double[] args = buffers.acquire(arity);
+                try {
+                    for (int i = 0; i < arity; i++) {
+                        args[i] = argumentFuncs[i].calculateDouble(values);
+                    }
+                    return implementation.calculateDouble(args);
+                } finally {
+                    buffers.release();
+                }
+            }
+
+            @Override
+            public double calculateDouble(double[] values, EvaluationStatus status) {
+                ArgumentBuffers buffers = ArgumentBuffers.get();
+                double[] args = buffers.acquire(arity);
+                try {
+                    for (int i = 0; i < arity; i++) {
+                        args[i] = argumentFuncs[i].calculateDouble(values, status);
+                    }
+                    return implementation.calculateDouble(args);
+                } catch (ArithmeticException e) {
+                    status.fail(EvaluationError.of(e.getMessage()), e.getMessage());
+                    return Double.NaN;
+                } finally {
+                    buffers.release();
+                }
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                calculateChunk(columns, offset, length, target, targetOffset, buffers, null, 0);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+                double[][] argumentColumns = buffers.acquireColumns(arity);
+                ArgumentBuffers arguments = ArgumentBuffers.get();
+                double[] args = arguments.acquire(arity);
+                try {
+                    for (int i = 0; i < arity; i++) {
+                        argumentColumns[i] = buffers.acquire();
+                        argumentFuncs[i].calculateChunk(columns, offset, length, argumentColumns[i], 0, buffers,
+                                errors, errorOffset);
+                    }
+                    for (int row = 0; row < length; row++) {
+                        for (int i = 0; i < arity; i++) {
+                            args[i] = argumentColumns[i][row];
+                        }
+                        if (errors == null) {
+                            target[targetOffset + row] = implementation.calculateDouble(args);
+                            continue;
+                        }
+                        try {
+                            target[targetOffset + row] = implementation.calculateDouble(args);
+                        } catch (ArithmeticException e) {
+                            EvaluationError.report(errors, errorOffset + row, EvaluationError.of(e.getMessage()));
+                            target[targetOffset + row] = Double.NaN;
+                        }
+                    }
+                    for (int i = 0; i < arity; i++) {
+                        buffers.release();
+                    }
+                } finally {
+                    arguments.release();
+                    buffers.releaseColumns(argumentColumns);
+                }
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                if (!function.differentiable()) {
+                    throw new UnsupportedOperationException(
+                            "Function %s does not define partial derivatives".formatted(function.name()));
+                }
+                int width = buffers.width();
+                double[][] argumentGradients = buffers.acquireRows(arity);
+                ArgumentBuffers arguments = ArgumentBuffers.get();
+                double[] args = arguments.acquire(arity);
+                try {
+                    for (int i = 0; i < arity; i++) {
+                        argumentGradients[i] = buffers.acquire();
+                        args[i] = argumentFuncs[i].calculateDual(values, argumentGradients[i], buffers);
+                    }
+                    Arrays.fill(gradient, 0, width, 0);
+                    for (int i = 0; i < arity; i++) {
+                        double partial = function.partial(args, i);
+                        if (partial == 0) {
+                            continue;
+                        }
+                        double[] argumentGradient = argumentGradients[i];
+                        for (int j = 0; j < width; j++) {
+                            gradient[j] += partial * argumentGradient[j];
+                        }
+                    }
+                    return implementation.calculateDouble(args);
+                } finally {
+                    arguments.release();
+                    for (int i = 0; i < arity && argumentGradients[i] != null; i++) {
+                        buffers.release();
+                    }
+                    buffers.releaseRows(argumentGradients);
+                }
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                ArgumentBuffers arguments = ArgumentBuffers.get();
+                Interval[] args = arguments.acquireIntervals(arity);
+                try {
+                    for (int i = 0; i < arity; i++) {
+                        args[i] = argumentFuncs[i].calculateInterval(values);
+                    }
+                    return function.calculateInterval(args);
+                } finally {
+                    arguments.release(args);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package parser.nodes;
+
+
+import function.ArgumentBuffers;
+import function.MathFunction;
+import function.MultiMathFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+public class MultiBlockNode {
+    private final List<ASTNode> bindings;
+    private final List<ASTNode> results;
+    private final String[] variableNames;
+
+    public MultiBlockNode(List<ASTNode> bindings, List<ASTNode> results, String[] variableNames) {
+        this.bindings = List.copyOf(bindings);
+        this.results = List.copyOf(results);
+        this.variableNames = variableNames.clone();
+    }
+
+    public List<ASTNode> getBindings() {
+        return bindings;
+    }
+
+    public List<ASTNode> getResults() {
+        return results;
+    }
+
+    public String[] getVariableNames() {
+        return variableNames.clone();
+    }
+
+    public int getVarCount() {
+        return variableNames.length;
+    }
+
+    public int getSlotIndex(int binding) {
+        return variableNames.length + binding;
+    }
+
+    public MultiMathFunction toMultiMathFunction() {
+        return toMultiMathFunction(null);
+    }
+
+    public MultiMathFunction toMultiMathFunction(MathContext mathContext) {
+        MathFunction[] bindingFuncs = bindings.stream().map(binding -> binding.toMathFunction(mathContext))
+                .toArray(MathFunction[]::new);
+        MathFunction[] resultFuncs = results.stream().map(result -> result.toMathFunction(mathContext))
+                .toArray(MathFunction[]::new);
+        int varCount = variableNames.length;
+        int frameSize = varCount + bindingFuncs.length;
+
+        return new MultiMathFunction(varCount, resultFuncs.length) {
+            @Override
+            public void calculate(BigDecimal[] values, BigDecimal[] out) {
+                requireValues(values.length, out.length);
+                ArgumentBuffers frames = ArgumentBuffers.get();
+                BigDecimal[] frame = frames.acquireDecimals(frameSize);
+                try {
+                    System.arraycopy(values, 0, frame, 0, varCount);
+                    for (int i = 0; i < bindingFuncs.length; i++) {
+                        frame[varCount + i] = bindingFuncs[i].calculate(frame);
+                    }
+                    for (int i = 0; i < resultFuncs.length; i++) {
+                        out[i] = resultFuncs[i].calculate(frame);
+                    }
+                } finally {
+                    frames.release(frame);
+                }
+            }
+
+            @Override
+            public void calculateDouble(double[] values, double[] out) {
+                requireValues(values.length, out.length);
+                ArgumentBuffers frames = ArgumentBuffers.get();
+                double[] frame = frames.acquire(frameSize);
+                try {
+                    System.arraycopy(values, 0, frame, 0, varCount);
+                    for (int i = 0; i < bindingFuncs.length; i++) {
+                        frame[varCount + i] = bindingFuncs[i].calculateDouble(frame);
+                    }
+                    for (int i = 0; i < resultFuncs.length; i++) {
+                        out[i] = resultFuncs[i].calculateDouble(frame);
+                    }
+                } finally {
+                    frames.release();
+                }
+            }
+        };
+    }
+
+    private void requireValues(int provided, int outputs) {
+        if (provided < variableNames.length) {
+            throw new IllegalArgumentException("Not enough values provided for variable " + variableNames[provided]);
+        }
+        if (outputs < results.size()) {
+            throw new IllegalArgumentException("Output has fewer than %d slots".formatted(results.size()));
+        }
+    }
+}
@@ -1,24 +1,99 @@
 package parser.nodes;
 
 
+import function.BigDecimalMath;
+import function.ChunkBuffers;
+import function.GradientBuffers;
+import function.Interval;
 import function.MathFunction;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
 
 public class NumberNode implements ASTNode {
     private final BigDecimal value;
+    private final double doubleValue;
+    private final String constant;
 
     public NumberNode(BigDecimal value) {
+        this(value, null);
+    }
+
+    private NumberNode(BigDecimal value, String constant) {
         this.value = value;
+        this.doubleValue = value.doubleValue();
+        this.constant = constant;
+    }
+
+    public static NumberNode e() {
+        return new NumberNode(BigDecimal.valueOf(Math.E), "e");
+    }
+
+    public static NumberNode pi() {
+        return new NumberNode(BigDecimal.valueOf(Math.PI), "pi");
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public double getDoubleValue() {
+        return doubleValue;
+    }
+
+    public String getConstant() {
+        return constant;
     }
 
     @Override
-    public MathFunction toMathFunction() {
+    public MathFunction toMathFunction(MathContext mathContext) {
+        BigDecimal exact = exactValue(mathContext);
+        Interval enclosure = constant == null && new BigDecimal(doubleValue).compareTo(value) == 0
+                ? Interval.point(doubleValue)
+                : Interval.of(Math.nextDown(doubleValue), Math.nextUp(doubleValue));
+
         return new MathFunction(0) {
             @Override
             public BigDecimal calculate(BigDecimal[] values) {
-                return value;
+                return exact;
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return doubleValue;
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                Arrays.fill(target, targetOffset, targetOffset + length, doubleValue);
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                Arrays.fill(gradient, 0, buffers.width(), 0);
+                return doubleValue;
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                return enclosure;
             }
         };
     }
-}
\ No newline at end of file
+
+    private BigDecimal exactValue(MathContext mathContext) {
+        if (mathContext == null) {
+            return value;
+        }
+        if (constant == null || mathContext.getPrecision() == 0) {
+            return value.round(mathContext);
+        }
+        return switch (constant) {
+            case "e" -> BigDecimalMath.exp(BigDecimal.ONE, mathContext);
+            case "pi" -> BigDecimalMath.pi(mathContext);
+            default -> throw new IllegalStateException("Unknown constant: " + constant);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package parser.nodes;
+
+
+import function.ChunkBuffers;
+import function.GradientBuffers;
+import function.Interval;
+import function.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+public record SlotNode(int index) implements ASTNode {
+
+    @Override
+    public MathFunction toMathFunction(MathContext mathContext) {
+        return new MathFunction(1) {
+            @Override
+            public BigDecimal calculate(BigDecimal[] values) {
+                return values[index];
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return values[index];
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                System.arraycopy(columns[index], offset, target, targetOffset, length);
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                System.arraycopy(buffers.slot(index), 0, gradient, 0, buffers.width());
+                return values[index];
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                return values[index];
+            }
+        };
+    }
+}
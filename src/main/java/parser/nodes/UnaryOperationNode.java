@@ -1,11 +1,21 @@
 package parser.nodes;
 
 
+import function.BigDecimalMath;
+import function.ChunkBuffers;
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.GradientBuffers;
+import function.Interval;
+import function.IntervalMath;
 import function.MathFunction;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 
 public class UnaryOperationNode implements ASTNode {
+    private static final double LN_10 = Math.log(10);
+
     private final String operator;
     private final ASTNode operand;
 
@@ -14,14 +24,25 @@ public class UnaryOperationNode implements ASTNode {
         this.operand = operand;
     }
 
+    public String getOperator() {
+        return operator;
+    }
+
+    public ASTNode getOperand() {
+        return operand;
+    }
+
     @Override
-    public MathFunction toMathFunction() {
-        MathFunction operandFunc = operand.toMathFunction();
+    public MathFunction toMathFunction(MathContext mathContext) {
+        MathFunction operandFunc = operand.toMathFunction(mathContext);
 
         return new MathFunction(operandFunc.getVarNumber()) {
             @Override
             public BigDecimal calculate(BigDecimal[] values) {
                 BigDecimal val = operandFunc.calculate(values);
+                if (mathContext != null) {
+                    return calculateExact(operator, val, mathContext);
+                }
 
                 return switch (operator) {
                     case "-" -> val.negate();
@@ -47,6 +68,206 @@ public class UnaryOperationNode implements ASTNode {
                     default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
                 };
             }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return calculateDouble(values, EvaluationStatus.THROW);
+            }
+
+            @Override
+            public double calculateDouble(double[] values, EvaluationStatus status) {
+                double val = operandFunc.calculateDouble(values, status);
+
+                return switch (operator) {
+                    case "-" -> -val;
+                    case "sin" -> Math.sin(val);
+                    case "cos" -> Math.cos(val);
+                    case "tan" -> Math.tan(val);
+                    case "catan" -> Math.atan(val);
+                    case "sqrt" -> {
+                        if (val < 0) {
+                            status.fail(EvaluationError.NEGATIVE_SQUARE_ROOT);
+                            yield Double.NaN;
+                        }
+                        yield Math.sqrt(val);
+                    }
+                    case "ln", "lg" -> {
+                        if (val <= 0) {
+                            status.fail(EvaluationError.NON_POSITIVE_LOGARITHM);
+                            yield Double.NaN;
+                        }
+                        yield operator.equals("ln") ? Math.log(val) : Math.log10(val);
+                    }
+                    case "abs" -> Math.abs(val);
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                };
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                calculateChunk(columns, offset, length, target, targetOffset, buffers, null, 0);
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers, EvaluationError[] errors, int errorOffset) {
+                operandFunc.calculateChunk(columns, offset, length, target, targetOffset, buffers, errors, errorOffset);
+                int end = targetOffset + length;
+                int errorShift = errorOffset - targetOffset;
+
+                switch (operator) {
+                    case "-" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = -target[i];
+                        }
+                    }
+                    case "sin" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = Math.sin(target[i]);
+                        }
+                    }
+                    case "cos" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = Math.cos(target[i]);
+                        }
+                    }
+                    case "tan" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = Math.tan(target[i]);
+                        }
+                    }
+                    case "catan" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = Math.atan(target[i]);
+                        }
+                    }
+                    case "sqrt" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            if (target[i] < 0) {
+                                EvaluationError.report(errors, i + errorShift, EvaluationError.NEGATIVE_SQUARE_ROOT);
+                                target[i] = Double.NaN;
+                            }
+                        }
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = Math.sqrt(target[i]);
+                        }
+                    }
+                    case "ln", "lg" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            if (target[i] <= 0) {
+                                EvaluationError.report(errors, i + errorShift, EvaluationError.NON_POSITIVE_LOGARITHM);
+                                target[i] = Double.NaN;
+                            }
+                        }
+                        if (operator.equals("ln")) {
+                            for (int i = targetOffset; i < end; i++) {
+                                target[i] = Math.log(target[i]);
+                            }
+                        } else {
+                            for (int i = targetOffset; i < end; i++) {
+                                target[i] = Math.log10(target[i]);
+                            }
+                        }
+                    }
+                    case "abs" -> {
+                        for (int i = targetOffset; i < end; i++) {
+                            target[i] = Math.abs(target[i]);
+                        }
+                    }
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                }
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                double val = operandFunc.calculateDual(values, gradient, buffers);
+
+                double result;
+                double slope;
+                switch (operator) {
+                    case "-" -> {
+                        result = -val;
+                        slope = -1;
+                    }
+                    case "sin" -> {
+                        result = Math.sin(val);
+                        slope = Math.cos(val);
+                    }
+                    case "cos" -> {
+                        result = Math.cos(val);
+                        slope = -Math.sin(val);
+                    }
+                    case "tan" -> {
+                        double cos = Math.cos(val);
+                        result = Math.tan(val);
+                        slope = 1 / (cos * cos);
+                    }
+                    case "catan" -> {
+                        result = Math.atan(val);
+                        slope = 1 / (1 + val * val);
+                    }
+                    case "sqrt" -> {
+                        if (val < 0) {
+                            throw new ArithmeticException("Square root of negative number");
+                        }
+                        result = Math.sqrt(val);
+                        slope = 0.5 / result;
+                    }
+                    case "ln", "lg" -> {
+                        if (val <= 0) {
+                            throw new ArithmeticException("Logarithm of non-positive number");
+                        }
+                        result = operator.equals("ln") ? Math.log(val) : Math.log10(val);
+                        slope = operator.equals("ln") ? 1 / val : 1 / (val * LN_10);
+                    }
+                    case "abs" -> {
+                        result = Math.abs(val);
+                        slope = Math.signum(val);
+                    }
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                }
+
+                for (int i = 0; i < buffers.width(); i++) {
+                    if (gradient[i] != 0) {
+                        gradient[i] *= slope;
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
+                Interval val = operandFunc.calculateInterval(values);
+
+                return switch (operator) {
+                    case "-" -> IntervalMath.negate(val);
+                    case "sin" -> IntervalMath.sin(val);
+                    case "cos" -> IntervalMath.cos(val);
+                    case "tan" -> IntervalMath.tan(val);
+                    case "catan" -> IntervalMath.atan(val);
+                    case "sqrt" -> IntervalMath.sqrt(val);
+                    case "ln" -> IntervalMath.ln(val);
+                    case "lg" -> IntervalMath.lg(val);
+                    case "abs" -> IntervalMath.abs(val);
+                    default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
+                };
+            }
+        };
+    }
+
+    private static BigDecimal calculateExact(String operator, BigDecimal val, MathContext mathContext) {
+        return switch (operator) {
+            case "-" -> val.negate(mathContext);
+            case "sin" -> BigDecimalMath.sin(val, mathContext);
+            case "cos" -> BigDecimalMath.cos(val, mathContext);
+            case "tan" -> BigDecimalMath.tan(val, mathContext);
+            case "catan" -> BigDecimalMath.atan(val, mathContext);
+            case "sqrt" -> BigDecimalMath.sqrt(val, mathContext);
+            case "ln" -> BigDecimalMath.ln(val, mathContext);
+            case "lg" -> BigDecimalMath.lg(val, mathContext);
+            case "abs" -> val.abs(mathContext);
+            default -> throw new UnsupportedOperationException("Unknown operator: " + operator);
         };
     }
-}
\ No newline at end of file
+}
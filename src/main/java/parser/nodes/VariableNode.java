@@ -1,17 +1,59 @@
 package parser.nodes;
 
 
+import function.ChunkBuffers;
+import function.GradientBuffers;
+import function.Interval;
 import function.MathFunction;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
 
 public record VariableNode(String name, int index) implements ASTNode {
 
     @Override
-    public MathFunction toMathFunction() {
+    public MathFunction toMathFunction(MathContext mathContext) {
         return new MathFunction(1) {
             @Override
             public BigDecimal calculate(BigDecimal[] values) {
+                if (index >= values.length) {
+                    throw new IllegalArgumentException("Not enough values provided for variable " + name);
+                }
+                return mathContext == null ? values[index] : values[index].round(mathContext);
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                if (index >= values.length) {
+                    throw new IllegalArgumentException("Not enough values provided for variable " + name);
+                }
+                return values[index];
+            }
+
+            @Override
+            public void calculateChunk(double[][] columns, int offset, int length, double[] target, int targetOffset,
+                                       ChunkBuffers buffers) {
+                if (index >= columns.length) {
+                    throw new IllegalArgumentException("Not enough values provided for variable " + name);
+                }
+                System.arraycopy(columns[index], offset, target, targetOffset, length);
+            }
+
+            @Override
+            public double calculateDual(double[] values, double[] gradient, GradientBuffers buffers) {
+                if (index >= values.length) {
+                    throw new IllegalArgumentException("Not enough values provided for variable " + name);
+                }
+                Arrays.fill(gradient, 0, buffers.width(), 0);
+                if (index < buffers.width()) {
+                    gradient[index] = 1;
+                }
+                return values[index];
+            }
+
+            @Override
+            public Interval calculateInterval(Interval[] values) {
                 if (index >= values.length) {
                     throw new IllegalArgumentException("Not enough values provided for variable " + name);
                 }
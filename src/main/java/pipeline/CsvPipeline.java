@@ -0,0 +1,360 @@
+package pipeline;
+
+import evaluation.ParallelEvaluator;
+import function.MathFunction;
+import parser.Optimizer;
+import parser.Parser;
+import parser.ParserOptions;
+import parser.nodes.ASTNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+public final class CsvPipeline {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    public static final int DEFAULT_CHUNK_ROWS = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final MathFunction function;
+    private final String[] variableNames;
+    private final Executor executor;
+    private final byte delimiter;
+    private final int bufferSize;
+    private final int chunkRows;
+
+    public CsvPipeline(MathFunction function, String[] variableNames) {
+        this(function, variableNames.clone(), null, (byte) ',', DEFAULT_BUFFER_SIZE, DEFAULT_CHUNK_ROWS);
+        if (variableNames.length != function.getVarNumber()) {
+            throw new IllegalArgumentException("Expected %d variable names but got %d"
+                    .formatted(function.getVarNumber(), variableNames.length));
+        }
+    }
+
+    private CsvPipeline(MathFunction function, String[] variableNames, Executor executor, byte delimiter,
+                        int bufferSize, int chunkRows) {
+        this.function = function;
+        this.variableNames = variableNames;
+        this.executor = executor;
+        this.delimiter = delimiter;
+        this.bufferSize = bufferSize;
+        this.chunkRows = chunkRows;
+    }
+
+    public static CsvPipeline of(String expression) {
+        return of(expression, ParserOptions.DEFAULT);
+    }
+
+    public static CsvPipeline of(String expression, ParserOptions options) {
+        ASTNode tree = Parser.parseTree(expression, options);
+        String[] names = Optimizer.variableNames(tree);
+        if (options.isOptimizationEnabled()) {
+            tree = Optimizer.optimize(tree, options.getMathContext());
+        }
+        return new CsvPipeline(tree.toMathFunction(options.getMathContext()), names);
+    }
+
+    public CsvPipeline withExecutor(Executor executor) {
+        return new CsvPipeline(function, variableNames, executor, delimiter, bufferSize, chunkRows);
+    }
+
+    public CsvPipeline withDelimiter(char delimiter) {
+        if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r' || delimiter == '"') {
+            throw new IllegalArgumentException("Invalid delimiter: '" + delimiter + "'");
+        }
+        return new CsvPipeline(function, variableNames, executor, (byte) delimiter, bufferSize, chunkRows);
+    }
+
+    public CsvPipeline withBufferSize(int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64 bytes");
+        }
+        return new CsvPipeline(function, variableNames, executor, delimiter, bufferSize, chunkRows);
+    }
+
+    public CsvPipeline withChunkRows(int chunkRows) {
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("Chunk rows must be positive");
+        }
+        return new CsvPipeline(function, variableNames, executor, delimiter, bufferSize, chunkRows);
+    }
+
+    public Summary run(Path input, Path output) throws IOException {
+        try (FileChannel source = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return run(source, target);
+        }
+    }
+
+    public Summary run(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        return new Run(source, target).execute();
+    }
+
+    public record Summary(long rows, long errors) {
+    }
+
+    private final class Run {
+        private final ReadableByteChannel source;
+        private final WritableByteChannel target;
+        private final ByteBuffer input = ByteBuffer.allocateDirect(bufferSize);
+        private final ByteBuffer output = ByteBuffer.allocateDirect(bufferSize);
+        private final double[][] columns = new double[variableNames.length][chunkRows];
+        private final double[] results = new double[chunkRows];
+        private final StringBuilder formatted = new StringBuilder(32);
+        private final byte[] scratch = new byte[64];
+        private final ParallelEvaluator evaluator;
+        private int[] mapping;
+        private int rows;
+        private long line;
+        private long total;
+        private long errors;
+
+        private Run(ReadableByteChannel source, WritableByteChannel target) {
+            this.source = source;
+            this.target = target;
+            this.evaluator = executor == null
+                    ? new ParallelEvaluator(function, Runnable::run, chunkRows)
+                    : new ParallelEvaluator(function, executor, ParallelEvaluator.DEFAULT_BLOCK_SIZE);
+        }
+
+        private Summary execute() throws IOException {
+            write("result\n");
+            boolean eof = false;
+            while (!eof) {
+                eof = source.read(input) < 0;
+                input.flip();
+                int start = input.position();
+                for (int i = start; i < input.limit(); i++) {
+                    if (input.get(i) == '\n') {
+                        processLine(start, i);
+                        start = i + 1;
+                    }
+                }
+                if (eof && start < input.limit()) {
+                    processLine(start, input.limit());
+                    start = input.limit();
+                }
+                input.position(start);
+                input.compact();
+                if (!eof && !input.hasRemaining()) {
+                    throw new IllegalArgumentException("Line %d is longer than the %d byte buffer"
+                            .formatted(line + 1, bufferSize));
+                }
+            }
+            if (mapping == null) {
+                throw new IllegalArgumentException("Input has no header line");
+            }
+            flushChunk();
+            output.flip();
+            writeFully(output);
+            return new Summary(total, errors);
+        }
+
+        private void processLine(int start, int end) throws IOException {
+            line++;
+            if (end > start && input.get(end - 1) == '\r') {
+                end--;
+            }
+            if (mapping == null) {
+                mapping = mapHeader(start, end);
+                return;
+            }
+            if (isBlank(start, end)) {
+                return;
+            }
+
+            int column = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || input.get(i) == delimiter) {
+                    if (column >= mapping.length) {
+                        throw new IllegalArgumentException("Line %d has more than %d columns"
+                                .formatted(line, mapping.length));
+                    }
+                    if (mapping[column] >= 0) {
+                        columns[mapping[column]][rows] = parseNumber(fieldStart, i, column);
+                    }
+                    column++;
+                    fieldStart = i + 1;
+                }
+            }
+            if (column < mapping.length) {
+                throw new IllegalArgumentException("Line %d has %d columns, expected %d"
+                        .formatted(line, column, mapping.length));
+            }
+            if (++rows == chunkRows) {
+                flushChunk();
+            }
+        }
+
+        private int[] mapHeader(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            input.get(start, bytes);
+            String[] headers = new String(bytes, StandardCharsets.UTF_8).split(
+                    Pattern.quote(String.valueOf((char) delimiter)), -1);
+            int[] result = new int[headers.length];
+            boolean[] mapped = new boolean[variableNames.length];
+            for (int column = 0; column < headers.length; column++) {
+                String header = headers[column].strip().toLowerCase();
+                result[column] = -1;
+                for (int variable = 0; variable < variableNames.length; variable++) {
+                    if (variableNames[variable].equals(header)) {
+                        if (mapped[variable]) {
+                            throw new IllegalArgumentException("Duplicate column for variable " + header);
+                        }
+                        mapped[variable] = true;
+                        result[column] = variable;
+                    }
+                }
+            }
+            for (int variable = 0; variable < variableNames.length; variable++) {
+                if (!mapped[variable]) {
+                    throw new IllegalArgumentException("Missing column for variable " + variableNames[variable]);
+                }
+            }
+            return result;
+        }
+
+        private double parseNumber(int start, int end, int column) {
+            while (start < end && isSpace(input.get(start))) start++;
+            while (end > start && isSpace(input.get(end - 1))) end--;
+
+            int i = start;
+            boolean negative = false;
+            if (i < end && (input.get(i) == '-' || input.get(i) == '+')) {
+                negative = input.get(i++) == '-';
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean seenDigit = false;
+            boolean seenDot = false;
+            for (; i < end; i++) {
+                byte b = input.get(i);
+                if (b >= '0' && b <= '9') {
+                    seenDigit = true;
+                    if (mantissa == 0 && b == '0') {
+                        if (seenDot) exponent--;
+                        continue;
+                    }
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        digits++;
+                        if (seenDot) exponent--;
+                    } else {
+                        return parseSlow(start, end, column);
+                    }
+                } else if (b == '.' && !seenDot) {
+                    seenDot = true;
+                } else {
+                    break;
+                }
+            }
+            if (!seenDigit) {
+                return parseSlow(start, end, column);
+            }
+            if (i < end) {
+                byte b = input.get(i++);
+                if (b != 'e' && b != 'E') {
+                    return parseSlow(start, end, column);
+                }
+                boolean negativeExponent = false;
+                if (i < end && (input.get(i) == '-' || input.get(i) == '+')) {
+                    negativeExponent = input.get(i++) == '-';
+                }
+                if (i == end) {
+                    return parseSlow(start, end, column);
+                }
+                int explicit = 0;
+                for (; i < end; i++) {
+                    byte e = input.get(i);
+                    if (e < '0' || e > '9' || explicit > 10_000) {
+                        return parseSlow(start, end, column);
+                    }
+                    explicit = explicit * 10 + (e - '0');
+                }
+                exponent += negativeExponent ? -explicit : explicit;
+            }
+
+            if (mantissa == 0) {
+                return negative ? -0.0 : 0.0;
+            }
+            if (digits > 15 || exponent < -22 || exponent > 22) {
+                return parseSlow(start, end, column);
+            }
+            double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+
+        private double parseSlow(int start, int end, int column) {
+            int length = end - start;
+            if (length > 0 && length <= scratch.length) {
+                input.get(start, scratch, 0, length);
+                try {
+                    return Double.parseDouble(new String(scratch, 0, length, StandardCharsets.ISO_8859_1));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            throw new IllegalArgumentException("Invalid number at line %d, column %d".formatted(line, column + 1));
+        }
+
+        private void flushChunk() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            double[] out = rows == chunkRows ? results : Arrays.copyOf(results, rows);
+            BitSet failed = evaluator.evaluate(columns, out);
+            errors += failed.cardinality();
+            for (int row = 0; row < rows; row++) {
+                formatted.setLength(0);
+                formatted.append(out[row]).append('\n');
+                write(formatted);
+            }
+            total += rows;
+            rows = 0;
+        }
+
+        private void write(CharSequence text) throws IOException {
+            if (output.remaining() < text.length()) {
+                output.flip();
+                writeFully(output);
+                output.clear();
+            }
+            for (int i = 0; i < text.length(); i++) {
+                output.put((byte) text.charAt(i));
+            }
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+        }
+
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (!isSpace(input.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
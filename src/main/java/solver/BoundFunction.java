@@ -0,0 +1,75 @@
+package solver;
+
+import function.MathFunction;
+
+final class BoundFunction {
+    private final MathFunction function;
+    private final MathFunction derivative;
+    private final double[] values;
+    private final double[] gradient;
+    private final int variable;
+    private int evaluations;
+    private double slope;
+
+    BoundFunction(MathFunction function, MathFunction derivative, double[] values, int variable) {
+        if (variable < 0 || variable >= values.length) {
+            throw new IllegalArgumentException("Variable index %d out of range for %d values"
+                    .formatted(variable, values.length));
+        }
+        this.function = function;
+        this.derivative = derivative;
+        this.values = values.clone();
+        this.gradient = derivative == null ? new double[this.values.length] : null;
+        this.variable = variable;
+    }
+
+    static BoundFunction of(MathFunction function) {
+        if (function.getVarNumber() > 1) {
+            throw new IllegalArgumentException(("Function has %d variables; "
+                    + "provide values and the index of the variable to solve for").formatted(function.getVarNumber()));
+        }
+        return new BoundFunction(function, null, new double[1], 0);
+    }
+
+    double value(double x) {
+        values[variable] = x;
+        evaluations++;
+        return function.calculateDouble(values);
+    }
+
+    double valueWithSlope(double x) {
+        values[variable] = x;
+        evaluations++;
+        if (derivative == null) {
+            double value = function.calculateWithGradient(values, gradient);
+            slope = gradient[variable];
+            return value;
+        }
+        slope = derivative.calculateDouble(values);
+        return function.calculateDouble(values);
+    }
+
+    double slope() {
+        return slope;
+    }
+
+    MathFunction function() {
+        return function;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    int variable() {
+        return variable;
+    }
+
+    int evaluations() {
+        return evaluations;
+    }
+
+    void addEvaluations(int count) {
+        evaluations += count;
+    }
+}
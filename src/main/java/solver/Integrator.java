@@ -0,0 +1,243 @@
+package solver;
+
+import evaluation.ParallelEvaluator;
+import function.EvaluationError;
+import function.MathFunction;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+public final class Integrator {
+    public static final Integrator DEFAULT = new Integrator(1e-10, 1e-10, 10_000, null);
+
+    private static final int POINTS = 15;
+    private static final int PARALLEL_BLOCK_INTERVALS = 64;
+    private static final double[] KRONROD_NODES = {
+            0.991455371120812639206854697526329,
+            0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926,
+            0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013,
+            0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245,
+            0.000000000000000000000000000000000
+    };
+    private static final double[] KRONROD_WEIGHTS = {
+            0.022935322010529224963732008058970,
+            0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518,
+            0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550,
+            0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649,
+            0.209482141084727828012999174891714
+    };
+    private static final double[] GAUSS_WEIGHTS = {
+            0.129484966168869693270611432679082,
+            0.279705391489276667901467771423780,
+            0.381830050505118944950369775488975,
+            0.417959183673469387755102040816327
+    };
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final int maxIntervals;
+    private final Executor executor;
+
+    private Integrator(double absoluteTolerance, double relativeTolerance, int maxIntervals, Executor executor) {
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.maxIntervals = maxIntervals;
+        this.executor = executor;
+    }
+
+    public Integrator withAbsoluteTolerance(double absoluteTolerance) {
+        if (!(absoluteTolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerance cannot be negative");
+        }
+        return new Integrator(absoluteTolerance, relativeTolerance, maxIntervals, executor);
+    }
+
+    public Integrator withRelativeTolerance(double relativeTolerance) {
+        if (!(relativeTolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerance cannot be negative");
+        }
+        return new Integrator(absoluteTolerance, relativeTolerance, maxIntervals, executor);
+    }
+
+    public Integrator withMaxIntervals(int maxIntervals) {
+        if (maxIntervals <= 0) {
+            throw new IllegalArgumentException("Maximum intervals must be positive");
+        }
+        return new Integrator(absoluteTolerance, relativeTolerance, maxIntervals, executor);
+    }
+
+    public Integrator withExecutor(Executor executor) {
+        return new Integrator(absoluteTolerance, relativeTolerance, maxIntervals, executor);
+    }
+
+    public Integral integrate(MathFunction function, double lower, double upper) {
+        return integrate(BoundFunction.of(function), lower, upper);
+    }
+
+    public Integral integrate(MathFunction function, double[] values, int variable, double lower, double upper) {
+        return integrate(new BoundFunction(function, null, values, variable), lower, upper);
+    }
+
+    private Integral integrate(BoundFunction function, double lower, double upper) {
+        if (!Double.isFinite(lower) || !Double.isFinite(upper)) {
+            throw new IllegalArgumentException("Integration bounds must be finite");
+        }
+        if (lower == upper) {
+            return new Integral(0, 0, 0, true);
+        }
+        Integral integral = new Run(function, Math.min(lower, upper), Math.max(lower, upper)).execute();
+        return lower < upper ? integral
+                : new Integral(-integral.value(), integral.error(), integral.evaluations(), integral.converged());
+    }
+
+    private final class Run {
+        private final BoundFunction function;
+        private final double width;
+        private double[][] columns;
+        private double[] out;
+        private EvaluationError[] errors;
+        private double[] lows = new double[16];
+        private double[] highs = new double[16];
+        private double[] estimates = new double[16];
+        private double[] deviations = new double[16];
+        private int[] pending = new int[16];
+        private int count;
+
+        private Run(BoundFunction function, double lower, double upper) {
+            this.function = function;
+            this.width = upper - lower;
+            this.columns = new double[function.values().length][0];
+            lows[0] = lower;
+            highs[0] = upper;
+            count = 1;
+        }
+
+        private Integral execute() {
+            pending[0] = 0;
+            int pendingCount = 1;
+            while (true) {
+                evaluate(pendingCount);
+
+                double total = 0;
+                double error = 0;
+                for (int i = 0; i < count; i++) {
+                    total += estimates[i];
+                    error += deviations[i];
+                }
+                double tolerance = Math.max(absoluteTolerance, relativeTolerance * Math.abs(total));
+                if (error <= tolerance) {
+                    return new Integral(total, error, function.evaluations(), true);
+                }
+
+                pendingCount = 0;
+                int limit = count;
+                for (int i = 0; i < limit && count < maxIntervals; i++) {
+                    double low = lows[i];
+                    double high = highs[i];
+                    double middle = 0.5 * (low + high);
+                    if (deviations[i] <= tolerance * (high - low) / width || middle <= low || middle >= high) {
+                        continue;
+                    }
+                    ensureCapacity(count + 1);
+                    highs[i] = middle;
+                    lows[count] = middle;
+                    highs[count] = high;
+                    pending[pendingCount++] = i;
+                    pending[pendingCount++] = count++;
+                }
+                if (pendingCount == 0) {
+                    return new Integral(total, error, function.evaluations(), false);
+                }
+            }
+        }
+
+        private void evaluate(int pendingCount) {
+            int rows = pendingCount * POINTS;
+            prepare(rows);
+            double[] column = columns[function.variable()];
+            for (int p = 0; p < pendingCount; p++) {
+                int interval = pending[p];
+                double center = 0.5 * (lows[interval] + highs[interval]);
+                double half = 0.5 * (highs[interval] - lows[interval]);
+                int base = p * POINTS;
+                for (int k = 0; k < 7; k++) {
+                    double offset = half * KRONROD_NODES[k];
+                    column[base + 2 * k] = center - offset;
+                    column[base + 2 * k + 1] = center + offset;
+                }
+                column[base + 14] = center;
+            }
+
+            if (executor == null) {
+                function.function().evaluate(columns, 0, rows, out, errors);
+            } else {
+                new ParallelEvaluator(function.function(), executor, PARALLEL_BLOCK_INTERVALS * POINTS)
+                        .evaluate(columns, out, errors);
+            }
+            function.addEvaluations(rows);
+            for (int i = 0; i < rows; i++) {
+                if (errors[i] != null) {
+                    throw new ArithmeticException(errors[i].getMessage());
+                }
+            }
+
+            for (int p = 0; p < pendingCount; p++) {
+                int interval = pending[p];
+                double half = 0.5 * (highs[interval] - lows[interval]);
+                int base = p * POINTS;
+                double kronrod = KRONROD_WEIGHTS[7] * out[base + 14];
+                double gauss = GAUSS_WEIGHTS[3] * out[base + 14];
+                for (int k = 0; k < 7; k++) {
+                    double pair = out[base + 2 * k] + out[base + 2 * k + 1];
+                    kronrod += KRONROD_WEIGHTS[k] * pair;
+                    if (k % 2 == 1) {
+                        gauss += GAUSS_WEIGHTS[k / 2] * pair;
+                    }
+                }
+                estimates[interval] = kronrod * half;
+                deviations[interval] = Math.abs((kronrod - gauss) * half);
+            }
+        }
+
+        private void prepare(int rows) {
+            if (columns[function.variable()].length < rows) {
+                double[] values = function.values();
+                int capacity = Math.max(rows, columns[function.variable()].length * 2);
+                for (int column = 0; column < columns.length; column++) {
+                    columns[column] = new double[capacity];
+                    Arrays.fill(columns[column], values[column]);
+                }
+                if (executor == null) {
+                    out = new double[capacity];
+                    errors = new EvaluationError[capacity];
+                }
+            }
+            if (executor != null && (out == null || out.length != rows)) {
+                out = new double[rows];
+                errors = new EvaluationError[rows];
+            }
+        }
+
+        private void ensureCapacity(int size) {
+            if (size > lows.length) {
+                int capacity = Math.max(size, lows.length * 2);
+                lows = Arrays.copyOf(lows, capacity);
+                highs = Arrays.copyOf(highs, capacity);
+                estimates = Arrays.copyOf(estimates, capacity);
+                deviations = Arrays.copyOf(deviations, capacity);
+            }
+            if (2 * size > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(2 * size, pending.length * 2));
+            }
+        }
+    }
+
+    public record Integral(double value, double error, int evaluations, boolean converged) {
+    }
+}
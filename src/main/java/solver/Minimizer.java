@@ -0,0 +1,187 @@
+package solver;
+
+import function.EvaluationStatus;
+import function.MathFunction;
+
+public final class Minimizer {
+    public static final Minimizer DEFAULT = new Minimizer(1e-10, 10_000, 0);
+
+    private static final double REFLECTION = 1;
+    private static final double EXPANSION = 2;
+    private static final double CONTRACTION = 0.5;
+    private static final double SHRINK = 0.5;
+
+    private final double tolerance;
+    private final int maxEvaluations;
+    private final double initialStep;
+
+    private Minimizer(double tolerance, int maxEvaluations, double initialStep) {
+        this.tolerance = tolerance;
+        this.maxEvaluations = maxEvaluations;
+        this.initialStep = initialStep;
+    }
+
+    public Minimizer withTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        }
+        return new Minimizer(tolerance, maxEvaluations, initialStep);
+    }
+
+    public Minimizer withMaxEvaluations(int maxEvaluations) {
+        if (maxEvaluations <= 0) {
+            throw new IllegalArgumentException("Maximum evaluations must be positive");
+        }
+        return new Minimizer(tolerance, maxEvaluations, initialStep);
+    }
+
+    public Minimizer withInitialStep(double initialStep) {
+        if (!(initialStep > 0) || Double.isInfinite(initialStep)) {
+            throw new IllegalArgumentException("Initial step must be positive");
+        }
+        return new Minimizer(tolerance, maxEvaluations, initialStep);
+    }
+
+    public Minimum minimize(MathFunction function, double[] start) {
+        if (start.length == 0) {
+            throw new IllegalArgumentException("Expected at least one starting value");
+        }
+        return new Run(function, start).execute();
+    }
+
+    private final class Run {
+        private final MathFunction function;
+        private final EvaluationStatus status = new EvaluationStatus();
+        private final int dimension;
+        private final double[][] simplex;
+        private final double[] values;
+        private final double[] centroid;
+        private final double[] reflected;
+        private final double[] trial;
+        private int evaluations;
+
+        private Run(MathFunction function, double[] start) {
+            this.function = function;
+            this.dimension = start.length;
+            this.simplex = new double[dimension + 1][];
+            this.values = new double[dimension + 1];
+            this.centroid = new double[dimension];
+            this.reflected = new double[dimension];
+            this.trial = new double[dimension];
+
+            simplex[0] = start.clone();
+            values[0] = value(simplex[0]);
+            for (int i = 0; i < dimension; i++) {
+                double[] vertex = start.clone();
+                double step = initialStep > 0 ? initialStep : start[i] != 0 ? 0.05 * start[i] : 0.00025;
+                vertex[i] += step;
+                simplex[i + 1] = vertex;
+                values[i + 1] = value(vertex);
+            }
+        }
+
+        private Minimum execute() {
+            while (true) {
+                int best = 0;
+                int worst = 0;
+                for (int i = 1; i <= dimension; i++) {
+                    if (values[i] < values[best]) {
+                        best = i;
+                    }
+                    if (values[i] > values[worst]) {
+                        worst = i;
+                    }
+                }
+                if (worst == best) {
+                    worst = best == 0 ? 1 : 0;
+                }
+                int next = best;
+                for (int i = 0; i <= dimension; i++) {
+                    if (i != worst && values[i] >= values[next]) {
+                        next = i;
+                    }
+                }
+
+                double spread = values[worst] - values[best];
+                if (spread <= tolerance * (1 + Math.abs(values[best]))
+                        || (!Double.isFinite(values[best]) && values[best] == values[worst])) {
+                    return result(best, Double.isFinite(values[best]));
+                }
+                if (evaluations >= maxEvaluations) {
+                    return result(best, false);
+                }
+
+                for (int j = 0; j < dimension; j++) {
+                    double sum = 0;
+                    for (int i = 0; i <= dimension; i++) {
+                        sum += i == worst ? 0 : simplex[i][j];
+                    }
+                    centroid[j] = sum / dimension;
+                }
+
+                double reflectedValue = step(simplex[worst], REFLECTION, reflected);
+                if (reflectedValue < values[best]) {
+                    double expandedValue = step(simplex[worst], EXPANSION, trial);
+                    if (expandedValue < reflectedValue) {
+                        accept(worst, trial, expandedValue);
+                    } else {
+                        accept(worst, reflected, reflectedValue);
+                    }
+                } else if (reflectedValue < values[next]) {
+                    accept(worst, reflected, reflectedValue);
+                } else if (reflectedValue < values[worst]) {
+                    double contractedValue = step(simplex[worst], CONTRACTION, trial);
+                    if (contractedValue <= reflectedValue) {
+                        accept(worst, trial, contractedValue);
+                    } else {
+                        shrink(best);
+                    }
+                } else {
+                    double contractedValue = step(simplex[worst], -CONTRACTION, trial);
+                    if (contractedValue < values[worst]) {
+                        accept(worst, trial, contractedValue);
+                    } else {
+                        shrink(best);
+                    }
+                }
+            }
+        }
+
+        private double step(double[] from, double coefficient, double[] target) {
+            for (int j = 0; j < dimension; j++) {
+                target[j] = centroid[j] + coefficient * (centroid[j] - from[j]);
+            }
+            return value(target);
+        }
+
+        private void accept(int vertex, double[] point, double value) {
+            System.arraycopy(point, 0, simplex[vertex], 0, dimension);
+            values[vertex] = value;
+        }
+
+        private void shrink(int best) {
+            for (int i = 0; i <= dimension; i++) {
+                if (i == best) {
+                    continue;
+                }
+                for (int j = 0; j < dimension; j++) {
+                    simplex[i][j] = simplex[best][j] + SHRINK * (simplex[i][j] - simplex[best][j]);
+                }
+                values[i] = value(simplex[i]);
+            }
+        }
+
+        private double value(double[] point) {
+            evaluations++;
+            double value = function.calculateDouble(point, status.reset());
+            return status.isOk() && !Double.isNaN(value) ? value : Double.POSITIVE_INFINITY;
+        }
+
+        private Minimum result(int best, boolean converged) {
+            return new Minimum(simplex[best].clone(), values[best], evaluations, converged);
+        }
+    }
+
+    public record Minimum(double[] point, double value, int evaluations, boolean converged) {
+    }
+}
@@ -0,0 +1,163 @@
+package solver;
+
+import function.MathFunction;
+import parser.Differentiator;
+import parser.Optimizer;
+import parser.nodes.ASTNode;
+
+import java.util.Arrays;
+
+public final class RootFinder {
+    public static final RootFinder DEFAULT = new RootFinder(1e-12, 200);
+    private static final double EPSILON = Math.ulp(1.0);
+
+    private final double tolerance;
+    private final int maxIterations;
+
+    private RootFinder(double tolerance, int maxIterations) {
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    public RootFinder withTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        }
+        return new RootFinder(tolerance, maxIterations);
+    }
+
+    public RootFinder withMaxIterations(int maxIterations) {
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException("Maximum iterations must be positive");
+        }
+        return new RootFinder(tolerance, maxIterations);
+    }
+
+    public Root brent(MathFunction function, double lower, double upper) {
+        return brent(BoundFunction.of(function), lower, upper);
+    }
+
+    public Root brent(MathFunction function, double[] values, int variable, double lower, double upper) {
+        return brent(new BoundFunction(function, null, values, variable), lower, upper);
+    }
+
+    public Root newton(MathFunction function, double guess) {
+        return newton(BoundFunction.of(function), guess);
+    }
+
+    public Root newton(MathFunction function, double[] values, int variable, double guess) {
+        return newton(new BoundFunction(function, null, values, variable), guess);
+    }
+
+    public Root newton(ASTNode tree, String variable, double[] values, double guess) {
+        int index = Arrays.asList(Optimizer.variableNames(tree)).indexOf(variable);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown variable: " + variable);
+        }
+        MathFunction derivative = Differentiator.derivativeFunction(tree, variable);
+        return newton(new BoundFunction(tree.toMathFunction(), derivative, values, index), guess);
+    }
+
+    private Root brent(BoundFunction function, double lower, double upper) {
+        double a = lower;
+        double b = upper;
+        double fa = function.value(a);
+        double fb = function.value(b);
+        if (fa == 0) {
+            return new Root(a, fa, function.evaluations(), true);
+        }
+        if (fb == 0) {
+            return new Root(b, fb, function.evaluations(), true);
+        }
+        if (Double.isNaN(fa) || Double.isNaN(fb) || (fa > 0) == (fb > 0)) {
+            throw new IllegalArgumentException("Root is not bracketed by [%s, %s]".formatted(lower, upper));
+        }
+
+        double c = b;
+        double fc = fb;
+        double d = 0;
+        double e = 0;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            if ((fb > 0) == (fc > 0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+
+            double step = 2 * EPSILON * Math.abs(b) + 0.5 * tolerance;
+            double midpoint = 0.5 * (c - b);
+            if (Math.abs(midpoint) <= step || fb == 0) {
+                return new Root(b, fb, function.evaluations(), true);
+            }
+
+            if (Math.abs(e) >= step && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    p = 2 * midpoint * s;
+                    q = 1 - s;
+                } else {
+                    double r = fb / fc;
+                    q = fa / fc;
+                    p = s * (2 * midpoint * q * (q - r) - (b - a) * (r - 1));
+                    q = (q - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                }
+                p = Math.abs(p);
+                if (2 * p < Math.min(3 * midpoint * q - Math.abs(step * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = midpoint;
+                    e = d;
+                }
+            } else {
+                d = midpoint;
+                e = d;
+            }
+
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > step ? d : Math.copySign(step, midpoint);
+            fb = function.value(b);
+        }
+        return new Root(b, fb, function.evaluations(), false);
+    }
+
+    private Root newton(BoundFunction function, double guess) {
+        double x = guess;
+        double value = function.valueWithSlope(x);
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            if (value == 0) {
+                return new Root(x, value, function.evaluations(), true);
+            }
+            double slope = function.slope();
+            if (slope == 0 || !Double.isFinite(slope) || !Double.isFinite(value)) {
+                return new Root(x, value, function.evaluations(), false);
+            }
+
+            double step = value / slope;
+            x -= step;
+            value = function.valueWithSlope(x);
+            if (Math.abs(step) <= tolerance + 4 * EPSILON * Math.abs(x)) {
+                return new Root(x, value, function.evaluations(), true);
+            }
+        }
+        return new Root(x, value, function.evaluations(), false);
+    }
+
+    public record Root(double x, double value, int evaluations, boolean converged) {
+    }
+}
@@ -0,0 +1,205 @@
+package store;
+
+import compiler.ExpressionProgram;
+import function.MathFunction;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+public class ExpressionStore {
+    static final int MAGIC = 0x4D505354;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 24;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final AtomicReferenceArray<MathFunction> functions;
+    private final Function<String, MathFunction> fallback;
+    private final UnaryOperator<MathFunction> programs;
+
+    private ExpressionStore(ByteBuffer buffer, Function<String, MathFunction> fallback,
+                            UnaryOperator<MathFunction> programs) {
+        this.buffer = buffer;
+        this.fallback = fallback;
+        this.programs = programs;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an expression store");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported store version: " + buffer.getInt(4));
+        }
+        this.count = buffer.getInt(8);
+        if (count < 0 || (long) HEADER_SIZE + (long) count * ENTRY_SIZE > buffer.capacity()) {
+            throw new IllegalArgumentException("Corrupted store: index exceeds file size");
+        }
+        this.functions = new AtomicReferenceArray<>(count);
+    }
+
+    public static ExpressionStore open(Path path) throws IOException {
+        return open(path, Parser::parse);
+    }
+
+    public static ExpressionStore open(Path path, ParserOptions options) throws IOException {
+        return open(path, expression -> Parser.parse(expression, options),
+                options.getMathContext() == null ? options.getErrorPolicy()::apply : null);
+    }
+
+    public static ExpressionStore open(Path path, Function<String, MathFunction> fallback) throws IOException {
+        return open(path, fallback, UnaryOperator.identity());
+    }
+
+    private static ExpressionStore open(Path path, Function<String, MathFunction> fallback,
+                                        UnaryOperator<MathFunction> programs) throws IOException {
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Store is larger than 2 GB: " + path);
+            }
+            return new ExpressionStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), fallback,
+                    programs);
+        }
+    }
+
+    public MathFunction get(String expression) {
+        int index = indexOf(expression);
+        return index < 0 ? fallback.apply(expression) : get(index);
+    }
+
+    public MathFunction get(int index) {
+        checkIndex(index);
+        MathFunction function = functions.get(index);
+        if (function == null) {
+            if (programs != null && isCompiled(index)) {
+                byte[] bytes = new byte[programLength(index)];
+                buffer.get((int) (recordOffset(index) + sourceLength(index)), bytes);
+                function = programs.apply(ExpressionProgram.fromBytes(bytes));
+            } else {
+                function = fallback.apply(getSource(index));
+            }
+            if (!functions.compareAndSet(index, null, function)) {
+                function = functions.get(index);
+            }
+        }
+        return function;
+    }
+
+    public boolean isCompiled(int index) {
+        checkIndex(index);
+        return programLength(index) > 0;
+    }
+
+    public boolean contains(String expression) {
+        return indexOf(expression) >= 0;
+    }
+
+    public int indexOf(String expression) {
+        byte[] source = expression.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(source);
+
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleHash = hash(middle);
+            if (middleHash < hash) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        for (int i = low; i < count && hash(i) == hash; i++) {
+            if (sourceEquals(i, source)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String getSource(int index) {
+        checkIndex(index);
+        byte[] bytes = new byte[sourceLength(index)];
+        buffer.get((int) recordOffset(index), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getLoadedCount() {
+        int loaded = 0;
+        for (int i = 0; i < count; i++) {
+            if (functions.get(i) != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    static long hash(byte[] source) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : source) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private boolean sourceEquals(int index, byte[] source) {
+        if (sourceLength(index) != source.length) {
+            return false;
+        }
+        checkRecord(index);
+        int offset = (int) recordOffset(index);
+        for (int i = 0; i < source.length; i++) {
+            if (buffer.get(offset + i) != source[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long hash(int index) {
+        return buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+    }
+
+    private long recordOffset(int index) {
+        return buffer.getLong(HEADER_SIZE + index * ENTRY_SIZE + 8);
+    }
+
+    private int sourceLength(int index) {
+        return buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + 16);
+    }
+
+    private int programLength(int index) {
+        return buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + 20);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for store of " + count);
+        }
+        checkRecord(index);
+    }
+
+    private void checkRecord(int index) {
+        long end = recordOffset(index) + sourceLength(index) + programLength(index);
+        if (recordOffset(index) < 0 || sourceLength(index) < 0 || programLength(index) < 0
+                || end > buffer.capacity()) {
+            throw new IllegalArgumentException("Corrupted store: entry " + index + " exceeds file size");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package store;
+
+import parser.ParserOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ExpressionStoreTool {
+    private static final String USAGE = """
+            Usage:
+              build <expressions.txt> <output.store> [--optimize]   compile one expression per line
+              info <file.store>                                     print entry count and file size
+              eval <file.store> <expression> [values...]           evaluate a stored expression
+            """;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+
+        switch (args[0]) {
+            case "build" -> build(args);
+            case "info" -> info(Path.of(args[1]));
+            case "eval" -> eval(args);
+            default -> {
+                System.err.print(USAGE);
+                System.exit(2);
+            }
+        }
+    }
+
+    private static void build(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+        boolean optimize = args.length > 3 && args[3].equals("--optimize");
+        List<String> expressions = Files.readAllLines(Path.of(args[1])).stream()
+                .filter(line -> !line.isBlank())
+                .toList();
+
+        long start = System.nanoTime();
+        int written = ExpressionStoreWriter.write(Path.of(args[2]), expressions,
+                ParserOptions.DEFAULT.withOptimization(optimize));
+        System.out.printf("Wrote %d expressions to %s in %d ms%n", written, args[2],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void info(Path path) throws IOException {
+        ExpressionStore store = ExpressionStore.open(path);
+        System.out.printf("%s: %d expressions, %d bytes%n", path, store.size(), Files.size(path));
+    }
+
+    private static void eval(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+        ExpressionStore store = ExpressionStore.open(Path.of(args[1]));
+        double[] values = new double[args.length - 3];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Double.parseDouble(args[i + 3]);
+        }
+        System.out.println(store.get(args[2]).calculateDouble(values));
+    }
+}
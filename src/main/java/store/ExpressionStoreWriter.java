@@ -0,0 +1,89 @@
+package store;
+
+import compiler.ProgramCompiler;
+import function.ErrorPolicy;
+import parser.Optimizer;
+import parser.Parser;
+import parser.ParserOptions;
+import parser.nodes.ASTNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static store.ExpressionStore.*;
+
+public class ExpressionStoreWriter {
+
+    public static int write(Path target, Collection<String> expressions) throws IOException {
+        return write(target, expressions, ParserOptions.DEFAULT);
+    }
+
+    public static int write(Path target, Collection<String> expressions, ParserOptions options) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (String expression : new LinkedHashSet<>(expressions)) {
+            entries.add(compile(expression, options));
+        }
+        entries.sort(Comparator.comparingLong(Entry::hash));
+
+        long offset = HEADER_SIZE + (long) entries.size() * ENTRY_SIZE;
+        ByteBuffer header = ByteBuffer.allocate((int) offset);
+        header.putInt(MAGIC).putInt(VERSION).putInt(entries.size()).putInt(0);
+        for (Entry entry : entries) {
+            header.putLong(entry.hash()).putLong(offset).putInt(entry.source().length).putInt(entry.program().length);
+            offset += entry.source().length + entry.program().length;
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Store would be larger than 2 GB");
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header.flip());
+            for (Entry entry : entries) {
+                writeFully(channel, ByteBuffer.wrap(entry.source()));
+                writeFully(channel, ByteBuffer.wrap(entry.program()));
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return entries.size();
+    }
+
+    private static Entry compile(String expression, ParserOptions options) {
+        ASTNode tree;
+        try {
+            tree = Parser.parseTree(expression, options);
+            if (options.isOptimizationEnabled()) {
+                tree = Optimizer.optimize(tree, options.getMathContext());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot compile '" + expression + "': " + e.getMessage(), e);
+        }
+
+        byte[] source = expression.getBytes(StandardCharsets.UTF_8);
+        byte[] program = options.getMathContext() == null && options.getErrorPolicy() == ErrorPolicy.THROW
+                && ProgramCompiler.isCompilable(tree) ? ProgramCompiler.compile(tree).toBytes() : new byte[0];
+        return new Entry(hash(source), source, program);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private record Entry(long hash, byte[] source, byte[] program) {
+    }
+}
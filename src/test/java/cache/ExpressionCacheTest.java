@@ -0,0 +1,77 @@
+package cache;
+
+import function.MathFunction;
+import lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCacheTest {
+
+    @Test
+    void testNormalizedExpressionsShareEntry() {
+        ExpressionCache cache = new ExpressionCache(16, null);
+        MathFunction first = cache.get("x + 1");
+        MathFunction second = cache.get("x+1");
+
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(new BigDecimal("3"), second.calculate(new BigDecimal[]{new BigDecimal("2")}));
+    }
+
+    @Test
+    void testDecimalCommaIsNormalized() {
+        ExpressionCache cache = new ExpressionCache(16, null);
+        assertSame(cache.get("1,5 * x"), cache.get("1.5*x"));
+    }
+
+    @Test
+    void testSizeEviction() {
+        AtomicLong time = new AtomicLong();
+        ExpressionCache cache = new ExpressionCache(10, null, ExpressionCacheTest::compile, time::get);
+
+        MathFunction hot = cache.get("x");
+        for (int i = 0; i < 20; i++) {
+            time.incrementAndGet();
+            cache.get("x");
+            cache.get("x+" + i);
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertSame(hot, cache.get("x"));
+    }
+
+    @Test
+    void testTimeEviction() {
+        AtomicLong time = new AtomicLong();
+        ExpressionCache cache = new ExpressionCache(10, Duration.ofNanos(100), ExpressionCacheTest::compile, time::get);
+
+        MathFunction first = cache.get("x*2");
+        time.addAndGet(50);
+        assertSame(first, cache.get("x*2"));
+        time.addAndGet(100);
+        assertNotSame(first, cache.get("x*2"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testErrorsAreNotCached() {
+        ExpressionCache cache = new ExpressionCache(10, null);
+        assertThrows(IllegalArgumentException.class, () -> cache.get("2+"));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(" "));
+        assertEquals(0, cache.size());
+    }
+
+    private static MathFunction compile(String expression) {
+        return Parser.parse(Lexer.tokenize(expression));
+    }
+}
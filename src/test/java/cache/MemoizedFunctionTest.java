@@ -0,0 +1,132 @@
+package cache;
+
+import function.EvaluationError;
+import function.EvaluationStatus;
+import function.MathFunction;
+import org.junit.jupiter.api.Test;
+import parser.FunctionRegistry;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoizedFunctionTest {
+
+    @Test
+    void testRepeatedInputsAreServedFromTable() {
+        AtomicInteger calls = new AtomicInteger();
+        MathFunction function = Parser.parse("probe(x) * y", ParserOptions.DEFAULT.withFunctions(
+                FunctionRegistry.DEFAULT.with("probe", 1, true, args -> {
+                    calls.incrementAndGet();
+                    return args[0] + 1;
+                })));
+        MemoizedFunction memoized = new MemoizedFunction(function, 100);
+
+        for (int round = 0; round < 3; round++) {
+            for (int x = 0; x < 10; x++) {
+                assertEquals((x + 1) * 2.5, memoized.calculateDouble(new double[]{x, 2.5}));
+            }
+        }
+        assertEquals(10, calls.get());
+        assertEquals(10, memoized.size());
+        assertEquals(20, memoized.getHitCount());
+        assertEquals(10, memoized.getMissCount());
+        assertEquals(2.0 / 3, memoized.getHitRate(), 1e-12);
+
+        assertEquals(-2.5, memoized.calculateDouble(new double[]{-0.0, -2.5}));
+        assertEquals(-2.5, memoized.calculateDouble(new double[]{0.0, -2.5}));
+        assertTrue(Double.isNaN(memoized.calculateDouble(new double[]{Double.NaN, 1})));
+        assertTrue(Double.isNaN(memoized.calculateDouble(new double[]{Double.NaN, 1})));
+        assertEquals(13, calls.get());
+
+        memoized.invalidateAll();
+        assertEquals(0, memoized.size());
+        memoized.calculateDouble(new double[]{1, 1});
+        assertEquals(14, calls.get());
+    }
+
+    @Test
+    void testKeysCoverEveryInputColumn() {
+        ParserOptions optimized = ParserOptions.DEFAULT.withOptimization(true);
+        MemoizedFunction variable = new MemoizedFunction(Parser.parse("0*x + y", optimized), 16);
+        assertEquals(2, variable.calculateDouble(new double[]{1, 2}));
+        assertEquals(3, variable.calculateDouble(new double[]{1, 3}));
+
+        MemoizedFunction root = new MemoizedFunction(Parser.parse("x*0 + sqrt(y)", optimized), 16);
+        assertEquals(2, root.calculateDouble(new double[]{5, 4}));
+        assertEquals(3, root.calculateDouble(new double[]{5, 9}));
+        assertEquals(2, root.calculateDouble(new double[]{7, 4, 1}));
+        assertEquals(0, root.getHitCount());
+        assertEquals(2, root.calculateDouble(new double[]{5, 4}));
+        assertEquals(1, root.getHitCount());
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        MemoizedFunction memoized = new MemoizedFunction(Parser.parse("1 / x"), 8);
+        assertThrows(ArithmeticException.class, () -> memoized.calculateDouble(new double[]{0}));
+        EvaluationStatus status = new EvaluationStatus();
+        assertTrue(Double.isNaN(memoized.calculateDouble(new double[]{0}, status)));
+        assertEquals(EvaluationError.DIVISION_BY_ZERO, status.getError());
+        assertEquals(0, memoized.size());
+
+        double[] out = new double[4];
+        EvaluationError[] errors = new EvaluationError[4];
+        memoized.evaluate(new double[][]{{2, 0, 2, 4}}, 0, 4, out, errors);
+        assertArrayEquals(new double[]{0.5, Double.NaN, 0.5, 0.25}, out);
+        assertEquals(EvaluationError.DIVISION_BY_ZERO, errors[1]);
+        assertEquals(2, memoized.size());
+        assertThrows(IllegalArgumentException.class, () -> memoized.calculateDouble(new double[0]));
+    }
+
+    @Test
+    void testClockEvictionKeepsHotEntries() {
+        MemoizedFunction memoized = new MemoizedFunction(Parser.parse("x * 2"), 32);
+        for (int x = 0; x < 1000; x++) {
+            memoized.calculateDouble(new double[]{-1});
+            assertEquals(2.0 * x, memoized.calculateDouble(new double[]{x}));
+            assertTrue(memoized.size() <= 32);
+        }
+        assertEquals(32, memoized.size());
+        assertEquals(1000 - 31, memoized.getEvictionCount());
+        assertEquals(999, memoized.getHitCount());
+    }
+
+    @Test
+    void testConcurrentReadersAndWritersSeeConsistentResults() throws Exception {
+        MathFunction function = Parser.parse("sin(x) * y + x / (y + 10)");
+        MemoizedFunction memoized = new MemoizedFunction(function, 256);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int seed = thread;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    double[] values = new double[2];
+                    for (int i = 0; i < 50_000; i++) {
+                        values[0] = random.nextInt(40);
+                        values[1] = random.nextInt(12);
+                        assertEquals(function.calculateDouble(values), memoized.calculateDouble(values));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(200_000, memoized.getHitCount() + memoized.getMissCount());
+        assertTrue(memoized.size() <= 256);
+        assertTrue(memoized.getHitRate() > 0.5);
+    }
+}
@@ -0,0 +1,87 @@
+package compiler;
+
+import function.MathFunction;
+import lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+import parser.nodes.ASTNode;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCompilerTest {
+
+    @Test
+    void testMatchesInterpretedFunction() {
+        String[] expressions = {
+                "2+3*4", "(1 + 2) * (3 + (4 * (5 + 6))) / 2^3", "-x + abs(-y)", "7%3",
+                "sqrt(x^2+y^2)", "sin(x)+cos(y)-tan(x)+catan(y)", "ln(x)+lg(y)",
+                "9999999999999999999999999999999999999999 + x", "1+2*3-4/5+6%7^8*9-10+11*12-13/14+15%16^17*18",
+                "x^3 - y^-1 + (x+y)^2", "(x < y) + (x <= 4) * 2 + (x > y) * 4 + (y >= 4) * 8 + (x == 4) - (x != y)"
+        };
+        BigDecimal[] exactValues = {new BigDecimal("4"), new BigDecimal("3")};
+        double[] doubleValues = {4, 3};
+
+        for (String expression : expressions) {
+            ASTNode tree = Parser.parseTree(Lexer.tokenize(expression));
+            MathFunction interpreted = tree.toMathFunction();
+            MathFunction compiled = ExpressionCompiler.compile(tree);
+
+            assertEquals(interpreted.calculate(exactValues), compiled.calculate(exactValues), expression);
+            assertEquals(interpreted.calculateDouble(doubleValues), compiled.calculateDouble(doubleValues), expression);
+            assertEquals(interpreted.getVarNumber(), compiled.getVarNumber(), expression);
+        }
+    }
+
+    @Test
+    void testErrors() {
+        assertCompiledThrowsWithMessage("1/x", "Division by zero");
+        assertCompiledThrowsWithMessage("1%x", "Division by zero");
+        assertCompiledThrowsWithMessage("(-8)^0.5", "Negative base");
+        assertCompiledThrowsWithMessage("sqrt(x-1)", "Square root of negative");
+        assertCompiledThrowsWithMessage("ln(x)", "Logarithm of non-positive");
+
+        MathFunction compiled = ExpressionCompiler.compile(Parser.parseTree(Lexer.tokenize("x+y")));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> compiled.calculateDouble(new double[1]));
+        assertTrue(exception.getMessage().contains("variable y"));
+    }
+
+    @Test
+    void testMathContextFallsBackToInterpreter() {
+        MathContext precision30 = new MathContext(30);
+        ASTNode tree = Parser.parseTree("1/x + pi");
+        MathFunction function = ExpressionCompiler.compile(tree, precision30);
+        BigDecimal[] values = {new BigDecimal(3)};
+
+        assertFalse(function.getClass().isHidden());
+        assertEquals(tree.toMathFunction(precision30).calculate(values), function.calculate(values));
+        assertEquals(30, function.calculate(values).precision());
+        assertTrue(ExpressionCompiler.compile(tree, null).getClass().isHidden());
+        assertThrows(UnsupportedOperationException.class, () -> ProgramCompiler.compile(tree, precision30));
+        assertEquals(ProgramCompiler.compile(tree).calculateDouble(new double[]{3}),
+                ProgramCompiler.compile(tree, null).calculateDouble(new double[]{3}));
+    }
+
+    @Test
+    void testCompiledClassesAreHidden() {
+        MathFunction first = ExpressionCompiler.compile(Parser.parseTree(Lexer.tokenize("x+1")));
+        MathFunction second = ExpressionCompiler.compile(Parser.parseTree(Lexer.tokenize("x+1")));
+
+        assertTrue(first.getClass().isHidden());
+        assertNotSame(first.getClass(), second.getClass());
+    }
+
+    private void assertCompiledThrowsWithMessage(String expr, String messagePart) {
+        MathFunction compiled = ExpressionCompiler.compile(Parser.parseTree(Lexer.tokenize(expr)));
+        Exception exact = assertThrows(ArithmeticException.class, () ->
+                compiled.calculate(new BigDecimal[]{BigDecimal.ZERO})
+        );
+        assertTrue(exact.getMessage().contains(messagePart));
+        Exception primitive = assertThrows(ArithmeticException.class, () ->
+                compiled.calculateDouble(new double[]{0})
+        );
+        assertTrue(primitive.getMessage().contains(messagePart));
+    }
+}
@@ -0,0 +1,137 @@
+package compiler;
+
+import function.MathFunction;
+import org.junit.jupiter.api.Test;
+import parser.Optimizer;
+import parser.Parser;
+import parser.nodes.ASTNode;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionProgramTest {
+
+    @Test
+    void testMatchesInterpretedFunction() {
+        String[] expressions = {
+                "2+3*4", "(1 + 2) * (3 + (4 * (5 + 6))) / 2^3", "-x + abs(-y)", "7%3", "x%y",
+                "sqrt(x^2+y^2)", "sin(x)+cos(y)-tan(x)+catan(y)", "ln(x)+lg(y)", "x", "1.5",
+                "9999999999999999999999999999999999999999 + x", "1+2*3-4/5+6%7^8*9-10+11*12-13/14+15%16^17*18",
+                "sin(x*y) + sin(x*y) * (x*y) + (x*y)^2", "3*x^3 - 2*x^2 + x^-1 - 4*x + 1",
+                "(x < y) + (x <= 4) * 2 + (x > y) * 4 + (y >= 4) * 8 + (x == 4) - (x != y)"
+        };
+        BigDecimal[] exactValues = {new BigDecimal("4"), new BigDecimal("3")};
+        double[] doubleValues = {4, 3};
+
+        for (String expression : expressions) {
+            ASTNode plain = Parser.parseTree(expression);
+            for (ASTNode tree : new ASTNode[]{plain, Optimizer.optimize(plain)}) {
+                MathFunction interpreted = tree.toMathFunction();
+                ExpressionProgram program = ProgramCompiler.compile(tree);
+
+                assertEquals(interpreted.calculate(exactValues), program.calculate(exactValues), expression);
+                assertEquals(interpreted.calculateDouble(doubleValues), program.calculateDouble(doubleValues), expression);
+                assertEquals(interpreted.getVarNumber(), program.getVarNumber(), expression);
+            }
+        }
+    }
+
+    @Test
+    void testRegistersAreReused() {
+        ExpressionProgram program = ProgramCompiler.compile(Parser.parseTree("((((x+1)*2+3)*4+5)*6+7)*8"));
+
+        assertEquals(2, program.getRegisterCount());
+        assertEquals(((((2 + 1) * 2 + 3) * 4 + 5) * 6 + 7) * 8, program.calculateDouble(new double[]{2}));
+    }
+
+    @Test
+    void testSerializationRoundTrip() {
+        ASTNode tree = Optimizer.optimize(Parser.parseTree("sin(x*y) + sin(x*y) * 0.1 - 12345678901234567890.5 / z"));
+        ExpressionProgram program = ProgramCompiler.compile(tree);
+
+        ExpressionProgram loaded = ExpressionProgram.fromBytes(program.toBytes());
+
+        BigDecimal[] exactValues = {new BigDecimal("1.5"), new BigDecimal("2"), new BigDecimal("7")};
+        double[] doubleValues = {1.5, 2, 7};
+        assertEquals(program.calculate(exactValues), loaded.calculate(exactValues));
+        assertEquals(program.calculateDouble(doubleValues), loaded.calculateDouble(doubleValues));
+        assertEquals(program.getVarNumber(), loaded.getVarNumber());
+        assertEquals(program.getInstructionCount(), loaded.getInstructionCount());
+        assertArrayEquals(program.toBytes(), loaded.toBytes());
+
+        Exception missing = assertThrows(IllegalArgumentException.class,
+                () -> loaded.calculateDouble(new double[]{1, 2}));
+        assertEquals("Not enough values provided for variable z", missing.getMessage());
+    }
+
+    @Test
+    void testCorruptedProgramsAreRejected() {
+        byte[] bytes = ProgramCompiler.compile(Parser.parseTree("x/y + 3")).toBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> ExpressionProgram.fromBytes(new byte[]{1, 2, 3, 4}));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExpressionProgram.fromBytes(Arrays.copyOf(bytes, bytes.length - 4)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExpressionProgram.fromBytes(Arrays.copyOf(bytes, bytes.length + 1)));
+
+        byte[] badRegister = bytes.clone();
+        badRegister[badRegister.length - 1] = 100;
+        assertThrows(IllegalArgumentException.class, () -> ExpressionProgram.fromBytes(badRegister));
+
+        ExpressionProgram program = ProgramCompiler.compile(Parser.parseTree("x/y + 3"));
+        byte[] uninitialized = bytes.clone();
+        int firstOpcode = uninitialized.length - 4 * ExpressionProgram.INSTRUCTION_SIZE * program.getInstructionCount();
+        assertEquals(ExpressionProgram.LOAD_VARIABLE, uninitialized[firstOpcode + 3]);
+        uninitialized[firstOpcode + 3] = ExpressionProgram.MOVE;
+        Exception read = assertThrows(IllegalArgumentException.class,
+                () -> ExpressionProgram.fromBytes(uninitialized));
+        assertEquals("Corrupted program: invalid instruction at 0", read.getMessage());
+    }
+
+    @Test
+    void testOnlyVersionsWithTheCurrentLayoutAreRead() {
+        byte[] bytes = ProgramCompiler.compile(Parser.parseTree("x/y + 3")).toBytes();
+        assertEquals(3, bytes[5]);
+
+        bytes[5] = 2;
+        assertEquals(5, ExpressionProgram.fromBytes(bytes).calculateDouble(new double[]{4, 2}));
+        for (byte version : new byte[]{0, 1, 4}) {
+            bytes[5] = version;
+            Exception read = assertThrows(IllegalArgumentException.class, () -> ExpressionProgram.fromBytes(bytes));
+            assertEquals("Unsupported program version: " + version, read.getMessage());
+        }
+    }
+
+    @Test
+    void testRegistersAreSharedAcrossPrograms() {
+        ExpressionProgram small = ProgramCompiler.compile(Parser.parseTree("x + 1"));
+        ExpressionProgram large = ProgramCompiler.compile(Parser.parseTree(
+                "x + (x + (x + (x + (x + (x + (x + (x + (x + (x + (x + (x + (x + (x + (x + (x + (x + 1))))))))))))))))"));
+
+        assertTrue(large.getRegisterCount() > 16);
+        assertEquals(3, small.calculateDouble(new double[]{2}));
+        assertEquals(35, large.calculateDouble(new double[]{2}));
+        assertEquals(new BigDecimal(35), large.calculate(new BigDecimal[]{new BigDecimal(2)}));
+        assertEquals(new BigDecimal(3), small.calculate(new BigDecimal[]{new BigDecimal(2)}));
+    }
+
+    @Test
+    void testErrors() {
+        assertProgramThrowsWithMessage("1/x", "Division by zero");
+        assertProgramThrowsWithMessage("1%x", "Division by zero");
+        assertProgramThrowsWithMessage("(-8)^0.5", "Negative base");
+        assertProgramThrowsWithMessage("sqrt(x-1)", "Square root of negative number");
+        assertProgramThrowsWithMessage("ln(x)", "Logarithm of non-positive number");
+    }
+
+    private static void assertProgramThrowsWithMessage(String expression, String message) {
+        ExpressionProgram program = ProgramCompiler.compile(Parser.parseTree(expression));
+        Exception exact = assertThrows(ArithmeticException.class,
+                () -> program.calculate(new BigDecimal[]{BigDecimal.ZERO}));
+        assertTrue(exact.getMessage().contains(message), exact.getMessage());
+        Exception primitive = assertThrows(ArithmeticException.class, () -> program.calculateDouble(new double[]{0}));
+        assertTrue(primitive.getMessage().contains(message), primitive.getMessage());
+    }
+}
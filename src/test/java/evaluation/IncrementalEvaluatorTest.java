@@ -0,0 +1,92 @@
+package evaluation;
+
+import function.MathFunction;
+import org.junit.jupiter.api.Test;
+import parser.Optimizer;
+import parser.Parser;
+import parser.nodes.ASTNode;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalEvaluatorTest {
+
+    @Test
+    void testMatchesFullEvaluation() {
+        ASTNode tree = Optimizer.optimize(Parser.parseTree("sin(x*y) + sin(x*y) * z - sqrt(x^2 + y^2) / (1 + abs(z))"));
+        MathFunction function = tree.toMathFunction();
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(tree);
+
+        double[] values = {1.5, -2, 0.25};
+        BigDecimal[] exactValues = {new BigDecimal("1.5"), new BigDecimal("-2"), new BigDecimal("0.25")};
+        for (int i = 0; i < values.length; i++) {
+            evaluator.set(i, values[i]);
+            evaluator.set(i, exactValues[i]);
+        }
+        for (int step = 0; step < 50; step++) {
+            int changed = step % values.length;
+            values[changed] += 0.125;
+            exactValues[changed] = exactValues[changed].add(new BigDecimal("0.125"));
+            evaluator.set(changed, values[changed]);
+            evaluator.set(changed, exactValues[changed]);
+
+            assertEquals(function.calculateDouble(values), evaluator.calculateDouble());
+            assertEquals(function.calculate(exactValues), evaluator.calculate());
+        }
+    }
+
+    @Test
+    void testIntegerPowersMatchFullEvaluation() {
+        ASTNode tree = Parser.parseTree("x^2 + x^3 - y^-1 + (x + y)^4");
+        MathFunction function = tree.toMathFunction();
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(tree);
+        evaluator.set(1, 0.75);
+
+        double[] values = {0, 0.75};
+        for (int i = 0; i < 1000; i++) {
+            values[0] = 1.1 + i * 0.0137;
+            evaluator.set(0, values[0]);
+            assertEquals(function.calculateDouble(values), evaluator.calculateDouble());
+        }
+    }
+
+    @Test
+    void testOnlyDependentNodesAreRecomputed() {
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(Parser.parseTree("sin(x) * cos(x) + sqrt(y)"));
+        evaluator.set(0, 0.5);
+        evaluator.set(1, 4);
+        evaluator.calculateDouble();
+        assertEquals(evaluator.getNodeCount(), evaluator.getRecomputations());
+
+        long before = evaluator.getRecomputations();
+        evaluator.set(1, 9);
+        assertEquals(Math.sin(0.5) * Math.cos(0.5) + 3, evaluator.calculateDouble());
+        assertEquals(3, evaluator.getRecomputations() - before);
+
+        before = evaluator.getRecomputations();
+        evaluator.set(1, 9);
+        evaluator.calculateDouble();
+        assertEquals(0, evaluator.getRecomputations() - before);
+    }
+
+    @Test
+    void testMathContextAndErrors() {
+        MathContext mathContext = new MathContext(40);
+        ASTNode tree = Parser.parseTree("1 / (x - y) + lg(y)");
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(tree, mathContext);
+
+        evaluator.set(0, new BigDecimal("3"));
+        Exception missing = assertThrows(IllegalArgumentException.class, evaluator::calculate);
+        assertEquals("Not enough values provided for variable y", missing.getMessage());
+
+        evaluator.set(1, new BigDecimal("3"));
+        assertThrows(ArithmeticException.class, evaluator::calculate);
+
+        evaluator.set(1, new BigDecimal("7"));
+        BigDecimal[] values = {new BigDecimal("3"), new BigDecimal("7")};
+        assertEquals(tree.toMathFunction(mathContext).calculate(values), evaluator.calculate());
+        assertThrows(IndexOutOfBoundsException.class, () -> evaluator.set(2, 1.0));
+    }
+}
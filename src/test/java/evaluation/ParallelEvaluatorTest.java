@@ -0,0 +1,186 @@
+package evaluation;
+
+import compiler.ExpressionCompiler;
+import function.EvaluationError;
+import function.MathFunction;
+import org.junit.jupiter.api.Test;
+import parser.FunctionRegistry;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelEvaluatorTest {
+
+    @Test
+    void testDoubleSweepCollectsErrors() {
+        MathFunction function = Parser.parse("sqrt(x) / y");
+        int rows = 50_000;
+        double[][] columns = new double[2][rows];
+        for (int i = 0; i < rows; i++) {
+            columns[0][i] = i % 97 == 0 ? -1 : i;
+            columns[1][i] = i % 89 == 0 ? 0 : 1 + i % 7;
+        }
+
+        double[] out = new double[rows];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        BitSet errors;
+        try {
+            errors = new ParallelEvaluator(function, executor, 1000).evaluate(columns, out);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < rows; i++) {
+            boolean invalid = columns[0][i] < 0 || columns[1][i] == 0;
+            assertEquals(invalid, errors.get(i), "row " + i);
+            if (invalid) {
+                assertTrue(Double.isNaN(out[i]));
+            } else {
+                assertEquals(Math.sqrt(columns[0][i]) / columns[1][i], out[i], "row " + i);
+            }
+        }
+    }
+
+    @Test
+    void testErrorArrayAndBufferReuseAcrossBlocks() {
+        MathFunction function = Parser.parse("if(x > 0; ln(x); sqrt(x)) + 1 / (x - 5)");
+        int rows = 20_000;
+        double[][] columns = new double[1][rows];
+        for (int i = 0; i < rows; i++) {
+            columns[0][i] = i % 13 - 6;
+        }
+
+        double[] out = new double[rows];
+        double[] withErrors = new double[rows];
+        EvaluationError[] errors = new EvaluationError[rows];
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ParallelEvaluator evaluator = new ParallelEvaluator(function, executor, 700);
+            for (int round = 0; round < 3; round++) {
+                BitSet failed = evaluator.evaluate(columns, out);
+                assertEquals(failed, evaluator.evaluate(columns, withErrors, errors));
+                for (int i = 0; i < rows; i++) {
+                    double x = columns[0][i];
+                    boolean invalid = x < 0 || x == 5;
+                    assertEquals(invalid, failed.get(i), "row " + i);
+                    assertEquals(invalid, errors[i] != null, "row " + i);
+                    if (invalid) {
+                        assertTrue(Double.isNaN(out[i]) && Double.isNaN(withErrors[i]));
+                    } else {
+                        assertEquals(function.calculateDouble(new double[]{x}), out[i], "row " + i);
+                        assertEquals(out[i], withErrors[i], "row " + i);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testNestedEvaluationOnTheSameThread() {
+        double[][] inner = {{1, 2, 3}};
+        MathFunction total = Parser.parse("x");
+        FunctionRegistry functions = FunctionRegistry.DEFAULT.with("nested", 1, true, args -> {
+            double[] out = new double[3];
+            new ParallelEvaluator(total).evaluate(inner, out);
+            return args[0] * (out[0] + out[1] + out[2]);
+        });
+        MathFunction function = Parser.parse("nested(x) + 1", ParserOptions.DEFAULT.withFunctions(functions));
+
+        double[] out = new double[5000];
+        double[][] columns = {new double[5000]};
+        for (int i = 0; i < columns[0].length; i++) {
+            columns[0][i] = i;
+        }
+        assertTrue(new ParallelEvaluator(function).evaluate(columns, out).isEmpty());
+        for (int i = 0; i < out.length; i++) {
+            assertEquals(6 * i + 1, out[i]);
+        }
+    }
+
+    @Test
+    void testExactSweepPreservesOrder() {
+        MathFunction function = Parser.parse("1 / (x - 3)");
+        int rows = 10_000;
+        BigDecimal[][] columns = new BigDecimal[1][rows];
+        for (int i = 0; i < rows; i++) {
+            columns[0][i] = BigDecimal.valueOf(i % 10);
+        }
+
+        BigDecimal[] out = new BigDecimal[rows];
+        BitSet errors = new ParallelEvaluator(function).evaluate(columns, out);
+
+        assertEquals(rows / 10, errors.cardinality());
+        for (int i = 0; i < rows; i++) {
+            if (i % 10 == 3) {
+                assertTrue(errors.get(i));
+                assertNull(out[i]);
+            } else {
+                assertEquals(function.calculate(new BigDecimal[]{columns[0][i]}), out[i]);
+            }
+        }
+    }
+
+    @Test
+    void testParsedFunctionsAreSafeToShare() throws Exception {
+        String expression = "sin(x*y) + sin(x*y) * sqrt(x^2 + y^2) - x % 3 + abs(-y) / 7";
+        List<MathFunction> functions = List.of(
+                Parser.parse(expression),
+                Parser.parse(expression, ParserOptions.DEFAULT.withOptimization(true)),
+                ExpressionCompiler.compile(Parser.parseTree(expression))
+        );
+        int points = 2_000;
+        double[][] inputs = new double[points][];
+        for (int i = 0; i < points; i++) {
+            inputs[i] = new double[]{i * 0.37, 5 - i * 0.11};
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (MathFunction function : functions) {
+                double[] expected = new double[points];
+                BigDecimal[] expectedExact = new BigDecimal[points];
+                for (int i = 0; i < points; i++) {
+                    expected[i] = function.calculateDouble(inputs[i]);
+                    expectedExact[i] = function.calculate(exact(inputs[i]));
+                }
+
+                List<Future<?>> workers = new ArrayList<>();
+                for (int worker = 0; worker < 8; worker++) {
+                    int offset = worker;
+                    workers.add(executor.submit(() -> {
+                        for (int round = 0; round < 20; round++) {
+                            for (int i = offset; i < points; i += 3) {
+                                assertEquals(expected[i], function.calculateDouble(inputs[i]));
+                                assertEquals(expectedExact[i], function.calculate(exact(inputs[i])));
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> result : workers) {
+                    result.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static BigDecimal[] exact(double[] values) {
+        BigDecimal[] result = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = BigDecimal.valueOf(values[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package function;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigDecimalMathTest {
+    private static final MathContext PRECISION_50 = new MathContext(50);
+
+    @Test
+    void testTranscendentalsAtHighPrecision() {
+        assertDigits("3.1415926535897932384626433832795028841971693993751", BigDecimalMath.pi(PRECISION_50));
+        assertDigits("2.7182818284590452353602874713526624977572470937000",
+                BigDecimalMath.exp(BigDecimal.ONE, PRECISION_50));
+        assertDigits("0.000045399929762484851535591515560550610237918088866565",
+                BigDecimalMath.exp(BigDecimal.valueOf(-10), PRECISION_50));
+        assertDigits("0.69314718055994530941723212145817656807550013436026",
+                BigDecimalMath.ln(BigDecimal.valueOf(2), PRECISION_50));
+        assertDigits("116.22786693837039389229481797114073608470256498926",
+                BigDecimalMath.ln(new BigDecimal("3E50"), PRECISION_50));
+        assertDigits("0.84509804001425683071221625859263619348357239632397",
+                BigDecimalMath.lg(BigDecimal.valueOf(7), PRECISION_50));
+        assertDigits("0.84147098480789650665250232163029899962256306079837",
+                BigDecimalMath.sin(BigDecimal.ONE, PRECISION_50));
+        assertDigits("0.54030230586813971740093660744297660373231042061792",
+                BigDecimalMath.cos(BigDecimal.ONE, PRECISION_50));
+        assertDigits("1.5574077246549022305069748074583601730872507723815",
+                BigDecimalMath.tan(BigDecimal.ONE, PRECISION_50));
+        assertDigits("1.1071487177940905030170654601785370400700476454014",
+                BigDecimalMath.atan(BigDecimal.valueOf(2), PRECISION_50));
+        assertDigits("-0.50636564110975879365655761045978543206503272129066",
+                BigDecimalMath.sin(BigDecimal.valueOf(100), PRECISION_50));
+        assertDigits("2.7556759606310753604719445840441278159616909157388",
+                BigDecimalMath.pow(new BigDecimal("1.5"), new BigDecimal("2.5"), PRECISION_50));
+        assertDigits("1.4142135623730950488016887242096980785696718753769",
+                BigDecimalMath.sqrt(BigDecimal.valueOf(2), PRECISION_50));
+    }
+
+    @Test
+    void testMatchesDoubleFunctions() {
+        double[] inputs = {-7.5, -1, -0.25, 0.001, 0.5, 1, 2.25, 10, 123.456};
+        for (double input : inputs) {
+            BigDecimal value = new BigDecimal(input);
+            assertClose(Math.sin(input), BigDecimalMath.sin(value, MathContext.DECIMAL64));
+            assertClose(Math.cos(input), BigDecimalMath.cos(value, MathContext.DECIMAL64));
+            assertClose(Math.tan(input), BigDecimalMath.tan(value, MathContext.DECIMAL64));
+            assertClose(Math.atan(input), BigDecimalMath.atan(value, MathContext.DECIMAL64));
+            assertClose(Math.exp(input), BigDecimalMath.exp(value, MathContext.DECIMAL64));
+            if (input > 0) {
+                assertClose(Math.log(input), BigDecimalMath.ln(value, MathContext.DECIMAL64));
+                assertClose(Math.log10(input), BigDecimalMath.lg(value, MathContext.DECIMAL64));
+                assertClose(Math.pow(input, 1.75), BigDecimalMath.pow(value, new BigDecimal("1.75"),
+                        MathContext.DECIMAL64));
+            }
+        }
+    }
+
+    @Test
+    void testIntegerFastPaths() {
+        BigDecimal big = new BigDecimal("999999999999999999");
+
+        assertEquals(new BigDecimal("1999999999999999998"), BigDecimalMath.add(big, big, MathContext.DECIMAL128));
+        assertEquals(new BigDecimal("2.000000E+18"), BigDecimalMath.add(big, big, MathContext.DECIMAL32));
+        assertEquals(new BigDecimal("-1"), BigDecimalMath.subtract(BigDecimal.ONE, BigDecimal.valueOf(2),
+                MathContext.DECIMAL32));
+        assertEquals(new BigDecimal("999999999999999998000000000000000001"),
+                BigDecimalMath.multiply(big, big, MathContext.UNLIMITED));
+        assertEquals(BigDecimal.valueOf(-1), BigDecimalMath.remainder(BigDecimal.valueOf(-7), BigDecimal.valueOf(3),
+                MathContext.DECIMAL32));
+        assertEquals(new BigDecimal("1024"), BigDecimalMath.pow(BigDecimal.valueOf(2), BigDecimal.TEN,
+                MathContext.DECIMAL64));
+        assertEquals(0, new BigDecimal("0.125").compareTo(BigDecimalMath.pow(BigDecimal.valueOf(2),
+                BigDecimal.valueOf(-3), MathContext.DECIMAL64)));
+    }
+
+    @Test
+    void testErrors() {
+        assertError("Division by zero", () -> BigDecimalMath.divide(BigDecimal.ONE, BigDecimal.ZERO, PRECISION_50));
+        assertError("Division by zero", () -> BigDecimalMath.remainder(BigDecimal.ONE, BigDecimal.ZERO, PRECISION_50));
+        assertError("Square root of negative number", () -> BigDecimalMath.sqrt(BigDecimal.ONE.negate(), PRECISION_50));
+        assertError("Logarithm of non-positive number", () -> BigDecimalMath.ln(BigDecimal.ZERO, PRECISION_50));
+        assertError("Negative base with fractional exponent is not real",
+                () -> BigDecimalMath.pow(BigDecimal.valueOf(-8), new BigDecimal("0.5"), PRECISION_50));
+    }
+
+    private static void assertDigits(String expected, BigDecimal actual) {
+        assertEquals(new BigDecimal(expected).round(PRECISION_50), actual.round(PRECISION_50));
+    }
+
+    private static void assertClose(double expected, BigDecimal actual) {
+        assertEquals(expected, actual.doubleValue(), Math.ulp(expected) * 4);
+    }
+
+    private static void assertError(String message, Runnable operation) {
+        ArithmeticException exception = assertThrows(ArithmeticException.class, operation::run);
+        assertEquals(message, exception.getMessage());
+    }
+}
@@ -0,0 +1,137 @@
+package function;
+
+import compiler.ExpressionCompiler;
+import org.junit.jupiter.api.Test;
+import parser.FunctionRegistry;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorPolicyTest {
+    private static final FunctionRegistry FUNCTIONS = FunctionRegistry.DEFAULT.with("inv", 1, true, args -> {
+        if (args[0] == 0) {
+            throw new ArithmeticException("Inverse of zero");
+        }
+        return 1 / args[0];
+    });
+
+    private static final List<String> EXPRESSIONS = List.of(
+            "x / y", "x % y", "sqrt(x) + ln(y)", "lg(x - y) * sqrt(y)", "x ^ (y / 4)", "(sqrt(x) + 1) ^ 0",
+            "1 / (sqrt(x) - 1) + sqrt(x) / y", "inv(x - 1) + max(sqrt(y); x / (y - 2))", "abs(x) ^ 0.5 - sin(y)",
+            "if(x > 0; sqrt(x); ln(-x)) + if(y != 0; x / y; if(x >= 1; 1 / (x - 2); 0))");
+
+    @Test
+    void testStatusesMatchThrownExceptionsExactly() {
+        Random random = new Random(5);
+        EvaluationStatus status = new EvaluationStatus();
+        for (String expression : EXPRESSIONS) {
+            for (boolean optimize : new boolean[]{false, true}) {
+                ParserOptions options = ParserOptions.DEFAULT.withFunctions(FUNCTIONS).withOptimization(optimize);
+                MathFunction throwing = Parser.parse(expression, options);
+                MathFunction lenient = Parser.parse(expression, options.withErrorPolicy(ErrorPolicy.NAN));
+
+                for (int i = 0; i < 2000; i++) {
+                    double[] values = {random.nextInt(9) - 4 + (i % 3 == 0 ? 0.5 : 0), random.nextInt(9) - 4};
+                    String context = expression + " at " + values[0] + ", " + values[1];
+                    double lenientValue = lenient.calculateDouble(values);
+                    double reported = lenient.calculateDouble(values, status.reset());
+                    try {
+                        double expected = throwing.calculateDouble(values);
+                        assertTrue(status.isOk(), context);
+                        assertEquals(expected, lenientValue, context);
+                        assertEquals(expected, reported, context);
+                    } catch (ArithmeticException e) {
+                        assertEquals(e.getMessage(), status.getMessage(), context);
+                        assertEquals(EvaluationError.of(e.getMessage()), status.getError(), context);
+                        assertTrue(Double.isNaN(lenientValue), context);
+                        assertTrue(Double.isNaN(reported), context);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBatchEvaluationReportsPerPointErrors() {
+        int rows = 5000;
+        double[][] columns = new double[2][rows];
+        for (int i = 0; i < rows; i++) {
+            columns[0][i] = i % 11 - 5;
+            columns[1][i] = i % 7 - 3;
+        }
+
+        for (String expression : EXPRESSIONS) {
+            ParserOptions options = ParserOptions.DEFAULT.withFunctions(FUNCTIONS).withOptimization(true);
+            MathFunction throwing = Parser.parse(expression, options);
+            MathFunction lenient = Parser.parse(expression, options.withErrorPolicy(ErrorPolicy.NAN));
+            double[] out = new double[rows];
+            double[] lenientOut = new double[rows];
+            EvaluationError[] errors = new EvaluationError[rows];
+            throwing.evaluate(columns, 0, rows, out, errors);
+            lenient.evaluate(columns, lenientOut);
+
+            EvaluationStatus status = new EvaluationStatus();
+            for (int i = 0; i < rows; i++) {
+                double expected = throwing.calculateDouble(new double[]{columns[0][i], columns[1][i]}, status.reset());
+                assertEquals(status.getError(), errors[i], expression + " row " + i);
+                assertEquals(status.isOk() ? expected : Double.NaN, out[i], expression + " row " + i);
+                assertEquals(out[i], lenientOut[i], expression + " row " + i);
+            }
+            if (expression.contains("/")) {
+                assertThrows(ArithmeticException.class, () -> throwing.evaluate(columns, out));
+            }
+        }
+    }
+
+    @Test
+    void testCompiledFunctionsReportWithoutThrowing() {
+        MathFunction compiled = ExpressionCompiler.compile(Parser.parseTree("sqrt(x) / y"));
+        EvaluationStatus status = new EvaluationStatus();
+
+        assertEquals(2, compiled.calculateDouble(new double[]{16, 2}, status));
+        assertTrue(status.isOk());
+        assertTrue(Double.isNaN(compiled.calculateDouble(new double[]{-1, 0}, status)));
+        assertEquals(EvaluationError.NEGATIVE_SQUARE_ROOT, status.getError());
+        assertEquals("Square root of negative number", status.toException().getMessage());
+        assertThrows(ArithmeticException.class,
+                () -> ErrorPolicy.THROW.apply(compiled).calculateDouble(new double[]{4, 0}));
+        assertTrue(Double.isNaN(ErrorPolicy.NAN.apply(compiled).calculateDouble(new double[]{4, 0})));
+    }
+
+    @Test
+    void testNanPolicyReusesStatusPerThread() {
+        MathFunction lenient = Parser.parse("sqrt(x) / y + ln(y - 1)",
+                ParserOptions.DEFAULT.withErrorPolicy(ErrorPolicy.NAN));
+        FunctionRegistry functions = FunctionRegistry.DEFAULT.with("f", 1, true,
+                args -> lenient.calculateDouble(new double[]{args[0], 2}));
+        MathFunction nested = Parser.parse("x / f(y)",
+                ParserOptions.DEFAULT.withFunctions(functions).withErrorPolicy(ErrorPolicy.NAN));
+        double[][] points = {{16, 2}, {-1, 2}, {4, 0}, {4, 1}};
+        Runnable loop = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                double[] values = points[i % points.length];
+                double value = lenient.calculateDouble(values);
+                assertEquals(i % points.length == 0, !Double.isNaN(value));
+            }
+        };
+        loop.run();
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        loop.run();
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 10_000, "allocated " + allocated + " bytes");
+        assertEquals(4, nested.calculateDouble(new double[]{8, 16}));
+        assertTrue(Double.isNaN(nested.calculateDouble(new double[]{8, -1})));
+        assertTrue(Double.isNaN(nested.calculateDouble(new double[]{8, 0})));
+        assertEquals(4, nested.calculateDouble(new double[]{8, 16}));
+    }
+}
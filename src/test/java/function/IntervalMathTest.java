@@ -0,0 +1,114 @@
+package function;
+
+import org.junit.jupiter.api.Test;
+import parser.FunctionRegistry;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalMathTest {
+
+    @Test
+    void testBoundsEncloseSampledPoints() {
+        String[] expressions = {
+                "x*y - x/(1 + y*y)", "sin(x) * cos(y) + tan(x / 4)", "catan(x*y) - abs(x - y)",
+                "x^2 - y^3 + (x*y)^-2", "2^x + x^y", "x % y + sqrt(abs(x))", "ln(x*x + 1) - lg(y*y + 2)",
+                "sin(x*x + y) + sin(x*x + y) * y - 0.1 * x", "max(x; y*y; -1) - min(x; y) + hypot(x; y - 1)"
+        };
+        Random random = new Random(42);
+        for (String expression : expressions) {
+            MathFunction function = Parser.parse(expression, ParserOptions.DEFAULT.withOptimization(true));
+            for (int box = 0; box < 200; box++) {
+                Interval[] ranges = {randomInterval(random), randomInterval(random)};
+                Interval result;
+                try {
+                    result = function.calculateInterval(ranges);
+                } catch (ArithmeticException e) {
+                    continue;
+                }
+
+                for (int sample = 0; sample < 50; sample++) {
+                    double[] point = {sample(random, ranges[0]), sample(random, ranges[1])};
+                    double value;
+                    try {
+                        value = function.calculateDouble(point);
+                    } catch (ArithmeticException e) {
+                        assertTrue(result.domainError(), expression + " over " + ranges[0] + ", " + ranges[1]);
+                        continue;
+                    }
+                    if (!Double.isNaN(value)) {
+                        assertTrue(result.contains(value), expression + " = " + value + " at (" + point[0] + ", "
+                                + point[1] + ") outside " + result);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testTightBoundsForMonotoneAndPeriodicFunctions() {
+        Interval sin = Parser.parse("sin(x)").calculateInterval(new Interval[]{Interval.of(0, 2)});
+        assertEquals(1, sin.high());
+        assertEquals(0, sin.low(), 1e-15);
+
+        Interval square = Parser.parse("x^2").calculateInterval(new Interval[]{Interval.of(-3, 2)});
+        assertEquals(0, square.low());
+        assertEquals(9, square.high(), 1e-14);
+
+        Interval ratio = Parser.parse("x / y").calculateInterval(new Interval[]{Interval.of(1, 2), Interval.of(4, 8)});
+        assertEquals(0.125, ratio.low(), 1e-15);
+        assertEquals(0.5, ratio.high(), 1e-15);
+        assertFalse(ratio.domainError());
+    }
+
+    @Test
+    void testDomainErrorsAreSignalled() {
+        Interval partial = Parser.parse("sqrt(x)").calculateInterval(new Interval[]{Interval.of(-1, 4)});
+        assertTrue(partial.domainError());
+        assertEquals(0, partial.low());
+        assertEquals(2, partial.high(), 1e-15);
+
+        assertTrue(Parser.parse("1 / x").calculateInterval(new Interval[]{Interval.of(0, 1)}).domainError());
+        assertTrue(Parser.parse("ln(x) + 1").calculateInterval(new Interval[]{Interval.of(-1, 1)}).domainError());
+        assertTrue(Parser.parse("x ^ 0.5").calculateInterval(new Interval[]{Interval.of(-1, 1)}).domainError());
+
+        Exception negative = assertThrows(ArithmeticException.class,
+                () -> Parser.parse("sqrt(x)").calculateInterval(new Interval[]{Interval.of(-4, -1)}));
+        assertEquals("Square root of negative number", negative.getMessage());
+        assertThrows(ArithmeticException.class,
+                () -> Parser.parse("1 / x").calculateInterval(new Interval[]{Interval.point(0)}));
+        assertThrows(IllegalArgumentException.class, () -> Interval.of(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parse("x + y").calculateInterval(new Interval[1]));
+    }
+
+    @Test
+    void testUserFunctionsWithoutIntervalHook() {
+        FunctionRegistry functions = FunctionRegistry.DEFAULT.with("twice", 1, true, args -> 2 * args[0]);
+        MathFunction function = Parser.parse("twice(y) + x", ParserOptions.DEFAULT.withFunctions(functions));
+
+        Interval point = function.calculateInterval(new Interval[]{Interval.point(1.5), Interval.of(0, 1)});
+        assertTrue(point.contains(3) && point.contains(4));
+        assertEquals(4, point.high(), 1e-14);
+
+        Exception unsupported = assertThrows(UnsupportedOperationException.class,
+                () -> function.calculateInterval(new Interval[]{Interval.of(1, 2), Interval.point(0)}));
+        assertEquals("Function twice does not define interval evaluation", unsupported.getMessage());
+    }
+
+    private static Interval randomInterval(Random random) {
+        double first = (random.nextDouble() - 0.5) * 10;
+        double second = first + random.nextDouble() * (random.nextBoolean() ? 0.5 : 8);
+        return Interval.of(first, second);
+    }
+
+    private static double sample(Random random, Interval range) {
+        return switch (random.nextInt(6)) {
+            case 0 -> range.low();
+            case 1 -> range.high();
+            default -> range.low() + random.nextDouble() * range.width();
+        };
+    }
+}
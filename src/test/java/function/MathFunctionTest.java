@@ -0,0 +1,244 @@
+package function;
+
+import compiler.ExpressionCompiler;
+import lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import parser.Differentiator;
+import parser.FunctionRegistry;
+import parser.Parser;
+import parser.ParserOptions;
+import parser.nodes.ASTNode;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathFunctionTest {
+
+    @Test
+    void testBatchMatchesRowEvaluation() {
+        String[] expressions = {
+                "x+y", "x*y-x/y", "-x^2 + abs(y)", "sqrt(x^2+y^2)", "sin(x)*cos(y)+tan(x)-catan(y)",
+                "ln(x)+lg(y)", "x%y", "3", "2*pi"
+        };
+        int rows = 2 * MathFunction.CHUNK_SIZE + 17;
+        double[][] columns = new double[2][rows];
+        for (int i = 0; i < rows; i++) {
+            columns[0][i] = 1 + i * 0.25;
+            columns[1][i] = 0.5 + (i % 13);
+        }
+
+        for (String expression : expressions) {
+            MathFunction function = Parser.parse(Lexer.tokenize(expression));
+            double[] out = new double[rows];
+            function.evaluate(columns, out);
+
+            for (int i = 0; i < rows; i++) {
+                double expected = function.calculateDouble(new double[]{columns[0][i], columns[1][i]});
+                assertEquals(expected, out[i], expression + " at row " + i);
+            }
+        }
+    }
+
+    @Test
+    void testBatchRange() {
+        MathFunction function = Parser.parse(Lexer.tokenize("x*2"));
+        double[][] columns = {{1, 2, 3, 4}};
+        double[] out = new double[4];
+
+        function.evaluate(columns, 1, 3, out);
+
+        assertArrayEquals(new double[]{0, 4, 6, 0}, out);
+    }
+
+    @Test
+    void testBatchFallsBackToRowEvaluation() {
+        MathFunction function = ExpressionCompiler.compile(Parser.parseTree(Lexer.tokenize("x*y+1")));
+        double[][] columns = {{1, 2, 3}, {4, 5, 6}};
+        double[] out = new double[3];
+
+        function.evaluate(columns, out);
+
+        assertArrayEquals(new double[]{5, 11, 19}, out);
+    }
+
+    @Test
+    void testBatchErrors() {
+        double[][] columns = {{1, 0, 3}};
+        double[] out = new double[3];
+
+        Exception division = assertThrows(ArithmeticException.class, () ->
+                Parser.parse(Lexer.tokenize("1/x")).evaluate(columns, out));
+        assertTrue(division.getMessage().contains("Division by zero"));
+
+        Exception shortColumn = assertThrows(IllegalArgumentException.class, () ->
+                Parser.parse(Lexer.tokenize("x")).evaluate(columns, new double[4]));
+        assertTrue(shortColumn.getMessage().contains("fewer than 4 rows"));
+
+        Exception missingColumn = assertThrows(IllegalArgumentException.class, () ->
+                Parser.parse(Lexer.tokenize("x+y")).evaluate(columns, out));
+        assertTrue(missingColumn.getMessage().contains("Not enough values provided for variable y"));
+    }
+
+    @Test
+    void testGradientMatchesSymbolicDerivatives() {
+        String[] expressions = {
+                "x+y", "x*y-x/y", "-x^2 + abs(y)", "sqrt(x^2+y^2)", "sin(x)*cos(y)+tan(x)-catan(y)",
+                "ln(x)+lg(y)", "x%y", "x^y", "3", "sin(x*y) + sin(x*y) * (x*y)"
+        };
+        double[][] points = {{1.5, 2.5}, {3.25, 0.75}};
+
+        for (String expression : expressions) {
+            ASTNode tree = Parser.parseTree(Lexer.tokenize(expression));
+            MathFunction[] functions = {
+                    tree.toMathFunction(),
+                    Parser.parse(expression, ParserOptions.DEFAULT.withOptimization(true)),
+                    ExpressionCompiler.compile(tree)
+            };
+            MultiMathFunction symbolic = Differentiator.gradientFunction(tree);
+
+            for (double[] point : points) {
+                double[] expected = symbolic.calculateDouble(point);
+                for (MathFunction function : functions) {
+                    double[] gradient = new double[point.length];
+                    double value = function.calculateWithGradient(point, gradient);
+
+                    assertEquals(tree.toMathFunction().calculateDouble(point), value, 1e-12, expression);
+                    for (int i = 0; i < expected.length; i++) {
+                        assertEquals(expected[i], gradient[i], 1e-9 * Math.max(1, Math.abs(expected[i])), expression);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testGradientThroughFunctionCalls() {
+        ASTNode tree = Parser.parseTree("max(x*y; y^2; 1) + min(sin(x); y) * hypot(x; y - 1)");
+        MultiMathFunction symbolic = Differentiator.gradientFunction(tree);
+        MathFunction function = tree.toMathFunction();
+        double[][] points = {{1.5, 2.5}, {3.25, 0.75}, {-0.5, 1}};
+
+        for (double[] point : points) {
+            double[] expected = symbolic.calculateDouble(point);
+            double[] gradient = new double[point.length];
+            assertEquals(function.calculateDouble(point), function.calculateWithGradient(point, gradient), 1e-12);
+            assertArrayEquals(expected, gradient, 1e-12);
+        }
+
+        FunctionRegistry functions = FunctionRegistry.DEFAULT.with("twice", 1, true, args -> 2 * args[0]);
+        Exception unsupported = assertThrows(UnsupportedOperationException.class, () -> Parser
+                .parse("twice(x)", ParserOptions.DEFAULT.withFunctions(functions))
+                .calculateWithGradient(new double[]{1}, new double[1]));
+        assertEquals("Function twice does not define partial derivatives", unsupported.getMessage());
+    }
+
+    @Test
+    void testGradientReusesBuffers() {
+        MathFunction function = Parser.parse("sin(x*y) + sin(x*y) * sqrt(x^2 + y^2) - x % 3",
+                ParserOptions.DEFAULT.withOptimization(true));
+        double[] point = {1.25, 0.5};
+        double[] gradient = new double[2];
+        GradientBuffers buffers = new GradientBuffers();
+        for (int i = 0; i < 20_000; i++) {
+            function.calculateWithGradient(point, gradient, buffers);
+            function.calculateWithGradient(point, gradient);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 10_000; i++) {
+            function.calculateWithGradient(point, gradient, buffers);
+            function.calculateWithGradient(point, gradient);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void testCommonSubexpressionBlocksDoNotAllocate() {
+        MathFunction function = Parser.parse("sqrt(x*x+y*y)/(1+sqrt(x*x+y*y))+ln(x*x+y*y)",
+                ParserOptions.DEFAULT.withOptimization(true));
+        double[] point = {1.25, 0.5};
+        double[][] columns = {{1.25, 2, 3}, {0.5, 1, 1.5}};
+        double[] out = new double[3];
+        EvaluationError[] errors = new EvaluationError[3];
+        ChunkBuffers buffers = new ChunkBuffers();
+        Runnable evaluation = () -> {
+            for (int i = 0; i < 10_000; i++) {
+                function.calculateDouble(point);
+                function.evaluate(columns, 0, 3, out, errors, buffers);
+            }
+        };
+
+        evaluation.run();
+        long allocated = allocatedBytes(evaluation);
+
+        assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes");
+        assertEquals(Parser.parse("sqrt(x*x+y*y)/(1+sqrt(x*x+y*y))+ln(x*x+y*y)").calculateDouble(point),
+                function.calculateDouble(point));
+    }
+
+    @Test
+    void testFunctionCallsDoNotAllocate() {
+        MathFunction function = Parser.parse("max(x; y)*x + hypot(x; y)");
+        double[] point = {3, 4};
+        double[] gradient = new double[2];
+        double[][] columns = {{3, 1, -2}, {4, 5, 0.5}};
+        double[] out = new double[3];
+        EvaluationError[] errors = new EvaluationError[3];
+        ChunkBuffers buffers = new ChunkBuffers();
+        Runnable evaluation = () -> {
+            for (int i = 0; i < 10_000; i++) {
+                function.calculateWithGradient(point, gradient);
+                function.evaluate(columns, 0, 3, out, errors, buffers);
+            }
+        };
+
+        evaluation.run();
+        long allocated = allocatedBytes(evaluation);
+
+        assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes");
+        assertArrayEquals(new double[]{4 + 0.6, 3 + 0.8}, gradient, 1e-12);
+        assertEquals(17, out[0], 1e-12);
+    }
+
+    @Test
+    void testGradientErrors() {
+        double[] gradient = new double[1];
+
+        Exception division = assertThrows(ArithmeticException.class, () ->
+                Parser.parse("1/x").calculateWithGradient(new double[]{0}, gradient));
+        assertEquals("Division by zero", division.getMessage());
+
+        Exception logarithm = assertThrows(ArithmeticException.class, () ->
+                Parser.parse("ln(x)").calculateWithGradient(new double[]{-1}, gradient));
+        assertEquals("Logarithm of non-positive number", logarithm.getMessage());
+
+        MathFunction custom = new MathFunction(0) {
+            @Override
+            public BigDecimal calculate(BigDecimal[] values) {
+                return BigDecimal.ONE;
+            }
+
+            @Override
+            public double calculateDouble(double[] values) {
+                return 1;
+            }
+        };
+        assertThrows(UnsupportedOperationException.class, () -> custom.calculateWithGradient(new double[0], gradient));
+    }
+
+    private static long allocatedBytes(Runnable action) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        action.run();
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+}
@@ -55,9 +55,36 @@ class LexerTest {
     }
 
     @Test
-    void testInvalidMultiLetterVariable() {
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> Lexer.tokenize("abc + 2"));
-        assertTrue(exception.getMessage().contains("Variables must be single-letter"));
+    void testMultiLetterVariablesAndFunctionCalls() {
+        List<Token> tokens = Lexer.tokenize("Rate_2 * max(x; -y)");
+        assertEquals(List.of(
+                new Token(Token.TokenType.VARIABLE, "rate_2"),
+                new Token(Token.TokenType.BINARY_OPERATION, "*"),
+                new Token(Token.TokenType.FUNCTION, "max"),
+                new Token(Token.TokenType.LEFT_PARENTHESIS, "("),
+                new Token(Token.TokenType.VARIABLE, "x"),
+                new Token(Token.TokenType.SEPARATOR, ";"),
+                new Token(Token.TokenType.UNARY_OPERATION, "-"),
+                new Token(Token.TokenType.VARIABLE, "y"),
+                new Token(Token.TokenType.RIGHT_PARENTHESIS, ")")), tokens);
+        assertEquals(Token.TokenType.UNARY_OPERATION, Lexer.tokenize("sin(x)").get(0).type());
+        assertEquals(Token.TokenType.FUNCTION, Lexer.tokenize("max (x; y)").get(0).type());
+    }
+
+    @Test
+    void testIdentifiersStopAtKeywordsAndWhitespace() {
+        assertEquals(List.of(
+                new Token(Token.TokenType.UNARY_OPERATION, "sin"),
+                new Token(Token.TokenType.NUMBER, "2"),
+                new Token(Token.TokenType.BINARY_OPERATION, "+"),
+                new Token(Token.TokenType.UNARY_OPERATION, "lg"),
+                new Token(Token.TokenType.NUMBER, "10")), Lexer.tokenize("sin2 + lg10"));
+        assertEquals(List.of(
+                new Token(Token.TokenType.VARIABLE, "x"),
+                new Token(Token.TokenType.VARIABLE, "y")), Lexer.tokenize("x y"));
+        assertEquals(List.of(
+                new Token(Token.TokenType.UNARY_OPERATION, "sin"),
+                new Token(Token.TokenType.VARIABLE, "x")), Lexer.tokenize("sin x"));
     }
 
     @Test
@@ -86,4 +113,60 @@ class LexerTest {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> Lexer.tokenize(""));
         assertTrue(exception.getMessage().contains("cannot be null or empty"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testWhitespaceAndDecimalCommaAreNormalized() {
+        assertEquals(Lexer.tokenize("12.5*x"), Lexer.tokenize(" 1 2 , 5 *\tX "));
+        assertEquals(Lexer.tokenize("sin(x)"), Lexer.tokenize("sin ( x )"));
+        assertEquals("x+1", Lexer.normalize(" x +\n1 "));
+    }
+
+    @Test
+    void testErrorPositionsIgnoreWhitespace() {
+        Exception dots = assertThrows(IllegalArgumentException.class, () -> Lexer.tokenize("1 + 2.3.4"));
+        assertTrue(dots.getMessage().contains("multiple dots at position 6"));
+        Exception unknown = assertThrows(IllegalArgumentException.class, () -> Lexer.tokenize("1 + #"));
+        assertTrue(unknown.getMessage().contains("'#' at position 3"));
+    }
+
+    @Test
+    void testCursorOffsetsAndInternedTokens() {
+        TokenCursor cursor = new TokenCursor("x + 12");
+
+        assertEquals(Token.TokenType.VARIABLE, cursor.next());
+        assertEquals(0, cursor.start());
+        assertEquals(1, cursor.end());
+        assertEquals(Token.TokenType.BINARY_OPERATION, cursor.next());
+        assertSame(cursor.token(), Lexer.tokenize("1+2").get(1));
+        assertEquals(Token.TokenType.NUMBER, cursor.next());
+        assertEquals(4, cursor.start());
+        assertEquals(6, cursor.end());
+        assertEquals(new java.math.BigDecimal("12"), cursor.numberValue());
+        assertNull(cursor.next());
+    }
+
+    @Test
+    void testComparisonOperatorsAndConditionals() {
+        assertEquals(List.of(
+                new Token(Token.TokenType.FUNCTION, "if"),
+                new Token(Token.TokenType.LEFT_PARENTHESIS, "("),
+                new Token(Token.TokenType.VARIABLE, "x"),
+                new Token(Token.TokenType.BINARY_OPERATION, "<="),
+                new Token(Token.TokenType.UNARY_OPERATION, "-"),
+                new Token(Token.TokenType.NUMBER, "1"),
+                new Token(Token.TokenType.SEPARATOR, ";"),
+                new Token(Token.TokenType.VARIABLE, "y"),
+                new Token(Token.TokenType.BINARY_OPERATION, "!="),
+                new Token(Token.TokenType.NUMBER, "2"),
+                new Token(Token.TokenType.SEPARATOR, ";"),
+                new Token(Token.TokenType.NUMBER, "0"),
+                new Token(Token.TokenType.RIGHT_PARENTHESIS, ")")), Lexer.tokenize("if(x < = -1; y != 2; 0)"));
+        assertEquals(Lexer.tokenize("a<b"), Lexer.tokenize("a < b"));
+        assertEquals(">=", Lexer.tokenize("x>=y").get(1).value());
+        assertEquals("==", Lexer.tokenize("x==y").get(1).value());
+
+        Exception assignment = assertThrows(IllegalArgumentException.class, () -> Lexer.tokenize("x = 1"));
+        assertTrue(assignment.getMessage().contains("'=' at position 2"));
+        assertThrows(IllegalArgumentException.class, () -> Lexer.tokenize("!x"));
+    }
+}
@@ -0,0 +1,171 @@
+package metrics;
+
+import function.MathFunction;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testHistogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(7);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long estimate = histogram.getValueAtPercentile(percentile);
+            assertTrue(estimate >= exact && estimate <= exact + exact / 16 + 1,
+                    percentile + "th: " + estimate + " vs " + exact);
+        }
+        for (int bits = 1; bits <= LatencyHistogram.DEFAULT_SUB_BUCKET_BITS; bits++) {
+            for (long value = 0; value < 1 << 20; value += 997) {
+                int index = LatencyHistogram.indexOf(value, bits);
+                assertTrue(index < LatencyHistogram.bucketCount(bits));
+                assertTrue(LatencyHistogram.highestEquivalentValue(index, bits) >= value);
+            }
+        }
+    }
+
+    @Test
+    void testExpressionHistogramsAreCoarseAndLazy() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.instrument("x + 1", Parser.parse("x + 1"));
+        LatencyHistogram latency = registry.getMetrics("x + 1").getLatency();
+
+        assertFalse(latency.isAllocated());
+        assertEquals(0, latency.getValueAtPercentile(99));
+        assertTrue(latency.getBucketCount() < registry.getPhase(MetricsSnapshot.Phase.EVALUATE).getBucketCount() / 3);
+
+        Random random = new Random(11);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);
+            latency.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertTrue(latency.isAllocated());
+        for (double percentile : new double[]{50, 90, 99}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long estimate = latency.getValueAtPercentile(percentile);
+            assertTrue(estimate >= exact && estimate <= exact + exact / 4 + 1,
+                    percentile + "th: " + estimate + " vs " + exact);
+        }
+    }
+
+    @Test
+    void testExpressionsBeyondTheCapShareOneBucket() {
+        MetricsRegistry registry = new MetricsRegistry(2);
+        double[] values = {3};
+        for (int i = 0; i < 5; i++) {
+            String expression = "x + " + i;
+            MathFunction function = registry.instrument(expression, Parser.parse(expression));
+            assertEquals(3 + i, function.calculateDouble(values));
+        }
+        MathFunction failing = registry.parse("1 / (x - 3)");
+        assertThrows(ArithmeticException.class, () -> failing.calculateDouble(values));
+
+        assertEquals(1, registry.getMetrics("x + 0").getInvocations());
+        assertEquals(1, registry.getMetrics("x + 1").getInvocations());
+        assertNull(registry.getMetrics("x + 2"));
+        assertEquals(4, registry.getOtherMetrics().getInvocations());
+        assertEquals(1, registry.getOtherMetrics().getErrors());
+
+        List<MetricsSnapshot.Expression> expressions = registry.snapshot().expressions();
+        assertEquals(List.of("x + 0", "x + 1", MetricsRegistry.OTHER_EXPRESSIONS),
+                expressions.stream().map(MetricsSnapshot.Expression::expression).toList());
+        assertEquals(4, expressions.get(2).invocations());
+
+        registry.reset();
+        assertEquals(0, registry.getOtherMetrics().getInvocations());
+        assertEquals(0, registry.snapshot().expressions().size());
+        assertThrows(IllegalArgumentException.class, () -> new MetricsRegistry(-1));
+    }
+
+    @Test
+    void testInstrumentedFunctionsCountCallsAndErrors() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MathFunction function = registry.parse("1 / x");
+
+        assertEquals(0.5, function.calculateDouble(new double[]{2}));
+        assertEquals(new BigDecimal("0.25000000000000000000"), function.calculate(new BigDecimal[]{new BigDecimal(4)}));
+        assertThrows(ArithmeticException.class, () -> function.calculateDouble(new double[]{0}));
+        double[] out = new double[3000];
+        double[] column = new double[3000];
+        Arrays.fill(column, 4);
+        function.evaluate(new double[][]{column}, out);
+
+        ExpressionMetrics metrics = registry.getMetrics("1 / x");
+        assertEquals(3003, metrics.getInvocations());
+        assertEquals(1, metrics.getErrors());
+        assertEquals(1, registry.getPhase(MetricsSnapshot.Phase.LEX).getCount());
+        assertEquals(1, registry.getPhase(MetricsSnapshot.Phase.PARSE).getCount());
+
+        AtomicReference<MetricsSnapshot> exported = new AtomicReference<>();
+        registry.export(exported::set);
+        MetricsSnapshot.Expression snapshot = exported.get().expressions().get(0);
+        assertEquals("1 / x", snapshot.expression());
+        assertEquals(3003, snapshot.invocations());
+        assertEquals(3003, exported.get().phases().get(MetricsSnapshot.Phase.EVALUATE).count());
+
+        registry.instrument("1 / x", function).calculateDouble(new double[]{1});
+        assertEquals(3004, metrics.getInvocations());
+    }
+
+    @Test
+    void testDisabledRegistryReturnsBareFunctions() {
+        MathFunction function = Parser.parse("x + 1");
+        assertSame(function, MetricsRegistry.DISABLED.instrument("x + 1", function));
+        assertFalse(MetricsRegistry.DISABLED.parse("x + 1").getClass().getName().contains("Instrumented"));
+        assertEquals(0, MetricsRegistry.DISABLED.snapshot().expressions().size());
+    }
+
+    @Test
+    void testJfrEventsAreEmitted() throws IOException {
+        MetricsRegistry registry = new MetricsRegistry();
+        Path file = Files.createTempFile("math-parser", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("mathparser.Lex");
+            recording.enable("mathparser.Parse");
+            recording.enable("mathparser.Evaluate");
+            recording.start();
+            MathFunction function = registry.parse("sqrt(x)");
+            function.calculateDouble(new double[]{4});
+            assertThrows(ArithmeticException.class, () -> function.calculateDouble(new double[]{-1}));
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(1, events.stream().filter(e -> e.getEventType().getName().equals("mathparser.Lex")).count());
+            assertEquals(1, events.stream().filter(e -> e.getEventType().getName().equals("mathparser.Parse")).count());
+            List<RecordedEvent> evaluations = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("mathparser.Evaluate")).toList();
+            assertEquals(2, evaluations.size());
+            assertEquals("sqrt(x)", evaluations.get(0).getString("expression"));
+            assertEquals(1, evaluations.stream().filter(e -> e.getBoolean("failed")).count());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
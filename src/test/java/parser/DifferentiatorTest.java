@@ -0,0 +1,138 @@
+package parser;
+
+import compiler.ExpressionCompiler;
+import function.MathFunction;
+import function.MultiMathFunction;
+import org.junit.jupiter.api.Test;
+import parser.nodes.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifferentiatorTest {
+    private static final double STEP = 1e-6;
+
+    @Test
+    void testEveryOperatorMatchesFiniteDifferences() {
+        String[] expressions = {
+                "x + y", "x - y", "x * y", "x / y", "x % y", "x ^ y", "x ^ 3", "2 ^ x", "-x * y",
+                "sin(x*y)", "cos(x) * y", "tan(x)", "catan(x*y)", "sqrt(x + y)", "ln(x*y)", "lg(x)", "abs(x - y)",
+                "sin(x*y) + sin(x*y) * sqrt(x^2 + y^2)", "(x + y) / (x - y) ^ 2", "e ^ (x / y) - pi * x",
+                "if(x > y; x * y; sqrt(x) - y) + (x <= y)", "max(x; y*2) - min(x^2; y) + hypot(x; y) * x"
+        };
+        double[][] points = {{1.3, 2.1}, {2.7, 0.6}, {0.4, 1.9}};
+
+        for (String expression : expressions) {
+            ASTNode tree = Parser.parseTree(expression);
+            MathFunction function = tree.toMathFunction();
+            for (String variable : List.of("x", "y")) {
+                MathFunction derivative = Differentiator.derivativeFunction(tree, variable);
+                int index = List.of(Optimizer.variableNames(tree)).indexOf(variable);
+                for (double[] point : points) {
+                    if (index < 0) {
+                        assertEquals(0, derivative.calculateDouble(point), expression);
+                        continue;
+                    }
+                    double expected = centralDifference(function, point, index);
+                    double actual = derivative.calculateDouble(point);
+                    assertEquals(expected, actual, 1e-5 * Math.max(1, Math.abs(expected)),
+                            expression + " d/d" + variable);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFunctionsWithoutPartialsAreRejected() {
+        FunctionRegistry functions = FunctionRegistry.DEFAULT.with("twice", 1, true, args -> 2 * args[0]);
+        ASTNode tree = Parser.parseTree("twice(x) + max(y; 1)", ParserOptions.DEFAULT.withFunctions(functions));
+
+        assertNumber(0, Differentiator.derivative(Parser.parseTree("twice(3) + y",
+                ParserOptions.DEFAULT.withFunctions(functions)), "x"));
+        Exception missing = assertThrows(UnsupportedOperationException.class,
+                () -> Differentiator.derivative(tree, "x"));
+        assertEquals("Cannot differentiate function twice: no partial derivatives defined", missing.getMessage());
+        assertEquals(0, Differentiator.derivativeFunction(tree, "y").calculateDouble(new double[]{1, 0.5}));
+        assertEquals(1, Differentiator.derivativeFunction(tree, "y").calculateDouble(new double[]{1, 2}));
+    }
+
+    @Test
+    void testResultIsSimplified() {
+        assertNumber(0, Differentiator.derivative(Parser.parseTree("y * sqrt(y)"), "x"));
+        assertNumber(0, Differentiator.derivative(Parser.parseTree("x + 1"), "z"));
+        assertNumber(5, Differentiator.derivative(Parser.parseTree("5 * x + 3"), "x"));
+        assertInstanceOfVariable(Differentiator.derivative(Parser.parseTree("x * y"), "x"), "y");
+
+        BinaryOperationNode square = (BinaryOperationNode) Differentiator.derivative(Parser.parseTree("x ^ 2"), "x");
+        assertEquals("*", square.getOperator());
+        assertNumber(2, square.getLeft());
+        assertInstanceOfVariable(square.getRight(), "x");
+    }
+
+    @Test
+    void testOptimizedTreesCanBeDifferentiated() {
+        String expression = "sin(x*y) + sin(x*y) * (x*y)";
+        ASTNode plain = Parser.parseTree(expression);
+        ASTNode optimized = Optimizer.optimize(plain);
+        assertTrue(optimized instanceof BlockNode);
+
+        double[] point = {0.7, 1.1};
+        for (String variable : List.of("x", "y")) {
+            assertEquals(Differentiator.derivativeFunction(plain, variable).calculateDouble(point),
+                    Differentiator.derivativeFunction(optimized, variable).calculateDouble(point), 1e-12);
+        }
+    }
+
+    @Test
+    void testDerivativeCanBeCompiled() {
+        ASTNode tree = Parser.parseTree("x^3 * sin(y) + ln(x)");
+        ASTNode derivative = Optimizer.optimize(Differentiator.derivative(tree, "x"));
+
+        MathFunction compiled = ExpressionCompiler.compile(derivative);
+        assertEquals(3 * 4 * Math.sin(0.5) + 0.5, compiled.calculateDouble(new double[]{2, 0.5}), 1e-12);
+    }
+
+    @Test
+    void testGradientSharesSubexpressions() {
+        ASTNode tree = Parser.parseTree("sin(x*y*z) + x*y*z");
+        MultiMathFunction gradient = Differentiator.gradientFunction(tree);
+        assertEquals(3, gradient.getSize());
+
+        MultiBlockNode block = Optimizer.eliminateCommonSubexpressions(
+                List.of(Differentiator.gradient(tree)), Optimizer.variableNames(tree));
+        assertFalse(block.getBindings().isEmpty());
+
+        double x = 0.5, y = 1.5, z = -2;
+        double shared = Math.cos(x * y * z) + 1;
+        double[] out = new double[3];
+        gradient.calculateDouble(new double[]{x, y, z}, out);
+        assertArrayEquals(new double[]{shared * y * z, shared * x * z, shared * x * y}, out, 1e-12);
+    }
+
+    @Test
+    void testUndefinedPointsStillThrow() {
+        MathFunction derivative = Differentiator.derivativeFunction(Parser.parseTree("ln(x)"), "x");
+        ArithmeticException exception = assertThrows(ArithmeticException.class,
+                () -> derivative.calculateDouble(new double[]{0}));
+        assertEquals("Division by zero", exception.getMessage());
+    }
+
+    private static double centralDifference(MathFunction function, double[] point, int index) {
+        double[] forward = point.clone();
+        double[] backward = point.clone();
+        forward[index] += STEP;
+        backward[index] -= STEP;
+        return (function.calculateDouble(forward) - function.calculateDouble(backward)) / (2 * STEP);
+    }
+
+    private static void assertNumber(double expected, ASTNode node) {
+        assertTrue(node instanceof NumberNode, "Expected a number but got " + node);
+        assertEquals(expected, ((NumberNode) node).getDoubleValue());
+    }
+
+    private static void assertInstanceOfVariable(ASTNode node, String name) {
+        assertTrue(node instanceof VariableNode, "Expected a variable but got " + node);
+        assertEquals(name, ((VariableNode) node).name());
+    }
+}
@@ -0,0 +1,150 @@
+package parser;
+
+import compiler.ExpressionCompiler;
+import function.MathFunction;
+import lexer.Lexer;
+import org.junit.jupiter.api.Test;
+import parser.nodes.*;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizerTest {
+    private static final ParserOptions OPTIMIZED = ParserOptions.DEFAULT.withOptimization(true);
+
+    @Test
+    void testResultsStayNumericallyIdentical() {
+        String[] expressions = {
+                "2*pi*x + 0*y + sqrt(4)", "x*1 + 0 + y^1 - 0", "-(-x) + -(-(y))", "1*x*1 + 1*(y+0)",
+                "sin(x*y) + cos(x*y) * (x*y)", "(x+y)^2 + (x+y)^2 / (x+y)", "abs(x-y) * abs(x-y) + 3 % 2",
+                "sqrt(16)-21+3^2^1-21*3*(6+2)+ln(e)", "1+2*3-4/5+6%7^8*9-10+11*12-13/14+15%16^17*18-19+20*21",
+                "x / 3 + x / 3 + y * 0.1 + y * 0.1"
+        };
+        BigDecimal[][] points = {
+                {new BigDecimal("2"), new BigDecimal("3")},
+                {new BigDecimal("-1.25"), new BigDecimal("0.5")},
+                {new BigDecimal("9999999999999999999999"), new BigDecimal("0.000001")}
+        };
+
+        for (String expression : expressions) {
+            MathFunction plain = Parser.parse(Lexer.tokenize(expression));
+            MathFunction optimized = Parser.parse(Lexer.tokenize(expression), OPTIMIZED);
+            for (BigDecimal[] point : points) {
+                BigDecimal expected = plain.calculate(point);
+                BigDecimal actual = optimized.calculate(point);
+                assertEquals(0, expected.compareTo(actual), expression + ": " + expected + " vs " + actual);
+            }
+        }
+    }
+
+    @Test
+    void testConstantFolding() {
+        ASTNode tree = Optimizer.optimize(Parser.parseTree(Lexer.tokenize("2*pi*x + 0*y + sqrt(4)")));
+
+        BinaryOperationNode sum = assertNodeType(BinaryOperationNode.class, tree);
+        assertNodeType(NumberNode.class, sum.getRight());
+        BinaryOperationNode product = assertNodeType(BinaryOperationNode.class, sum.getLeft());
+        assertEquals(0, BigDecimal.valueOf(Math.PI).multiply(BigDecimal.valueOf(2))
+                .compareTo(assertNodeType(NumberNode.class, product.getLeft()).getValue()));
+        assertNodeType(VariableNode.class, product.getRight());
+    }
+
+    @Test
+    void testIdentities() {
+        assertNodeType(VariableNode.class, Optimizer.optimize(Parser.parseTree(Lexer.tokenize("x*1"))));
+        assertNodeType(VariableNode.class, Optimizer.optimize(Parser.parseTree(Lexer.tokenize("0+x"))));
+        assertNodeType(VariableNode.class, Optimizer.optimize(Parser.parseTree(Lexer.tokenize("x^1"))));
+        assertNodeType(VariableNode.class, Optimizer.optimize(Parser.parseTree(Lexer.tokenize("-(-x)"))));
+    }
+
+    @Test
+    void testCommonSubexpressionsAreShared() {
+        ASTNode tree = Optimizer.optimize(Parser.parseTree(Lexer.tokenize("sin(x*y) + sin(x*y) * (x*y)")));
+
+        BlockNode block = assertNodeType(BlockNode.class, tree);
+        assertEquals(2, block.getBindings().size());
+
+        MathFunction function = tree.toMathFunction();
+        double expected = Math.sin(6) + Math.sin(6) * 6;
+        assertEquals(expected, function.calculateDouble(new double[]{2, 3}), 1e-12);
+        assertEquals(expected, ExpressionCompiler.compile(tree).calculateDouble(new double[]{2, 3}), 1e-12);
+
+        double[] out = new double[2];
+        function.evaluate(new double[][]{{2, 1}, {3, 1}}, out);
+        assertEquals(expected, out[0], 1e-12);
+        assertEquals(Math.sin(1) + Math.sin(1), out[1], 1e-12);
+    }
+
+    @Test
+    void testPureFunctionsFoldAndImpureFunctionsDoNot() {
+        assertNodeType(NumberNode.class, Optimizer.optimize(Parser.parseTree("max(1; 2) * hypot(3; 4)")));
+
+        int[] calls = new int[1];
+        ParserOptions options = OPTIMIZED.withFunctions(FunctionRegistry.DEFAULT
+                .with("tick", 1, false, args -> ++calls[0] + args[0]));
+        ASTNode tree = Optimizer.optimize(Parser.parseTree("tick(1) + tick(1) + max(x*y; 1) * max(x*y; 1)", options));
+
+        BlockNode block = assertNodeType(BlockNode.class, tree);
+        assertEquals(1, block.getBindings().size());
+        assertEquals(2 + 3 + 36, tree.toMathFunction().calculateDouble(new double[]{2, 3}));
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    void testPolynomialsUseHornerFormAndExactPowers() {
+        ASTNode plain = Parser.parseTree("3*x^3 + 2*x^2 - x + 5 + x^2");
+        ASTNode horner = Optimizer.optimize(plain);
+
+        BinaryOperationNode sum = assertNodeType(BinaryOperationNode.class, horner);
+        assertEquals("+", sum.getOperator());
+        assertEquals(0, new BigDecimal(5).compareTo(assertNodeType(NumberNode.class, sum.getRight()).getValue()));
+        assertFalse(containsOperator(horner, "^"));
+        for (String value : new String[]{"1.1", "-2.5", "0.001", "123456.789"}) {
+            BigDecimal[] point = {new BigDecimal(value)};
+            BigDecimal x = point[0];
+            BigDecimal expected = x.pow(3).multiply(new BigDecimal(3)).add(x.pow(2).multiply(new BigDecimal(3)))
+                    .subtract(x).add(new BigDecimal(5));
+            assertEquals(0, expected.compareTo(plain.toMathFunction().calculate(point)), value);
+            assertEquals(0, expected.compareTo(horner.toMathFunction().calculate(point)), value);
+            assertEquals(expected.doubleValue(), horner.toMathFunction().calculateDouble(new double[]{x.doubleValue()}),
+                    Math.ulp(expected.doubleValue()) * 8, value);
+        }
+
+        assertEquals(0, new BigDecimal("1.21").compareTo(
+                Parser.parse("x^2").calculate(new BigDecimal[]{new BigDecimal("1.1")})));
+        assertEquals(0, new BigDecimal("0.25").compareTo(
+                Parser.parse("x^-2").calculate(new BigDecimal[]{new BigDecimal(2)})));
+        assertTrue(containsOperator(Optimizer.optimize(Parser.parseTree("x^2 + 1")), "^"));
+        assertTrue(containsOperator(Optimizer.optimize(Parser.parseTree("x^2.5 + x^2 + x")), "^"));
+    }
+
+    @Test
+    void testErrorsArePreserved() {
+        MathFunction function = Parser.parse(Lexer.tokenize("0*sqrt(x) + 1/0"), OPTIMIZED);
+        Exception sqrt = assertThrows(ArithmeticException.class, () ->
+                function.calculate(new BigDecimal[]{BigDecimal.ONE.negate()}));
+        assertTrue(sqrt.getMessage().contains("Square root of negative"));
+
+        Exception division = assertThrows(ArithmeticException.class, () ->
+                function.calculate(new BigDecimal[]{BigDecimal.ONE}));
+        assertTrue(division.getMessage().contains("Division by zero"));
+
+        Exception missing = assertThrows(IllegalArgumentException.class, () ->
+                Parser.parse(Lexer.tokenize("(x+y)*(x+y)"), OPTIMIZED).calculate(new BigDecimal[]{BigDecimal.ONE}));
+        assertTrue(missing.getMessage().contains("variable y"));
+    }
+
+    private static boolean containsOperator(ASTNode node, String operator) {
+        if (node instanceof BinaryOperationNode binary) {
+            return binary.getOperator().equals(operator) || containsOperator(binary.getLeft(), operator)
+                    || containsOperator(binary.getRight(), operator);
+        }
+        return node instanceof UnaryOperationNode unary && containsOperator(unary.getOperand(), operator);
+    }
+
+    private static <T extends ASTNode> T assertNodeType(Class<T> type, ASTNode node) {
+        assertTrue(type.isInstance(node), "Expected " + type.getSimpleName() + " but was " + node);
+        return type.cast(node);
+    }
+}
@@ -1,11 +1,17 @@
 package parser;
 
 import function.MathFunction;
+import function.MultiMathFunction;
 import lexer.Lexer;
 import org.junit.jupiter.api.Test;
+import parser.nodes.MultiBlockNode;
+import parser.nodes.NumberNode;
 
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -99,6 +105,250 @@ class ParserTest {
                 "852.27142857142857142857");
     }
 
+    @Test
+    void testParseFromString() {
+        assertEquals(0, new BigDecimal("17.625").compareTo(
+                Parser.parse("(1 + 2) * (3 + (4 * (5 + 6))) / 2^3").calculate(new BigDecimal[0])));
+        assertEquals(1.75, Parser.parse("-x^2 + 2^-1^2 - 2,5").calculateDouble(new double[]{1.5}), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> Parser.parse("  "));
+    }
+
+    @Test
+    void testMalformedExpressions() {
+        assertThrowsWithMessage("()", "Invalid expression");
+        assertThrowsWithMessage("(2)(3)", "Invalid expression");
+        assertThrowsWithMessage("2 sin(x)", "Invalid expression");
+        assertThrowsWithMessage("+2", "Not enough operands for binary operator: +");
+        assertThrowsWithMessage("-", "Not enough operands for unary operator: -");
+        assertThrowsWithMessage("2*(3+)", "Not enough operands for binary operator: +");
+    }
+
+    @Test
+    void testDeepAndWideExpressions() {
+        String deep = "(".repeat(1000) + "x" + "+1)".repeat(1000);
+        assertEquals(1001.0, Parser.parse(deep).calculateDouble(new double[]{1}));
+        String wide = "x" + "+x".repeat(5000);
+        assertEquals(5001.0, Parser.parse(wide).calculateDouble(new double[]{1}));
+    }
+
+    @Test
+    void testDoubleEvaluation() {
+        testDoubleExpression("(1 + 2) * (3 + (4 * (5 + 6))) / 2^3", new double[0], 17.625);
+        testDoubleExpression("sqrt(16)-21+3^2^1-21*3*(6+2)+ln(e)", new double[0], -511.0);
+        testDoubleExpression("7%3 - -x", new double[]{2}, 3.0);
+        testDoubleExpression("sqrt(x^2+y^2)", new double[]{4, 3}, 5.0);
+        testDoubleExpression("sin(pi/2) + lg(100) + abs(-3)", new double[0], 6.0);
+    }
+
+    @Test
+    void testDoubleEvaluationErrors() {
+        assertCalculateDoubleThrowsWithMessage("1/0", "Division by zero");
+        assertCalculateDoubleThrowsWithMessage("1%0", "Division by zero");
+        assertCalculateDoubleThrowsWithMessage("(-8)^0.5", "Negative base");
+        assertCalculateDoubleThrowsWithMessage("sqrt(-1)", "Square root of negative");
+        assertCalculateDoubleThrowsWithMessage("ln(0)", "Logarithm of non-positive");
+    }
+
+    @Test
+    void testMathContext() {
+        ParserOptions decimal32 = ParserOptions.DEFAULT.withMathContext(MathContext.DECIMAL32);
+        assertEquals(new BigDecimal("0.3333333"), Parser.parse("1/3", decimal32).calculate(new BigDecimal[0]));
+        assertEquals(new BigDecimal("0.33333333333333333333"), Parser.parse("1/3").calculate(new BigDecimal[0]));
+
+        BigDecimal product = Parser.parse("x*x*x*x*x*x*x*x*x*x*x*x", decimal32)
+                .calculate(new BigDecimal[]{new BigDecimal("1.000001")});
+        assertTrue(product.precision() <= 7, product.toString());
+        assertEquals(new BigDecimal("1.000012"), product);
+
+        MathContext precision40 = new MathContext(40);
+        BigDecimal sine = Parser.parse("sin(x) + ln(y)", ParserOptions.DEFAULT.withMathContext(precision40))
+                .calculate(new BigDecimal[]{BigDecimal.ONE, BigDecimal.valueOf(2)});
+        assertEquals(new BigDecimal("1.534618165367841816069734443088475567698"), sine);
+
+        ParserOptions optimized = ParserOptions.DEFAULT.withOptimization(true).withMathContext(precision40);
+        assertEquals(new BigDecimal("1.333333333333333333333333333333333333333"),
+                Parser.parse("1/3 + x", optimized).calculate(new BigDecimal[]{BigDecimal.ONE}));
+
+        ArithmeticException division = assertThrows(ArithmeticException.class,
+                () -> Parser.parse("1/x", decimal32).calculate(new BigDecimal[]{BigDecimal.ZERO}));
+        assertEquals("Division by zero", division.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> ParserOptions.DEFAULT.withMathContext(MathContext.UNLIMITED));
+
+        ParserOptions precision5 = ParserOptions.DEFAULT.withMathContext(new MathContext(5));
+        BigDecimal[] seven = {BigDecimal.valueOf(7)};
+        assertEquals(BigDecimal.ONE, Parser.parse("123456789 % x").calculate(seven));
+        assertEquals(BigDecimal.valueOf(6), Parser.parse("123456789 % x", precision5).calculate(seven));
+        assertEquals(new BigDecimal("0.346"), Parser.parse("x % 1", precision5)
+                .calculate(new BigDecimal[]{new BigDecimal("12.345678")}));
+    }
+
+    @Test
+    void testNamedConstantsFollowMathContext() {
+        MathContext precision50 = new MathContext(50);
+        BigDecimal pi = new BigDecimal("3.1415926535897932384626433832795028841971693993751");
+        BigDecimal e = new BigDecimal("2.7182818284590452353602874713526624977572470937000");
+        ParserOptions exact = ParserOptions.DEFAULT.withMathContext(precision50);
+        assertEquals(pi, Parser.parse("pi", exact).calculate(new BigDecimal[0]));
+        assertEquals(e, Parser.parse("e", exact).calculate(new BigDecimal[0]));
+
+        BigDecimal[] values = {BigDecimal.ONE};
+        BigDecimal expected = pi.multiply(BigDecimal.valueOf(2)).add(e, precision50);
+        assertEquals(expected, Parser.parse("2*pi*x^2 + e", exact).calculate(values));
+        assertEquals(expected, Parser.parse("2*pi*x^2 + e", exact.withOptimization(true)).calculate(values));
+        assertEquals(e.add(BigDecimal.valueOf(2)),
+                Parser.parse("x*x*x + x*x + e*x", exact.withOptimization(true)).calculate(values));
+        assertEquals(0, Parser.parse("pi - 3,141592653589793", exact.withOptimization(true))
+                .calculate(new BigDecimal[0]).compareTo(pi.subtract(new BigDecimal("3.141592653589793"))));
+
+        assertEquals(BigDecimal.valueOf(Math.PI), Parser.parse("pi").calculate(new BigDecimal[0]));
+        assertEquals(Math.PI, Parser.parse("pi", exact).calculateDouble(new double[0]));
+    }
+
+    @Test
+    void testRegisteredFunctions() {
+        testExpression("max(2; 7,5; -1) + min(3; 4)", "10.5");
+        testExpressionWithVars("hypot(width; height) * rate_2",
+                new BigDecimal[]{new BigDecimal("3"), new BigDecimal("4"), new BigDecimal("2")}, "10.0");
+        testDoubleExpression("max(x; y) - min(x; y)", new double[]{1.5, -2}, 3.5);
+
+        FunctionRegistry functions = FunctionRegistry.DEFAULT
+                .with("clamp", 3, true, args -> Math.max(args[1], Math.min(args[2], args[0])));
+        MathFunction clamp = Parser.parse("clamp(x*10; 0; 1)", ParserOptions.DEFAULT.withFunctions(functions));
+        assertEquals(1, clamp.calculateDouble(new double[]{0.5}));
+        double[] out = new double[3];
+        clamp.evaluate(new double[][]{{-1, 0.05, 2}}, out);
+        assertArrayEquals(new double[]{0, 0.5, 1}, out, 1e-12);
+
+        MathFunction inner = Parser.parse("max(x; 1; min(x; 3))");
+        FunctionRegistry reentrant = FunctionRegistry.DEFAULT
+                .with("twice", 1, true, args -> 2 * inner.calculateDouble(new double[]{args[0]}))
+                .with("fail", 1, true, args -> {
+                    throw new ArithmeticException("Probe failure");
+                });
+        MathFunction nested = Parser.parse("hypot(twice(min(x; y; 5)); max(y; 2)) + max(x; twice(y))",
+                ParserOptions.DEFAULT.withFunctions(reentrant));
+        for (double x = -3; x <= 3; x += 0.5) {
+            double expected = Math.hypot(2 * Math.max(1, Math.min(x, 0.5)), 2) + Math.max(x, 2);
+            assertEquals(expected, nested.calculateDouble(new double[]{x, 0.5}));
+            assertEquals(expected, nested.calculate(new BigDecimal[]{BigDecimal.valueOf(x), new BigDecimal("0.5")})
+                    .doubleValue(), 1e-12);
+        }
+        MathFunction failing = Parser.parse("max(x; fail(x))", ParserOptions.DEFAULT.withFunctions(reentrant));
+        assertThrows(ArithmeticException.class, () -> failing.calculateDouble(new double[]{1}));
+        assertEquals(3, Parser.parse("max(x; min(x; 4); 2)").calculateDouble(new double[]{3}));
+
+        assertThrowsWithMessage("foo(1)", "Unknown function: foo");
+        assertThrowsWithMessage("hypot(1)", "Function hypot expects 2 arguments but got 1");
+        assertThrowsWithMessage("max()", "Function max expects at least 1 argument but got 0");
+        assertThrowsWithMessage("max(1;)", "Invalid expression");
+        assertThrowsWithMessage("(1;2)", "Invalid expression");
+        assertThrows(IllegalArgumentException.class, () -> functions.with("sin", 1, true, args -> args[0]));
+        assertThrows(IllegalArgumentException.class, () -> functions.with("Bad", 1, true, args -> args[0]));
+    }
+
+    @Test
+    void testParseAllSharesWorkAcrossExpressions() {
+        int[] calls = new int[1];
+        ParserOptions options = ParserOptions.DEFAULT.withFunctions(FunctionRegistry.DEFAULT
+                .with("probe", 1, true, args -> {
+                    calls[0]++;
+                    return args[0];
+                }));
+        List<String> expressions = List.of("probe(x*y) + z", "sin(probe(x*y))", "price * probe(x*y) - 1/z", "2+3");
+
+        MultiBlockNode block = Parser.parseAllTrees(expressions, options.withOptimization(true));
+        assertArrayEquals(new String[]{"x", "y", "z", "price"}, block.getVariableNames());
+        assertEquals(1, block.getBindings().size());
+        assertTrue(block.getResults().get(3) instanceof NumberNode);
+
+        MultiMathFunction all = Parser.parseAll(expressions, options);
+        double[] values = {1.5, -2, 4, 10};
+        double[] out = new double[4];
+        all.calculateDouble(values, out);
+        assertEquals(1, calls[0]);
+        assertArrayEquals(new double[]{1, Math.sin(-3), -30.25, 5}, out, 1e-12);
+
+        BigDecimal[] exact = all.calculate(new BigDecimal[]{new BigDecimal("1.5"), new BigDecimal("-2"),
+                new BigDecimal("4"), BigDecimal.TEN});
+        assertEquals(0, new BigDecimal("1.0").compareTo(exact[0]));
+        assertEquals(0, new BigDecimal("5").compareTo(exact[3]));
+
+        Exception invalid = assertThrows(IllegalArgumentException.class, () -> Parser.parseAll(List.of("x", "x+")));
+        assertTrue(invalid.getMessage().startsWith("Cannot parse expression 1 'x+'"));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseAll(List.of()));
+    }
+
+    @Test
+    void testKeywordPrefixesAndSeparatedIdentifiers() {
+        testExpression("sin2 - sin(2) + ln2 - ln(2) + lg10", "1");
+        assertEquals(0, Parser.parse("sin2").getVarNumber());
+        assertThrows(IllegalArgumentException.class, () -> Parser.parse("x y"));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parse("rate price"));
+        testDoubleExpression("x1 * rate_2", new double[]{3, 4}, 12);
+    }
+
+    @Test
+    void testParseAllReusesFrames() {
+        MultiMathFunction all = Parser.parseAll(List.of("sqrt(x*x + y*y)", "ln(x*x + y*y) - x", "x*x + y*y"));
+        double[] values = {1.5, -2};
+        double[] out = new double[3];
+        for (int i = 0; i < 20_000; i++) {
+            all.calculateDouble(values, out);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 10_000; i++) {
+            all.calculateDouble(values, out);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes");
+        assertArrayEquals(new double[]{2.5, Math.log(6.25) - 1.5, 6.25}, out, 1e-12);
+    }
+
+    @Test
+    void testComparisonsAndLazyConditionals() {
+        testExpression("(1 < 2) + (2 <= 2) + (3 > 4) + (1 == 1) + (1 != 1) + (2 >= 3)", "3");
+        testExpression("1 + 1 < 3 * 1", "1");
+        testExpression("2 ^ 3 == 8 == 1", "1");
+        testDoubleExpression("if(x - 1; 10; 20) + if(x > 1; 1; -1)", new double[]{1}, 19);
+
+        int[] calls = new int[1];
+        FunctionRegistry functions = FunctionRegistry.DEFAULT.with("probe", 1, true, args -> {
+            calls[0]++;
+            return args[0];
+        });
+        MathFunction guarded = Parser.parse("if(x >= 0; sqrt(x); probe(1 / x))",
+                ParserOptions.DEFAULT.withFunctions(functions));
+        assertEquals(2, guarded.calculateDouble(new double[]{4}));
+        assertEquals(0, calls[0]);
+        assertEquals(-0.5, guarded.calculateDouble(new double[]{-2}));
+        assertEquals(1, calls[0]);
+        assertEquals(0, new BigDecimal("-0.25").compareTo(guarded.calculate(new BigDecimal[]{new BigDecimal(-4)})));
+
+        double[] column = new double[3000];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = i < 1500 ? i + 1 : (i % 2 == 0 ? i : -i);
+        }
+        double[] out = new double[column.length];
+        guarded.evaluate(new double[][]{column}, out);
+        for (int i = 0; i < column.length; i++) {
+            assertEquals(guarded.calculateDouble(new double[]{column[i]}), out[i], "row " + i);
+        }
+        ArithmeticException division = assertThrows(ArithmeticException.class,
+                () -> Parser.parse("if(x > 0; 1 / (x - 1); 0)").evaluate(new double[][]{{2, 1, -1}}, new double[3]));
+        assertEquals("Division by zero", division.getMessage());
+
+        assertThrowsWithMessage("if(1; 2)", "Function if expects 3 arguments but got 2");
+        assertThrowsWithMessage("if + 1", "Invalid expression");
+        assertThrowsWithMessage("1 < ", "Not enough operands for binary operator: <");
+        assertThrows(IllegalArgumentException.class, () -> functions.with("if", 3, true, args -> args[0]));
+    }
+
     private void testExpression(String expr, String expected) {
         MathFunction func = Parser.parse(Lexer.tokenize(expr));
         BigDecimal result = func.calculate(new BigDecimal[0]);
@@ -111,6 +361,11 @@ class ParserTest {
         assertEquals(new BigDecimal(expected).setScale(20, RoundingMode.HALF_UP), result.setScale(20, RoundingMode.HALF_UP));
     }
 
+    private void testDoubleExpression(String expr, double[] vars, double expected) {
+        MathFunction func = Parser.parse(Lexer.tokenize(expr));
+        assertEquals(expected, func.calculateDouble(vars), 1e-12);
+    }
+
     private void assertThrowsWithMessage(String expr, String messagePart) {
         Exception exception = assertThrows(IllegalArgumentException.class, () ->
                 Parser.parse(Lexer.tokenize(expr))
@@ -124,4 +379,11 @@ class ParserTest {
         );
         assertTrue(exception.getMessage().contains(messagePart));
     }
+
+    private void assertCalculateDoubleThrowsWithMessage(String expr, String messagePart) {
+        Exception exception = assertThrows(ArithmeticException.class, () ->
+                Parser.parse(Lexer.tokenize(expr)).calculateDouble(new double[1])
+        );
+        assertTrue(exception.getMessage().contains(messagePart));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvPipelineTest {
+
+    @Test
+    void testStreamsRowsAcrossBufferAndChunkBoundaries() throws IOException {
+        Path input = Files.createTempFile("math-parser", ".csv");
+        Path output = Files.createTempFile("math-parser", ".csv");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Random random = new Random(11);
+            StringBuilder csv = new StringBuilder("id, Y ,x\r\n");
+            double[] expected = new double[10_000];
+            for (int i = 0; i < expected.length; i++) {
+                double x = Math.round(random.nextGaussian() * 1e6) / 1e3;
+                double y = i % 500 == 0 ? 0 : random.nextInt(100) + 1;
+                csv.append(i).append(',').append(y).append(", ").append(x).append(i % 2 == 0 ? "\n" : "\r\n");
+                expected[i] = y == 0 ? Double.NaN : x / y;
+            }
+            csv.append("\n");
+            Files.writeString(input, csv);
+
+            CsvPipeline pipeline = CsvPipeline.of("x / y").withBufferSize(100).withChunkRows(777);
+            CsvPipeline.Summary sequential = pipeline.run(input, output);
+            List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+            assertEquals(new CsvPipeline.Summary(10_000, 20), sequential);
+            assertEquals("result", lines.get(0));
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], Double.parseDouble(lines.get(i + 1)), "row " + i);
+            }
+
+            assertEquals(sequential, pipeline.withExecutor(executor).withChunkRows(CsvPipeline.DEFAULT_CHUNK_ROWS)
+                    .run(input, output));
+            assertEquals(lines, Files.readAllLines(output, StandardCharsets.US_ASCII));
+        } finally {
+            executor.shutdown();
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void testNumbersParseExactlyLikeDouble() throws IOException {
+        String[] values = {"0", "-0.0", "1.5", "+12", "3.14159265358979", "1e22", "1e-22", "2.5E+3",
+                "0.000123456789012345678", "123456789012345678901", "1e300", "4.9e-324", "NaN", "-Infinity"};
+        Path input = Files.createTempFile("math-parser", ".csv");
+        Path output = Files.createTempFile("math-parser", ".csv");
+        try {
+            Files.writeString(input, "a\n" + String.join("\n", values));
+            CsvPipeline.of("a").run(input, output);
+            List<String> lines = Files.readAllLines(output);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(Double.parseDouble(values[i]), Double.parseDouble(lines.get(i + 1)), values[i]);
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    void testMalformedInputIsRejected() throws IOException {
+        Path input = Files.createTempFile("math-parser", ".csv");
+        Path output = Files.createTempFile("math-parser", ".csv");
+        try {
+            Files.writeString(input, "x;z\n1;2\n");
+            Exception missing = assertThrows(IllegalArgumentException.class,
+                    () -> CsvPipeline.of("x + y").withDelimiter(';').run(input, output));
+            assertTrue(missing.getMessage().contains("Missing column for variable y"));
+
+            Files.writeString(input, "x,y\n1,2\n3,abc\n");
+            Exception invalid = assertThrows(IllegalArgumentException.class,
+                    () -> CsvPipeline.of("x + y").run(input, output));
+            assertTrue(invalid.getMessage().contains("Invalid number at line 3, column 2"));
+
+            Files.writeString(input, "x,y\n1\n");
+            Exception columns = assertThrows(IllegalArgumentException.class,
+                    () -> CsvPipeline.of("x + y").run(input, output));
+            assertTrue(columns.getMessage().contains("Line 2 has 1 columns, expected 2"));
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package solver;
+
+import function.MathFunction;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+
+    @Test
+    void testBrentBracketsRootsAndRejectsMissingSignChange() {
+        RootFinder.Root root = RootFinder.DEFAULT.brent(Parser.parse("x^3 - 2*x - 5"), 2, 3);
+        assertTrue(root.converged());
+        assertEquals(2.0945514815423265, root.x(), 1e-12);
+        assertTrue(root.evaluations() < 20);
+
+        RootFinder.Root cosine = RootFinder.DEFAULT.brent(Parser.parse("cos(x) - x*y"), new double[]{0, 1}, 0, 0, 1);
+        assertEquals(0.7390851332151607, cosine.x(), 1e-12);
+        assertEquals(1, RootFinder.DEFAULT.brent(Parser.parse("x - 1"), 1, 5).x());
+
+        assertThrows(IllegalArgumentException.class, () -> RootFinder.DEFAULT.brent(Parser.parse("x^2 + 1"), -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> RootFinder.DEFAULT.brent(Parser.parse("x*y"), 0, 1));
+
+        MathFunction optimized = Parser.parse("0*x + y", ParserOptions.DEFAULT.withOptimization(true));
+        assertEquals(0, RootFinder.DEFAULT.brent(optimized, new double[]{0, 0}, 1, -1, 3).x(), 1e-12);
+        assertEquals(2, Integrator.DEFAULT.integrate(optimized, new double[]{7, 0}, 1, 0, 2).value(), 1e-12);
+        Exception outside = assertThrows(IllegalArgumentException.class,
+                () -> RootFinder.DEFAULT.brent(optimized, new double[]{0, 0}, 2, 0, 5));
+        assertEquals("Variable index 2 out of range for 2 values", outside.getMessage());
+        Exception missing = assertThrows(IllegalArgumentException.class,
+                () -> RootFinder.DEFAULT.brent(Parser.parse("x*y - z"), new double[]{1, 1}, 0, 0, 1));
+        assertEquals("Not enough values provided for variable z", missing.getMessage());
+        assertFalse(RootFinder.DEFAULT.withMaxIterations(2).brent(Parser.parse("x^3 - 2*x - 5"), 2, 3).converged());
+    }
+
+    @Test
+    void testNewtonUsesDualNumbersOrSymbolicDerivative() {
+        RootFinder.Root dual = RootFinder.DEFAULT.newton(Parser.parse("x^2 - 2"), 1);
+        assertTrue(dual.converged());
+        assertEquals(Math.sqrt(2), dual.x(), 1e-14);
+
+        RootFinder.Root symbolic = RootFinder.DEFAULT.newton(Parser.parseTree("x^2 - y"), "x", new double[]{0, 9}, 1);
+        assertTrue(symbolic.converged());
+        assertEquals(3, symbolic.x(), 1e-14);
+
+        assertEquals(4, RootFinder.DEFAULT.newton(Parser.parse("hypot(x; 3) - 5"), 1).x(), 1e-12);
+        assertEquals(4, RootFinder.DEFAULT.newton(Parser.parseTree("hypot(x; 3) - max(5; y)"), "x",
+                new double[]{0, 0}, 1).x(), 1e-12);
+        assertFalse(RootFinder.DEFAULT.newton(Parser.parse("x^2 + 1"), 0).converged());
+        assertThrows(IllegalArgumentException.class,
+                () -> RootFinder.DEFAULT.newton(Parser.parseTree("x^2"), "z", new double[]{0}, 1));
+    }
+
+    @Test
+    void testAdaptiveIntegrationConvergesOnSmoothAndPeakedIntegrands() {
+        Integrator.Integral polynomial = Integrator.DEFAULT.integrate(Parser.parse("3*x^2"), 0, 2);
+        assertTrue(polynomial.converged());
+        assertEquals(8, polynomial.value(), 1e-12);
+        assertEquals(15, polynomial.evaluations());
+
+        Integrator.Integral sine = Integrator.DEFAULT.integrate(Parser.parse("sin(x)"), Math.PI, 0);
+        assertEquals(-2, sine.value(), 1e-12);
+
+        Integrator.Integral peak = Integrator.DEFAULT.integrate(Parser.parse("1 / (x^2 + 0,0001)"), -1, 1);
+        assertTrue(peak.converged());
+        assertEquals(2 * 100 * Math.atan(100), peak.value(), 1e-8);
+        assertTrue(peak.evaluations() > 15);
+
+        Integrator.Integral scaled = Integrator.DEFAULT.integrate(Parser.parse("sqrt(x) * y"), new double[]{0, 3}, 0,
+                0, 4);
+        assertEquals(16, scaled.value(), 1e-8);
+
+        assertFalse(Integrator.DEFAULT.withMaxIntervals(2).integrate(Parser.parse("1 / (x^2 + 0,0001)"), -1, 1)
+                .converged());
+        assertThrows(ArithmeticException.class, () -> Integrator.DEFAULT.integrate(Parser.parse("ln(x)"), -1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Integrator.DEFAULT.integrate(Parser.parse("x"), 0, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void testParallelIntegrationMatchesSequential() {
+        MathFunction function = Parser.parse("sin(10*x) * sqrt(x + 1) + 1 / (x^2 + 0,001)");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Integrator.Integral parallel = Integrator.DEFAULT.withExecutor(executor).integrate(function, -1, 5);
+            Integrator.Integral inline = Integrator.DEFAULT.integrate(function, -1, 5);
+            assertTrue(parallel.converged());
+            assertEquals(inline.value(), parallel.value());
+            assertEquals(inline.evaluations(), parallel.evaluations());
+        } finally {
+            executor.shutdown();
+        }
+        assertThrows(ArithmeticException.class, () -> Integrator.DEFAULT.integrate(function, -3, 5));
+    }
+
+    @Test
+    void testNelderMeadMinimizesAndTreatsFailuresAsInfinite() {
+        Minimizer.Minimum rosenbrock = Minimizer.DEFAULT.minimize(Parser.parse("(1 - x)^2 + 100*(y - x^2)^2"),
+                new double[]{-1.2, 1});
+        assertTrue(rosenbrock.converged());
+        assertEquals(1, rosenbrock.point()[0], 1e-3);
+        assertEquals(1, rosenbrock.point()[1], 1e-3);
+        assertTrue(rosenbrock.value() < 1e-8);
+
+        Minimizer.Minimum guarded = Minimizer.DEFAULT.withInitialStep(0.5)
+                .minimize(Parser.parse("x - ln(x)"), new double[]{3});
+        assertEquals(1, guarded.point()[0], 1e-3);
+        assertEquals(1, guarded.value(), 1e-8);
+
+        assertFalse(Minimizer.DEFAULT.withMaxEvaluations(10)
+                .minimize(Parser.parse("(1 - x)^2 + 100*(y - x^2)^2"), new double[]{-1.2, 1}).converged());
+        assertThrows(IllegalArgumentException.class,
+                () -> Minimizer.DEFAULT.minimize(Parser.parse("x + y"), new double[]{1}));
+        Minimizer.Minimum shifted = Minimizer.DEFAULT.minimize(
+                Parser.parse("0*x + (y - 3)^2", ParserOptions.DEFAULT.withOptimization(true)), new double[]{0, 0});
+        assertEquals(3, shifted.point()[1], 1e-3);
+    }
+}
@@ -0,0 +1,174 @@
+package store;
+
+import function.ErrorPolicy;
+import function.MathFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import parser.FunctionRegistry;
+import parser.Parser;
+import parser.ParserOptions;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionStoreTest {
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("expression-store");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testStoredProgramsMatchParsedFunctions() throws IOException {
+        List<String> expressions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            expressions.add("sin(x*" + i + ") + sin(x*" + i + ") * y - " + i + " / (1 + abs(y))");
+        }
+        expressions.add("sqrt(x^2 + y^2)");
+        expressions.add("sqrt(x^2 + y^2)");
+        Path file = directory.resolve("formulas.store");
+
+        assertEquals(501, ExpressionStoreWriter.write(file, expressions, ParserOptions.DEFAULT.withOptimization(true)));
+        ExpressionStore store = ExpressionStore.open(file);
+
+        assertEquals(501, store.size());
+        assertEquals(0, store.getLoadedCount());
+        BigDecimal[] exactValues = {new BigDecimal("1.5"), new BigDecimal("-2")};
+        double[] doubleValues = {1.5, -2};
+        for (String expression : expressions) {
+            MathFunction expected = Parser.parse(expression);
+            MathFunction stored = store.get(expression);
+            assertEquals(expected.calculateDouble(doubleValues), stored.calculateDouble(doubleValues), 1e-12);
+            assertEquals(0, expected.calculate(exactValues).compareTo(stored.calculate(exactValues)), expression);
+            assertEquals(expression, store.getSource(store.indexOf(expression)));
+        }
+        assertEquals(501, store.getLoadedCount());
+    }
+
+    @Test
+    void testProgramsAreLoadedLazily() throws IOException {
+        Path file = directory.resolve("lazy.store");
+        ExpressionStoreWriter.write(file, List.of("x+1", "x+2", "x+3"));
+        ExpressionStore store = ExpressionStore.open(file);
+
+        assertSame(store.get("x+2"), store.get("x+2"));
+        assertEquals(1, store.getLoadedCount());
+        assertTrue(store.contains("x+3"));
+        assertFalse(store.contains("x+4"));
+        assertEquals(1, store.getLoadedCount());
+    }
+
+    @Test
+    void testMissingExpressionsUseFallback() throws IOException {
+        Path file = directory.resolve("fallback.store");
+        ExpressionStoreWriter.write(file, List.of("x*2"));
+        AtomicInteger parsed = new AtomicInteger();
+        ExpressionStore store = ExpressionStore.open(file, expression -> {
+            parsed.incrementAndGet();
+            return Parser.parse(expression);
+        });
+
+        assertEquals(6, store.get("x*2").calculateDouble(new double[]{3}));
+        assertEquals(0, parsed.get());
+        assertEquals(7, store.get("x*2+1").calculateDouble(new double[]{3}));
+        assertEquals(1, parsed.get());
+    }
+
+    @Test
+    void testUncompilableExpressionsAreStoredAsSource() throws IOException {
+        Path file = directory.resolve("mixed.store");
+        List<String> expressions = List.of("x*2 + y", "max(x; y) + 1", "if(x > y; x - y; 0)");
+        ExpressionStoreWriter.write(file, expressions, ParserOptions.DEFAULT.withOptimization(true));
+        ExpressionStore store = ExpressionStore.open(file);
+
+        assertTrue(store.isCompiled(store.indexOf("x*2 + y")));
+        assertFalse(store.isCompiled(store.indexOf("max(x; y) + 1")));
+        assertFalse(store.isCompiled(store.indexOf("if(x > y; x - y; 0)")));
+        double[] values = {5, 3};
+        for (String expression : expressions) {
+            assertEquals(Parser.parse(expression).calculateDouble(values),
+                    store.get(expression).calculateDouble(values));
+        }
+        assertSame(store.get("max(x; y) + 1"), store.get("max(x; y) + 1"));
+    }
+
+    @Test
+    void testWriterHonoursFunctionsAndMathContext() throws IOException {
+        Path file = directory.resolve("options.store");
+        ParserOptions options = ParserOptions.DEFAULT
+                .withFunctions(FunctionRegistry.DEFAULT.with("twice", 1, true, args -> 2 * args[0]))
+                .withMathContext(new MathContext(40));
+        ExpressionStoreWriter.write(file, List.of("twice(x) + 1", "1 / x"), options);
+
+        ExpressionStore store = ExpressionStore.open(file, options);
+        assertFalse(store.isCompiled(store.indexOf("1 / x")));
+        assertEquals(7, store.get("twice(x) + 1").calculateDouble(new double[]{3}));
+        assertEquals(new BigDecimal("0.3333333333333333333333333333333333333333"),
+                store.get("1 / x").calculate(new BigDecimal[]{new BigDecimal(3)}));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExpressionStoreWriter.write(file, List.of("twice(x) + 1")));
+    }
+
+    @Test
+    void testReaderOptionsApplyToStoredPrograms() throws IOException {
+        Path file = directory.resolve("policy.store");
+        ExpressionStoreWriter.write(file, List.of("1/x"));
+
+        ExpressionStore throwing = ExpressionStore.open(file, ParserOptions.DEFAULT);
+        assertTrue(throwing.isCompiled(0));
+        assertThrows(ArithmeticException.class, () -> throwing.get("1/x").calculateDouble(new double[]{0}));
+
+        ExpressionStore lenient = ExpressionStore.open(file, ParserOptions.DEFAULT.withErrorPolicy(ErrorPolicy.NAN));
+        assertTrue(Double.isNaN(lenient.get("1/x").calculateDouble(new double[]{0})));
+        assertEquals(0.5, lenient.get("1/x").calculateDouble(new double[]{2}));
+
+        ParserOptions precise = ParserOptions.DEFAULT.withMathContext(new MathContext(30));
+        assertEquals(Parser.parse("1/x", precise).calculate(new BigDecimal[]{new BigDecimal(3)}),
+                ExpressionStore.open(file, precise).get("1/x").calculate(new BigDecimal[]{new BigDecimal(3)}));
+    }
+
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path file = directory.resolve("broken.store");
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> ExpressionStore.open(file));
+
+        ExpressionStoreWriter.write(file, List.of("x+1", "y*2"));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+        ExpressionStore truncated = ExpressionStore.open(file);
+        assertThrows(IllegalArgumentException.class, () -> {
+            for (int i = 0; i < truncated.size(); i++) {
+                truncated.get(i);
+            }
+        });
+        Files.write(file, Arrays.copyOf(bytes, ExpressionStore.HEADER_SIZE + 4));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionStore.open(file));
+
+        Exception invalid = assertThrows(IllegalArgumentException.class,
+                () -> ExpressionStoreWriter.write(directory.resolve("invalid.store"), List.of("x+")));
+        assertTrue(invalid.getMessage().contains("Cannot compile 'x+'"));
+        assertFalse(Files.exists(directory.resolve("invalid.store")));
+    }
+}